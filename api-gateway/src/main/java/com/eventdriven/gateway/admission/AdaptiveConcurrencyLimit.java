@@ -0,0 +1,232 @@
+package com.eventdriven.gateway.admission;
+
+import com.eventdriven.gateway.config.AdmissionProperties;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limit for one route, shared by all priority classes. Each class may fill only
+ * its share of the limit, so as in-flight requests approach the limit the lower classes are turned
+ * away first, and a class with a queue budget waits briefly for a slot instead. Freed slots go to the
+ * highest-priority waiter. The limit itself is AIMD, like the payment gateway's: it grows while
+ * responses stay within {@code latency-tolerance} of the route's best latency over the baseline window,
+ * and backs off on slow responses and failures.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final AdmissionProperties properties;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long baselineWindowNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentLinkedDeque<Waiter>[] queues;
+    private final AtomicInteger[] queued;
+
+    private volatile long baselineNanos = Long.MAX_VALUE;
+    private final AtomicLong windowMinNanos = new AtomicLong(Long.MAX_VALUE);
+    private volatile long windowEnd;
+
+    @SuppressWarnings("unchecked")
+    public AdaptiveConcurrencyLimit(AdmissionProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getLatencyTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.baselineWindowNanos = properties.getBaselineWindow().toNanos();
+        this.clock = clock;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit())));
+        this.windowEnd = clock.getAsLong() + baselineWindowNanos;
+
+        Priority[] priorities = Priority.values();
+        this.queues = new ConcurrentLinkedDeque[priorities.length];
+        this.queued = new AtomicInteger[priorities.length];
+        for (Priority priority : priorities) {
+            queues[priority.ordinal()] = new ConcurrentLinkedDeque<>();
+            queued[priority.ordinal()] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Emits a permit that is either admitted, possibly after queueing, or shed. Admitted permits must be
+     * released exactly once; {@link Permit#release} is idempotent.
+     */
+    public Mono<Permit> acquire(Priority priority) {
+        if (tryAcquire(priority)) {
+            return Mono.just(new Permit(true, false));
+        }
+        AdmissionProperties.ClassPolicy policy = properties.policyFor(priority);
+        long maxWaitMillis = policy.getMaxQueueWait().toMillis();
+        AtomicInteger waiting = queued[priority.ordinal()];
+        if (maxWaitMillis <= 0 || waiting.incrementAndGet() > policy.getMaxQueued()) {
+            if (maxWaitMillis > 0) {
+                waiting.decrementAndGet();
+            }
+            return Mono.just(new Permit(false, false));
+        }
+
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            queues[priority.ordinal()].offer(waiter);
+            Disposable timeout = Schedulers.parallel().schedule(() -> {
+                if (waiter.finish()) {
+                    queues[priority.ordinal()].remove(waiter);
+                    waiting.decrementAndGet();
+                    sink.success(new Permit(false, true));
+                }
+            }, maxWaitMillis, TimeUnit.MILLISECONDS);
+            sink.onCancel(() -> {
+                if (waiter.finish()) {
+                    queues[priority.ordinal()].remove(waiter);
+                    waiting.decrementAndGet();
+                } else if (waiter.permit != null) {
+                    waiter.permit.release(0, Outcome.IGNORED);
+                }
+            });
+            sink.onDispose(timeout);
+            // A slot may have freed up between the failed attempt and enqueueing
+            drain();
+        });
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit.get() * properties.policyFor(priority).getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        for (Priority priority : Priority.values()) {
+            ConcurrentLinkedDeque<Waiter> queue = queues[priority.ordinal()];
+            while (!queue.isEmpty()) {
+                if (!tryAcquire(priority)) {
+                    // Lower classes have a smaller share, so they cannot be admitted either
+                    return;
+                }
+                Waiter waiter = queue.poll();
+                if (waiter == null) {
+                    inFlight.decrementAndGet();
+                    continue;
+                }
+                // Published before finishing so a concurrent cancel can hand the slot back
+                Permit permit = new Permit(true, true);
+                waiter.permit = permit;
+                if (!waiter.finish()) {
+                    inFlight.decrementAndGet();
+                    continue;
+                }
+                queued[priority.ordinal()].decrementAndGet();
+                waiter.sink.success(permit);
+            }
+        }
+    }
+
+    private void onRelease(long latencyNanos, Outcome outcome) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        switch (outcome) {
+            case SUCCESS -> {
+                if (latencyNanos > latencyThreshold(latencyNanos)) {
+                    decrease();
+                } else if (inFlightAtCompletion * 2 >= limit.get()) {
+                    limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+                }
+            }
+            case DROPPED -> decrease();
+            case IGNORED -> {
+            }
+        }
+        drain();
+    }
+
+    private long latencyThreshold(long latencyNanos) {
+        long now = clock.getAsLong();
+        if (now > windowEnd) {
+            long windowMin = windowMinNanos.getAndSet(Long.MAX_VALUE);
+            if (windowMin != Long.MAX_VALUE) {
+                baselineNanos = windowMin;
+            }
+            windowEnd = now + baselineWindowNanos;
+        }
+        long windowMin = windowMinNanos.accumulateAndGet(latencyNanos, Math::min);
+        long best = Math.min(baselineNanos, windowMin);
+        return (long) Math.min(Long.MAX_VALUE, best * tolerance);
+    }
+
+    private void decrease() {
+        limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    public final class Permit {
+        private final boolean admitted;
+        private final boolean queued;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean admitted, boolean queued) {
+            this.admitted = admitted;
+            this.queued = queued;
+        }
+
+        public boolean isAdmitted() {
+            return admitted;
+        }
+
+        public boolean wasQueued() {
+            return queued;
+        }
+
+        public void release(long latencyNanos, Outcome outcome) {
+            if (admitted && released.compareAndSet(false, true)) {
+                onRelease(latencyNanos, outcome);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Permit permit;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.eventdriven.gateway.admission;
+
+import com.eventdriven.gateway.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admits routed requests through a per-route {@link AdaptiveConcurrencyLimit} and answers 503 for
+ * those it sheds, before they reach the load balancer. Runs after the route's own filters, so
+ * unauthenticated and rate-limited requests never take a slot.
+ */
+@Component
+public class AdmissionControlFilter implements GlobalFilter, Ordered {
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final Map<Priority, Counter> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> queued = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (Priority priority : Priority.values()) {
+            admitted.put(priority, counter(priority, "admitted"));
+            queued.put(priority, counter(priority, "queued"));
+            shed.put(priority, counter(priority, "shed"));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || isEventStream(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        Priority priority = Priority.of(exchange.getRequest());
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(route.getId(), this::createLimit);
+        return limit.acquire(priority).flatMap(permit -> {
+            if (permit.wasQueued()) {
+                queued.get(priority).increment();
+            }
+            if (!permit.isAdmitted()) {
+                shed.get(priority).increment();
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+            admitted.get(priority).increment();
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> permit.release(System.nanoTime() - start, outcome(signal, exchange)));
+        });
+    }
+
+    // A stream would hold its slot for as long as the client stays connected, and its duration says
+    // nothing about how fast the backend is
+    private static boolean isEventStream(ServerWebExchange exchange) {
+        List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+        return accept != null && accept.stream().anyMatch(value -> value.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    private static AdaptiveConcurrencyLimit.Outcome outcome(SignalType signal, ServerWebExchange exchange) {
+        if (signal == SignalType.CANCEL) {
+            return AdaptiveConcurrencyLimit.Outcome.IGNORED;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+            return AdaptiveConcurrencyLimit.Outcome.DROPPED;
+        }
+        return AdaptiveConcurrencyLimit.Outcome.SUCCESS;
+    }
+
+    private AdaptiveConcurrencyLimit createLimit(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, System::nanoTime);
+        Gauge.builder("gateway.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private Counter counter(Priority priority, String outcome) {
+        return Counter.builder("gateway.admission.requests")
+                .tag("class", priority.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // Route filters (JWT, rate limit) are registered at order 0
+        return 1;
+    }
+}
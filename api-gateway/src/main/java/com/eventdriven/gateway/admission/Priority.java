@@ -0,0 +1,24 @@
+package com.eventdriven.gateway.admission;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Request classes in descending importance; under load the lower classes are shed first.
+ */
+public enum Priority {
+    CRITICAL,
+    NORMAL,
+    LOW;
+
+    public static Priority of(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        if (HttpMethod.POST.equals(request.getMethod()) && path.equals("/api/orders")) {
+            return CRITICAL;
+        }
+        if (path.startsWith("/actuator")) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+}
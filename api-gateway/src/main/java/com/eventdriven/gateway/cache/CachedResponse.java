@@ -0,0 +1,24 @@
+package com.eventdriven.gateway.cache;
+
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+/**
+ * A stored 200 response. {@code storedAt} is a {@link System#nanoTime()} reading, reset whenever
+ * upstream confirms the entry is still current.
+ */
+record CachedResponse(MediaType contentType, String etag, byte[] body, long storedAt) {
+
+    boolean isFresh(long now, Duration ttl) {
+        return now - storedAt < ttl.toNanos();
+    }
+
+    CachedResponse revalidated(long now) {
+        return new CachedResponse(contentType, etag, body, now);
+    }
+
+    int weight(String key) {
+        return body.length + 2 * key.length() + (etag == null ? 0 : 2 * etag.length()) + 64;
+    }
+}
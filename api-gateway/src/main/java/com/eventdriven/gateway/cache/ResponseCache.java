@@ -0,0 +1,80 @@
+package com.eventdriven.gateway.cache;
+
+import com.eventdriven.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded store behind {@link ResponseCacheFilter}, evicting the least recently used entries once the
+ * stored bytes exceed the configured size. Keys begin with a partition prefix so all of one user's
+ * entries on a route can be dropped together.
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("gateway.cache.size", this, ResponseCache::bytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", this, ResponseCache::entryCount).register(meterRegistry);
+    }
+
+    static String partition(String routeId, String userId) {
+        return routeId + '\n' + userId + '\n';
+    }
+
+    synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, CachedResponse response) {
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.weight(key);
+        }
+        bytes += response.weight(key);
+        long maxBytes = properties.getMaxSize().toBytes();
+        for (Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+             bytes > maxBytes && it.hasNext(); ) {
+            Map.Entry<String, CachedResponse> eldest = it.next();
+            bytes -= eldest.getValue().weight(eldest.getKey());
+            it.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.weight(key);
+        }
+    }
+
+    // A scan, but the store is small and only writes through the gateway land here
+    synchronized void removePartition(String partition) {
+        for (Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            if (entry.getKey().startsWith(partition)) {
+                bytes -= entry.getValue().weight(entry.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int entryCount() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,260 @@
+package com.eventdriven.gateway.cache;
+
+import com.eventdriven.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+
+/**
+ * Caches GET responses of the routes listed under {@code gateway.response-cache.routes}, separately
+ * for each user. A fresh entry is served without contacting upstream; once its TTL has passed, the
+ * request goes upstream with the entry's ETag in {@code If-None-Match}, and a 304 renews the entry
+ * instead of transferring the body again. Clients that send a matching {@code If-None-Match} get a 304
+ * from the gateway. Any other request a user sends through the route drops their entries for it.
+ * <p>
+ * Routes add this filter after authentication and {@link #capture()} at {@link #CAPTURE_ORDER}: the
+ * response has to be wrapped before the Netty write filter takes hold of it, which is earlier than the
+ * user is known.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter {
+
+    public static final int CAPTURE_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String USER_HEADER = "X-User-Id";
+    private static final String PENDING_ATTR = ResponseCacheFilter.class.getName() + ".pending";
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCache cache;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCache cache, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps GET responses so that whatever routing writes can be stored or, after a revalidation,
+     * replaced; does nothing unless this filter marked the exchange.
+     */
+    public GatewayFilter capture() {
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange.mutate().response(new CachingResponse(exchange)).build());
+        };
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String userId = request.getHeaders().getFirst(USER_HEADER);
+        ResponseCacheProperties.RouteCache config = route == null ? null : properties.getRoutes().get(route.getId());
+        if (!properties.isEnabled() || config == null || userId == null) {
+            return chain.filter(exchange);
+        }
+        String partition = ResponseCache.partition(route.getId(), userId);
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET) {
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).doFinally(signal -> cache.removePartition(partition));
+        }
+        if (isEventStream(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        URI uri = request.getURI();
+        String key = partition + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        String clientTags = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        CachedResponse stored = cache.get(key);
+        if (stored != null && stored.isFresh(System.nanoTime(), config.getTtl())) {
+            record(route, "hit");
+            return serve(exchange.getResponse(), stored, clientTags, "HIT");
+        }
+
+        ServerHttpRequest upstream = request;
+        CachedResponse revalidating = stored != null && stored.etag() != null ? stored : null;
+        if (revalidating != null) {
+            upstream = request.mutate()
+                    .headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, revalidating.etag()))
+                    .build();
+        }
+        exchange.getAttributes().put(PENDING_ATTR, new Pending(route, key, revalidating, clientTags));
+        return chain.filter(exchange.mutate().request(upstream).build());
+    }
+
+    private Mono<Void> serve(ServerHttpResponse response, CachedResponse cached, String clientTags, String status) {
+        HttpHeaders headers = response.getHeaders();
+        headers.set(CACHE_STATUS_HEADER, status);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        if (cached.etag() != null) {
+            headers.setETag(cached.etag());
+        }
+        if (cached.etag() != null && matches(clientTags, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(cached.contentType());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void record(Route route, String result) {
+        meterRegistry.counter("gateway.cache.requests", "route", route.getId(), "result", result).increment();
+    }
+
+    // A weak comparison, as If-None-Match calls for
+    static boolean matches(String clientTags, String etag) {
+        if (clientTags == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String tag : clientTags.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static boolean isEventStream(HttpHeaders headers) {
+        String accept = headers.getFirst(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains("text/event-stream");
+    }
+
+    private record Pending(Route route, String key, CachedResponse revalidating, String clientTags) {
+    }
+
+    /**
+     * Sees the upstream response as routing writes it: turns a 304 to our revalidation back into the
+     * stored body, and copies cacheable 200s into the store as they stream through. Streaming responses
+     * are written with {@code writeAndFlushWith} and so are never captured.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private CachingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Pending pending = exchange.getAttribute(PENDING_ATTR);
+            if (pending == null) {
+                return super.writeWith(body);
+            }
+            if (isNotModified(pending)) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(() -> serveRenewed(pending)));
+            }
+            HttpHeaders headers = getHeaders();
+            if (!isCacheable(getStatusCode(), headers)) {
+                forget(pending);
+                return super.writeWith(body);
+            }
+            record(pending.route(), "miss");
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            long maxEntryBytes = properties.getMaxEntrySize().toBytes();
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] overflow = new boolean[1];
+            Flux<? extends DataBuffer> captured = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (overflow[0] || copy.size() + length > maxEntryBytes) {
+                            overflow[0] = true;
+                            return;
+                        }
+                        ByteBuffer bytes = ByteBuffer.allocate(length);
+                        buffer.toByteBuffer(buffer.readPosition(), bytes, 0, length);
+                        copy.write(bytes.array(), 0, length);
+                    })
+                    .doOnComplete(() -> {
+                        if (!overflow[0]) {
+                            cache.put(pending.key(), new CachedResponse(headers.getContentType(), headers.getETag(),
+                                    copy.toByteArray(), System.nanoTime()));
+                        }
+                    });
+            return super.writeWith(captured);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            Pending pending = exchange.getAttribute(PENDING_ATTR);
+            if (pending == null) {
+                return super.setComplete();
+            }
+            if (isNotModified(pending)) {
+                return serveRenewed(pending);
+            }
+            forget(pending);
+            return super.setComplete();
+        }
+
+        private boolean isNotModified(Pending pending) {
+            return pending.revalidating() != null && HttpStatus.NOT_MODIFIED.isSameCodeAs(getStatusCode());
+        }
+
+        private Mono<Void> serveRenewed(Pending pending) {
+            CachedResponse renewed = pending.revalidating().revalidated(System.nanoTime());
+            cache.put(pending.key(), renewed);
+            record(pending.route(), "revalidated");
+            return serve(getDelegate(), renewed, pending.clientTags(), "REVALIDATED");
+        }
+
+        // Whatever upstream answered instead of our 304 supersedes the stored entry
+        private void forget(Pending pending) {
+            if (pending.revalidating() != null) {
+                cache.remove(pending.key());
+            }
+            record(pending.route(), "bypass");
+        }
+
+        private boolean isCacheable(HttpStatusCode status, HttpHeaders headers) {
+            if (status == null || !HttpStatus.OK.isSameCodeAs(status)) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength > properties.getMaxEntrySize().toBytes()) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            return cacheControl == null || !cacheControl.contains(CacheControl.noStore().getHeaderValue());
+        }
+    }
+}
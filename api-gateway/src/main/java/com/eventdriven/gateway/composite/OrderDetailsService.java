@@ -0,0 +1,134 @@
+package com.eventdriven.gateway.composite;
+
+import com.eventdriven.gateway.config.OrderDetailsProperties;
+import com.eventdriven.gateway.dto.OrderDetailsResponse;
+import com.eventdriven.gateway.loadbalancer.TrackedLoadBalancerExchangeFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Assembles {@link OrderDetailsResponse} from order-, payment- and inventory-service in one pass. The
+ * order and payment legs run concurrently; the inventory legs need the order's product ids, so they
+ * fan out as soon as the order arrives. Every leg has its own timeout, and a failed leg is reported
+ * in the response instead of failing the whole request.
+ */
+@Service
+public class OrderDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderDetailsService.class);
+
+    private final OrderDetailsProperties properties;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OrderDetailsService(OrderDetailsProperties properties,
+                               WebClient.Builder webClientBuilder,
+                               TrackedLoadBalancerExchangeFilter loadBalancerFilter,
+                               MeterRegistry meterRegistry) {
+        // Boot's builder records client spans and passes the trace on to each leg
+        this(properties, webClientBuilder.filter(loadBalancerFilter).build(), meterRegistry);
+    }
+
+    OrderDetailsService(OrderDetailsProperties properties, WebClient webClient, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<OrderDetailsResponse> fetch(long orderId, String userId) {
+        Mono<JsonNode> order = get("http://order-service/api/orders/{id}", orderId, userId,
+                properties.getOrderTimeout()).cache();
+        Mono<Leg> orderLeg = leg("order", order);
+        Mono<Leg> paymentLeg = leg("payment", get("http://payment-service/api/payments/order/{id}", orderId, userId,
+                properties.getPaymentTimeout()));
+        Mono<Map<String, Leg>> inventoryLegs = order
+                .flatMapMany(body -> Flux.fromIterable(productIds(body)))
+                .flatMap(productId -> leg("inventory", get("http://inventory-service/api/inventory/{id}", productId,
+                        userId, properties.getInventoryTimeout())).map(leg -> Map.entry(productId, leg)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // The order leg reports its own failure
+                .onErrorReturn(Map.of());
+
+        return Mono.zip(orderLeg, paymentLeg, inventoryLegs).map(legs -> {
+            OrderDetailsResponse response = new OrderDetailsResponse(orderId);
+            legs.getT1().apply("order", response.getErrors(), response::setOrder);
+            legs.getT2().apply("payment", response.getErrors(), response::setPayment);
+            legs.getT3().forEach((productId, leg) -> leg.apply("inventory:" + productId, response.getErrors(),
+                    body -> response.getInventory().put(productId, body)));
+            return response;
+        });
+    }
+
+    private Mono<JsonNode> get(String uri, Object id, String userId, Duration timeout) {
+        return webClient.get()
+                .uri(uri, id)
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set("X-User-Id", userId);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout);
+    }
+
+    private Mono<Leg> leg(String name, Mono<JsonNode> call) {
+        return call
+                .map(body -> new Leg(body, null))
+                .switchIfEmpty(Mono.fromSupplier(() -> new Leg(null, "empty response")))
+                .onErrorResume(e -> {
+                    log.warn("Order details leg {} failed: {}", name, e.toString());
+                    return Mono.just(new Leg(null, describe(e)));
+                })
+                .doOnNext(leg -> meterRegistry.counter("gateway.order-details.legs",
+                        "leg", name, "outcome", leg.error() == null ? "success" : "failure").increment());
+    }
+
+    private static Set<String> productIds(JsonNode order) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (JsonNode item : order.path("items")) {
+            String productId = item.path("productId").asText(null);
+            if (productId != null) {
+                productIds.add(productId);
+            }
+        }
+        return productIds;
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timed out";
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return "upstream returned " + responseException.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+
+    private record Leg(JsonNode body, String error) {
+
+        void apply(String name, Map<String, String> errors, Consumer<JsonNode> onSuccess) {
+            if (error != null) {
+                errors.put(name, error);
+            } else {
+                onSuccess.accept(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.eventdriven.gateway.config;
+
+import com.eventdriven.gateway.admission.Priority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 100;
+    private int minLimit = 10;
+    private int maxLimit = 1000;
+    // A response slower than tolerance x the route's best recent latency shrinks the limit
+    private double latencyTolerance = 2.0;
+    private double backoffRatio = 0.9;
+    private Duration baselineWindow = Duration.ofSeconds(30);
+    private ClassPolicy critical = new ClassPolicy(1.0, Duration.ofMillis(500), 1000);
+    private ClassPolicy normal = new ClassPolicy(0.8, Duration.ofMillis(100), 500);
+    private ClassPolicy low = new ClassPolicy(0.5, Duration.ZERO, 0);
+
+    public ClassPolicy policyFor(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> critical;
+            case NORMAL -> normal;
+            case LOW -> low;
+        };
+    }
+
+    public static class ClassPolicy {
+        // Fraction of the route's limit this class may fill
+        private double share;
+        private Duration maxQueueWait;
+        private int maxQueued;
+
+        public ClassPolicy() {
+        }
+
+        public ClassPolicy(double share, Duration maxQueueWait, int maxQueued) {
+            this.share = share;
+            this.maxQueueWait = maxQueueWait;
+            this.maxQueued = maxQueued;
+        }
+
+        public double getShare() {
+            return share;
+        }
+
+        public void setShare(double share) {
+            this.share = share;
+        }
+
+        public Duration getMaxQueueWait() {
+            return maxQueueWait;
+        }
+
+        public void setMaxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Duration getBaselineWindow() {
+        return baselineWindow;
+    }
+
+    public void setBaselineWindow(Duration baselineWindow) {
+        this.baselineWindow = baselineWindow;
+    }
+
+    public ClassPolicy getCritical() {
+        return critical;
+    }
+
+    public void setCritical(ClassPolicy critical) {
+        this.critical = critical;
+    }
+
+    public ClassPolicy getNormal() {
+        return normal;
+    }
+
+    public void setNormal(ClassPolicy normal) {
+        this.normal = normal;
+    }
+
+    public ClassPolicy getLow() {
+        return low;
+    }
+
+    public void setLow(ClassPolicy low) {
+        this.low = low;
+    }
+}
@@ -1,7 +1,13 @@
 package com.eventdriven.gateway.config;
 
+import com.eventdriven.gateway.cache.ResponseCacheFilter;
+import com.eventdriven.gateway.hedge.RequestHedging;
+import com.eventdriven.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.eventdriven.gateway.loadbalancer.TrackedLoadBalancerRouteFilter;
+import com.eventdriven.gateway.ratelimit.RateLimitFilter;
 import com.eventdriven.gateway.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -13,11 +19,21 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
 
 @Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class GatewayConfig {
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private RequestHedging requestHedging;
+
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
     @Bean
     public CorsWebFilter corsWebFilter() {
         CorsConfiguration corsConfig = new CorsConfiguration();
@@ -36,32 +52,52 @@ public class GatewayConfig {
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
                 // Order Service Routes
+                // Live status streams stay open for up to the connection TTL, so they are kept out of the
+                // load balancer's latency and in-flight tracking
+                .route("order-stream", r -> r
+                        .path("/api/orders/stream")
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter))
+                        .metadata(TrackedLoadBalancerRouteFilter.UNTRACKED, true)
+                        .uri("lb://order-service"))
+
                 .route("order-service", r -> r
                         .path("/api/orders/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter).filter(responseCacheFilter)
+                                .filter(responseCacheFilter.capture(), ResponseCacheFilter.CAPTURE_ORDER)
+                                .filter(requestHedging.onGet("/api/orders/{orderId:\\d+}"), RequestHedging.FILTER_ORDER))
                         .uri("lb://order-service"))
                 
                 // Payment Service Routes
                 .route("payment-service", r -> r
                         .path("/api/payments/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter)
+                                .filter(requestHedging.onGet("/api/payments/order/{orderId}"), RequestHedging.FILTER_ORDER))
                         .uri("lb://payment-service"))
                 
                 // Inventory Service Routes
                 .route("inventory-service", r -> r
                         .path("/api/inventory/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter).filter(responseCacheFilter)
+                                .filter(responseCacheFilter.capture(), ResponseCacheFilter.CAPTURE_ORDER)
+                                .filter(requestHedging.onGet("/api/inventory/{productId}"), RequestHedging.FILTER_ORDER))
                         .uri("lb://inventory-service"))
                 
+                // Composite order view, assembled by OrderDetailsController
+                .route("order-details", r -> r
+                        .path("/api/order-details/{orderId}")
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter)
+                                .setPath("/internal/order-details/{orderId}"))
+                        .uri("forward:/"))
+
                 // Notification Service Routes (if needed)
                 .route("notification-service", r -> r
                         .path("/api/notifications/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter).filter(rateLimitFilter))
                         .uri("lb://notification-service"))
                 
-                // Health checks (no auth required)
+                // Health checks (no auth required); metrics, prometheus and traces stay on the service port
                 .route("health-checks", r -> r
-                        .path("/actuator/**")
+                        .path("/actuator/health", "/actuator/health/**")
                         .uri("lb://order-service"))
                 
                 .build();
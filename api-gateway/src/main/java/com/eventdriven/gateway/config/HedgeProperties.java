@@ -0,0 +1,77 @@
+package com.eventdriven.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.hedge")
+public class HedgeProperties {
+
+    private boolean enabled = true;
+    // A second attempt is sent once the first has been outstanding for this percentile of the route's latency
+    private double percentile = 0.95;
+    // Hedges may add at most this fraction of the route's traffic, plus a small burst
+    private double budgetRatio = 0.05;
+    private int budgetBurst = 10;
+    private Duration minDelay = Duration.ofMillis(5);
+    private int windowSize = 1000;
+    private int warmupSamples = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    public void setBudgetBurst(int budgetBurst) {
+        this.budgetBurst = budgetBurst;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getWarmupSamples() {
+        return warmupSamples;
+    }
+
+    public void setWarmupSamples(int warmupSamples) {
+        this.warmupSamples = warmupSamples;
+    }
+}
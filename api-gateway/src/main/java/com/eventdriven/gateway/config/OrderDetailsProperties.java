@@ -0,0 +1,39 @@
+package com.eventdriven.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.order-details")
+public class OrderDetailsProperties {
+
+    private Duration orderTimeout = Duration.ofSeconds(2);
+    private Duration paymentTimeout = Duration.ofSeconds(1);
+    private Duration inventoryTimeout = Duration.ofSeconds(1);
+
+    public Duration getOrderTimeout() {
+        return orderTimeout;
+    }
+
+    public void setOrderTimeout(Duration orderTimeout) {
+        this.orderTimeout = orderTimeout;
+    }
+
+    public Duration getPaymentTimeout() {
+        return paymentTimeout;
+    }
+
+    public void setPaymentTimeout(Duration paymentTimeout) {
+        this.paymentTimeout = paymentTimeout;
+    }
+
+    public Duration getInventoryTimeout() {
+        return inventoryTimeout;
+    }
+
+    public void setInventoryTimeout(Duration inventoryTimeout) {
+        this.inventoryTimeout = inventoryTimeout;
+    }
+}
@@ -0,0 +1,96 @@
+package com.eventdriven.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    // Per route id, replacing the defaults
+    private Map<String, Limit> routes = new HashMap<>();
+    // Tokens taken from the shared bucket per Redis round-trip
+    private int leaseSize = 5;
+    // Unused leased tokens are discarded after this long, bounding how far nodes can overspend
+    private Duration leaseTtl = Duration.ofSeconds(1);
+    private int maxTrackedKeys = 100_000;
+
+    public Limit limitFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    public static class Limit {
+        private long capacity = 20;
+        private double refillPerSecond = 10;
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+        this.leaseSize = leaseSize;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventdriven.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // Bodies plus keys, across all routes and users
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+    // Larger responses are passed through without being stored
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+    // Per route id; routes not listed here are never cached
+    private Map<String, RouteCache> routes = new HashMap<>();
+
+    public static class RouteCache {
+        // Served without asking upstream for this long, then revalidated with If-None-Match
+        private Duration ttl = Duration.ofSeconds(5);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Map<String, RouteCache> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteCache> routes) {
+        this.routes = routes;
+    }
+}
@@ -18,6 +18,8 @@ public class SecurityConfig {
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/auth/**").permitAll()
                         .pathMatchers("/actuator/**").permitAll()
+                        // Local handlers behind forward: routes; only the route may dispatch to them
+                        .pathMatchers("/internal/**").denyAll()
                         .anyExchange().permitAll() // Let Gateway filters handle auth for downstream services
                 )
                 .httpBasic(basic -> basic.disable())
@@ -0,0 +1,37 @@
+package com.eventdriven.gateway.controller;
+
+import com.eventdriven.gateway.composite.OrderDetailsService;
+import com.eventdriven.gateway.dto.OrderDetailsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reached only through the {@code order-details} route, which authenticates the caller and forwards
+ * here; direct requests to {@code /internal/**} are refused by {@code SecurityConfig}.
+ */
+@RestController
+@RequestMapping("/internal/order-details")
+public class OrderDetailsController {
+
+    @Autowired
+    private OrderDetailsService orderDetailsService;
+
+    @GetMapping("/{orderId}")
+    public Mono<ResponseEntity<OrderDetailsResponse>> getOrderDetails(
+            @PathVariable Long orderId,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        return orderDetailsService.fetch(orderId, userId).map(response -> {
+            if (response.getOrder() != null) {
+                return ResponseEntity.ok(response);
+            }
+            // Without the order there is nothing to show; the body still says which legs failed
+            HttpStatus status = "upstream returned 404".equals(response.getErrors().get("order"))
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_GATEWAY;
+            return ResponseEntity.status(status).body(response);
+        });
+    }
+}
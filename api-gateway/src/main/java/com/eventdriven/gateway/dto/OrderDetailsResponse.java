@@ -0,0 +1,69 @@
+package com.eventdriven.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An order together with its payment and the stock of each ordered product. Legs that failed are
+ * left out and listed in {@code errors}, so a client can render whatever did arrive.
+ */
+public class OrderDetailsResponse {
+    private Long orderId;
+    private JsonNode order;
+    private JsonNode payment;
+    private Map<String, JsonNode> inventory = new LinkedHashMap<>();
+    private Map<String, String> errors = new LinkedHashMap<>();
+
+    public OrderDetailsResponse() {
+    }
+
+    public OrderDetailsResponse(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public JsonNode getOrder() {
+        return order;
+    }
+
+    public void setOrder(JsonNode order) {
+        this.order = order;
+    }
+
+    public JsonNode getPayment() {
+        return payment;
+    }
+
+    public void setPayment(JsonNode payment) {
+        this.payment = payment;
+    }
+
+    public Map<String, JsonNode> getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(Map<String, JsonNode> inventory) {
+        this.inventory = inventory;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,158 @@
+package com.eventdriven.gateway.hedge;
+
+import com.eventdriven.gateway.config.HedgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hedges one route's requests: if the first attempt has not answered within the route's observed
+ * latency percentile, a second attempt is started and whichever answers first wins; the other is
+ * cancelled. Hedges draw on a budget refilled by a fixed fraction of each request, so a route that is
+ * slow across the board cannot double its own load.
+ */
+public class RequestHedger {
+
+    private static final long TOKEN = 1000;
+
+    private final HedgeProperties properties;
+    private final long[] samples;
+    private final int refreshEvery;
+    private final long depositPerRequest;
+    private final long budgetCap;
+    private final AtomicLong budget;
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter budgetExhausted;
+    private long sampleCount;
+    private volatile long delayNanos = -1;
+
+    public RequestHedger(HedgeProperties properties, String routeId, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.samples = new long[properties.getWindowSize()];
+        this.refreshEvery = Math.max(1, properties.getWindowSize() / 20);
+        this.depositPerRequest = Math.round(properties.getBudgetRatio() * TOKEN);
+        this.budgetCap = properties.getBudgetBurst() * TOKEN;
+        this.budget = new AtomicLong(budgetCap);
+        this.requests = counter("gateway.hedge.requests", routeId, meterRegistry);
+        this.hedges = counter("gateway.hedge.hedges", routeId, meterRegistry);
+        this.wins = counter("gateway.hedge.wins", routeId, meterRegistry);
+        this.budgetExhausted = counter("gateway.hedge.budget.exhausted", routeId, meterRegistry);
+        Gauge.builder("gateway.hedge.delay", this, h -> Math.max(0, h.delayNanos) / 1e6)
+                .tag("route", routeId)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param call        sends one attempt to a target
+     * @param primary     target of the first attempt
+     * @param alternative resolved only when a hedge is due; empty if there is no other target to try
+     */
+    public <I, T> Mono<T> execute(Function<I, Mono<T>> call, I primary, Mono<I> alternative) {
+        requests.increment();
+        deposit();
+
+        Mono<Attempt<T>> first = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.apply(primary)
+                    .doOnSuccess(value -> record(System.nanoTime() - start))
+                    // A cancelled first attempt lost to its hedge; its age is a lower bound on its latency
+                    .doOnCancel(() -> record(System.nanoTime() - start))
+                    .map(value -> new Attempt<>(value, false));
+        });
+
+        long delay = delayNanos;
+        if (delay < 0) {
+            return first.map(Attempt::value);
+        }
+
+        Mono<Attempt<T>> second = Mono.delay(Duration.ofNanos(delay)).flatMap(tick -> {
+            if (!tryAcquire()) {
+                budgetExhausted.increment();
+                return Mono.empty();
+            }
+            return alternative
+                    .switchIfEmpty(Mono.fromRunnable(() -> budget.addAndGet(TOKEN)))
+                    .flatMap(target -> {
+                        hedges.increment();
+                        return call.apply(target).map(value -> new Attempt<>(value, true));
+                    });
+        });
+
+        return Mono.firstWithValue(first, second)
+                .doOnNext(winner -> {
+                    if (winner.hedged()) {
+                        wins.increment();
+                    }
+                })
+                .map(Attempt::value)
+                .onErrorMap(NoSuchElementException.class, RequestHedger::firstCause);
+    }
+
+    /**
+     * Current hedge delay in nanoseconds, or -1 while the route has too few samples to hedge.
+     */
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    private void record(long elapsedNanos) {
+        synchronized (samples) {
+            samples[(int) (sampleCount % samples.length)] = elapsedNanos;
+            sampleCount++;
+            if (sampleCount >= properties.getWarmupSamples() && sampleCount % refreshEvery == 0) {
+                int size = (int) Math.min(sampleCount, samples.length);
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(size - 1, Math.ceil(properties.getPercentile() * size) - 1);
+                delayNanos = Math.max(properties.getMinDelay().toNanos(), sorted[Math.max(0, index)]);
+            }
+        }
+    }
+
+    private void deposit() {
+        long current;
+        do {
+            current = budget.get();
+            if (current >= budgetCap) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(budgetCap, current + depositPerRequest)));
+    }
+
+    private boolean tryAcquire() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    // When every attempt fails, surface the first real failure rather than "no value"
+    private static Throwable firstCause(NoSuchElementException e) {
+        if (e.getCause() == null) {
+            return e;
+        }
+        return Exceptions.unwrapMultiple(e.getCause()).stream().findFirst().orElse(e);
+    }
+
+    private static Counter counter(String name, String routeId, MeterRegistry meterRegistry) {
+        return Counter.builder(name).tag("route", routeId).register(meterRegistry);
+    }
+
+    private record Attempt<T>(T value, boolean hedged) {
+    }
+}
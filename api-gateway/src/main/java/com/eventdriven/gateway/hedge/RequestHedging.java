@@ -0,0 +1,178 @@
+package com.eventdriven.gateway.hedge;
+
+import com.eventdriven.gateway.config.HedgeProperties;
+import com.eventdriven.gateway.loadbalancer.InstanceLatencyTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in hedging for idempotent GETs on {@code lb://} routes. Matching requests are proxied here rather
+ * than by the Netty routing filter, because a hedged request needs two upstream calls racing for one
+ * response: the first attempt goes to the instance the load balancer picks, the hedge to a different
+ * one, and the loser is cancelled. Responses are buffered, which is fine for single-resource reads.
+ */
+@Component
+public class RequestHedging {
+
+    // After the route's own filters and admission control, before the load balancer and routing filters
+    public static final int FILTER_ORDER = 2;
+
+    private static final int MAX_CHOOSE_ATTEMPTS = 3;
+
+    private final HedgeProperties properties;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceLatencyTracker tracker;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final Map<String, RequestHedger> hedgers = new ConcurrentHashMap<>();
+
+    public RequestHedging(HedgeProperties properties,
+                          LoadBalancerClientFactory clientFactory,
+                          InstanceLatencyTracker tracker,
+                          ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                          HttpClient httpClient,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clientFactory = clientFactory;
+        this.tracker = tracker;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+        this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    /**
+     * A filter that hedges GET requests whose path matches one of {@code patterns}; anything else
+     * passes through to normal routing.
+     */
+    public GatewayFilter onGet(String... patterns) {
+        List<PathPattern> parsed = Arrays.stream(patterns).map(PathPatternParser.defaultInstance::parse).toList();
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (properties.isEnabled() && request.getMethod() == HttpMethod.GET
+                    && parsed.stream().anyMatch(pattern -> pattern.matches(path))) {
+                return hedge(exchange, chain);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+        String serviceId = route.getUri().getHost();
+        RequestHedger hedger = hedgers.computeIfAbsent(route.getId(),
+                routeId -> new RequestHedger(properties, routeId, meterRegistry));
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        headers.remove(HttpHeaders.HOST);
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+        return choose(serviceId, exchange, null)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(true,
+                        "Unable to find instance for " + serviceId)))
+                .flatMap(primary -> hedger.execute(instance -> call(instance, exchange, headers),
+                        primary, choose(serviceId, exchange, primary)))
+                .flatMap(response -> write(response, exchange));
+    }
+
+    private Mono<ServiceInstance> choose(String serviceId, ServerWebExchange exchange, ServiceInstance avoid) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        DefaultRequest<RequestDataContext> lbRequest =
+                new DefaultRequest<>(new RequestDataContext(new RequestData(exchange.getRequest())));
+        return Flux.range(0, avoid == null ? 1 : MAX_CHOOSE_ATTEMPTS)
+                .concatMap(attempt -> Mono.from(loadBalancer.choose(lbRequest)))
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> avoid == null || !sameInstance(instance, avoid))
+                .next();
+    }
+
+    private Mono<ResponseEntity<byte[]>> call(ServiceInstance instance, ServerWebExchange exchange, HttpHeaders headers) {
+        URI requestUri = exchange.getRequest().getURI();
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(requestUri.getRawPath())
+                .replaceQuery(requestUri.getRawQuery())
+                .build(true)
+                .toUri();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            ResponseEntity<?>[] result = new ResponseEntity<?>[1];
+            tracker.begin(instance);
+            return webClient.get()
+                    .uri(uri)
+                    .headers(h -> h.addAll(headers))
+                    .exchangeToMono(response -> response.toEntity(byte[].class))
+                    .doOnNext(response -> result[0] = response)
+                    .doFinally(signal -> {
+                        long elapsed = System.nanoTime() - start;
+                        boolean failed = result[0] == null
+                                ? signal == SignalType.ON_ERROR
+                                : result[0].getStatusCode().is5xxServerError();
+                        tracker.end(instance, elapsed, failed);
+                    });
+        });
+    }
+
+    private Mono<Void> write(ResponseEntity<byte[]> upstream, ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of),
+                upstream.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.setStatusCode(upstream.getStatusCode());
+        response.getHeaders().putAll(headers);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        byte[] body = upstream.getBody();
+        if (body == null) {
+            response.getHeaders().setContentLength(0);
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return Objects.equals(a.getHost(), b.getHost()) && a.getPort() == b.getPort();
+    }
+}
@@ -0,0 +1,126 @@
+package com.eventdriven.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks a peak-sensitive EWMA of response time and the in-flight count for every instance the gateway
+ * routes to, fed by {@link TrackedLoadBalancerRouteFilter}, {@link TrackedLoadBalancerExchangeFilter}
+ * and hedged calls, each of which ends its calls however they finish. A slower-than-average response is
+ * adopted immediately, so a stalling instance is avoided after one slow reply, while recovery decays in
+ * over {@code gateway.load-balancer.decay}. Failures and 5xx responses count as at least the failure penalty.
+ */
+@Component
+public class InstanceLatencyTracker {
+
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InstanceLatencyTracker(@Value("${gateway.load-balancer.decay:10s}") Duration decay,
+                                  @Value("${gateway.load-balancer.failure-penalty:1s}") Duration failurePenalty,
+                                  MeterRegistry meterRegistry) {
+        this(decay, failurePenalty, meterRegistry, System::nanoTime);
+    }
+
+    InstanceLatencyTracker(Duration decay, Duration failurePenalty, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    public void begin(ServiceInstance instance) {
+        statsFor(instance).inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param elapsedNanos response time, or negative if the request produced no usable sample
+     */
+    public void end(ServiceInstance instance, long elapsedNanos, boolean failed) {
+        InstanceStats instanceStats = statsFor(instance);
+        instanceStats.inFlight.decrementAndGet();
+        if (elapsedNanos >= 0) {
+            instanceStats.observe(failed ? Math.max(elapsedNanos, failurePenaltyNanos) : elapsedNanos, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Expected cost of sending one more request to the instance: its latency estimate scaled by the
+     * queue it would join. An instance without a recent sample borrows {@code fallbackNanos}.
+     */
+    double score(ServiceInstance instance, double fallbackNanos) {
+        InstanceStats instanceStats = statsFor(instance);
+        double latency = instanceStats.latency(clock.getAsLong());
+        return (latency >= 0 ? latency : fallbackNanos) * (instanceStats.inFlight.get() + 1);
+    }
+
+    /**
+     * Current latency estimate in nanoseconds, or -1 if the instance has no recent sample.
+     */
+    double latency(ServiceInstance instance) {
+        return statsFor(instance).latency(clock.getAsLong());
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        String key = instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+        InstanceStats existing = stats.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return stats.computeIfAbsent(key, k -> register(instance, new InstanceStats()));
+    }
+
+    private InstanceStats register(ServiceInstance instance, InstanceStats instanceStats) {
+        String name = instance.getHost() + ":" + instance.getPort();
+        Gauge.builder("gateway.lb.instance.latency", instanceStats, s -> Math.max(0, s.latency(clock.getAsLong())) / 1e6)
+                .tag("service", String.valueOf(instance.getServiceId()))
+                .tag("instance", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("gateway.lb.instance.inflight", instanceStats, s -> s.inFlight.get())
+                .tag("service", String.valueOf(instance.getServiceId()))
+                .tag("instance", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.lb.instance.score", instanceStats,
+                        s -> Math.max(0, s.latency(clock.getAsLong())) / 1e6 * (s.inFlight.get() + 1))
+                .tag("service", String.valueOf(instance.getServiceId()))
+                .tag("instance", name)
+                .register(meterRegistry);
+        return instanceStats;
+    }
+
+    private final class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos = -1;
+        private long lastUpdate;
+
+        synchronized void observe(long rttNanos, long now) {
+            if (ewmaNanos < 0 || rttNanos > ewmaNanos || now - lastUpdate > decayNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdate) / (double) decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        // An estimate older than the decay window no longer says anything; treat the instance as new
+        synchronized double latency(long now) {
+            return ewmaNanos >= 0 && now - lastUpdate <= decayNanos ? ewmaNanos : -1;
+        }
+    }
+}
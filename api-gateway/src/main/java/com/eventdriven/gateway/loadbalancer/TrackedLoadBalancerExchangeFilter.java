@@ -0,0 +1,74 @@
+package com.eventdriven.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Resolves {@code http://<service-id>/...} WebClient requests through the gateway's load balancer and
+ * reports each call to {@link InstanceLatencyTracker}. Used instead of the stock load-balancer exchange
+ * filter because that one never completes its lifecycle when a caller cancels, e.g. on a timeout,
+ * which would leave the instance's in-flight count raised for good.
+ */
+@Component
+public class TrackedLoadBalancerExchangeFilter implements ExchangeFilterFunction {
+
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceLatencyTracker tracker;
+
+    public TrackedLoadBalancerExchangeFilter(LoadBalancerClientFactory clientFactory, InstanceLatencyTracker tracker) {
+        this.clientFactory = clientFactory;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String serviceId = request.url().getHost();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.error(new IllegalStateException("No load balancer for " + serviceId));
+        }
+        DefaultRequest<RequestDataContext> lbRequest =
+                new DefaultRequest<>(new RequestDataContext(new RequestData(request)));
+        return Mono.from(loadBalancer.choose(lbRequest)).flatMap(lbResponse -> {
+            if (!lbResponse.hasServer()) {
+                return Mono.error(new IllegalStateException("No instances available for " + serviceId));
+            }
+            return exchange(request, lbResponse, next);
+        });
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, Response<ServiceInstance> lbResponse,
+                                          ExchangeFunction next) {
+        ServiceInstance instance = lbResponse.getServer();
+        ClientRequest target = ClientRequest.from(request)
+                .url(LoadBalancerUriTools.reconstructURI(instance, request.url()))
+                .build();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            ClientResponse[] result = new ClientResponse[1];
+            tracker.begin(instance);
+            return next.exchange(target)
+                    .doOnNext(response -> result[0] = response)
+                    .doFinally(signal -> {
+                        boolean failed = result[0] == null
+                                ? signal == SignalType.ON_ERROR
+                                : result[0].statusCode().is5xxServerError();
+                        // A cancelled call still says the instance took at least this long
+                        tracker.end(instance, System.nanoTime() - start, failed);
+                    });
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.eventdriven.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+/**
+ * Reports every {@code lb://} route call to {@link InstanceLatencyTracker}, right after
+ * {@link ReactiveLoadBalancerClientFilter} has picked the instance. Used instead of a load-balancer
+ * lifecycle because that filter only completes the lifecycle on success or error, so a client that
+ * disconnects, or a timeout, would leave the instance's in-flight count raised for good.
+ * <p>
+ * Event streams are left out: one holds its slot for as long as the client stays connected, and its
+ * duration says nothing about how fast the instance is. Routes that only serve streams say so with
+ * {@link #UNTRACKED} in their metadata; other routes are checked for a request asking for a stream.
+ */
+@Component
+public class TrackedLoadBalancerRouteFilter implements GlobalFilter, Ordered {
+
+    public static final int FILTER_ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    // Route metadata key; a route with it set to true is not tracked
+    public static final String UNTRACKED = "lb-untracked";
+
+    private final InstanceLatencyTracker tracker;
+
+    public TrackedLoadBalancerRouteFilter(InstanceLatencyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer() || isUntracked(exchange)) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            tracker.begin(instance);
+            return chain.filter(exchange).doFinally(signal -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                // A cancelled call still says the instance took at least this long
+                tracker.end(instance, System.nanoTime() - start, failed);
+            });
+        });
+    }
+
+    private static boolean isUntracked(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route != null && Boolean.TRUE.equals(route.getMetadata().get(UNTRACKED))) {
+            return true;
+        }
+        List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+        return accept != null && accept.stream().anyMatch(value -> value.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Override
+    public int getOrder() {
+        return FILTER_ORDER;
+    }
+}
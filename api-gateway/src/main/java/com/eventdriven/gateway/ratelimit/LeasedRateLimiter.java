@@ -0,0 +1,221 @@
+package com.eventdriven.gateway.ratelimit;
+
+import com.eventdriven.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket limiter that spends from a small lease of tokens taken from the shared bucket in
+ * {@link TokenBucketStore}. While a key's lease has tokens, a decision is a local CAS; when it runs low,
+ * the next lease is fetched in the background, and only a request that finds the lease empty waits for
+ * the store. Leased tokens expire after {@code lease-ttl}, so across N nodes a key can overspend its
+ * bucket by at most N leases. If the store is unreachable, each node falls back to one lease per TTL.
+ * <p>
+ * At most {@code max-tracked-keys} leases are held. Idle ones are swept out at most once per lease TTL;
+ * a new key that still finds the table full gets no lease and spends straight from the shared bucket.
+ */
+@Component
+public class LeasedRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedRateLimiter.class);
+    private static final long MIN_RETRY_AFTER_MILLIS = 1000;
+
+    private final TokenBucketStore store;
+    private final int leaseSize;
+    private final long leaseTtlMillis;
+    private final int maxTrackedKeys;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter storeCalls;
+    private final Counter storeFailures;
+    private final Counter untracked;
+    private final Timer decisionTimer;
+
+    public LeasedRateLimiter(TokenBucketStore store, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.leaseSize = Math.max(1, properties.getLeaseSize());
+        this.leaseTtlMillis = properties.getLeaseTtl().toMillis();
+        this.maxTrackedKeys = properties.getMaxTrackedKeys();
+
+        this.allowed = Counter.builder("gateway.ratelimit.decisions").tag("result", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("gateway.ratelimit.decisions").tag("result", "rejected").register(meterRegistry);
+        this.storeCalls = Counter.builder("gateway.ratelimit.store.calls").register(meterRegistry);
+        this.storeFailures = Counter.builder("gateway.ratelimit.store.failures").register(meterRegistry);
+        this.untracked = Counter.builder("gateway.ratelimit.untracked").register(meterRegistry);
+        this.decisionTimer = Timer.builder("gateway.ratelimit.decision")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.tracked.keys", leases, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public Mono<Decision> acquire(String key, RateLimitProperties.Limit limit) {
+        long start = System.nanoTime();
+        return decide(key, limit).doOnNext(decision -> {
+            decisionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (decision.allowed() ? allowed : rejected).increment();
+        });
+    }
+
+    private Mono<Decision> decide(String key, RateLimitProperties.Limit limit) {
+        long now = System.currentTimeMillis();
+        Lease lease = leaseFor(key, now);
+        if (lease == null) {
+            return decideUntracked(key, limit);
+        }
+        int requested = leaseSizeFor(limit);
+
+        if (lease.tryTake(now)) {
+            if (lease.tokens.get() <= requested / 2) {
+                refill(key, limit, requested, lease).subscribe();
+            }
+            return Mono.just(Decision.ALLOWED);
+        }
+        if (now < lease.emptyUntil) {
+            return Mono.just(Decision.rejected(lease.emptyUntil - now));
+        }
+        return refill(key, limit, requested, lease).then(Mono.fromSupplier(() -> {
+            long after = System.currentTimeMillis();
+            if (lease.tryTake(after)) {
+                return Decision.ALLOWED;
+            }
+            return Decision.rejected(Math.max(lease.emptyUntil - after, MIN_RETRY_AFTER_MILLIS));
+        }));
+    }
+
+    // One token per request from the shared bucket. Without the store there is nothing to limit against
+    private Mono<Decision> decideUntracked(String key, RateLimitProperties.Limit limit) {
+        untracked.increment();
+        return Mono.defer(() -> {
+                    storeCalls.increment();
+                    return store.take(key, limit, 1);
+                })
+                .map(grant -> grant.granted() > 0
+                        ? Decision.ALLOWED
+                        : Decision.rejected(Math.max(grant.retryAfterMillis(), MIN_RETRY_AFTER_MILLIS)))
+                .onErrorResume(e -> {
+                    storeFailures.increment();
+                    log.warn("Rate limit store unavailable, allowing untracked key: {}", e.toString());
+                    return Mono.just(Decision.ALLOWED);
+                });
+    }
+
+    // A lease never takes more than a quarter of the bucket, so one node cannot starve the others
+    private int leaseSizeFor(RateLimitProperties.Limit limit) {
+        return (int) Math.max(1, Math.min(leaseSize, limit.getCapacity() / 4));
+    }
+
+    private Mono<Void> refill(String key, RateLimitProperties.Limit limit, int requested, Lease lease) {
+        Mono<Void> inFlight = lease.refill.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Mono<Void> fetch = Mono.defer(() -> {
+                    storeCalls.increment();
+                    return store.take(key, limit, requested);
+                })
+                .doOnNext(grant -> lease.deposit(grant.granted(), grant.retryAfterMillis(),
+                        System.currentTimeMillis(), leaseTtlMillis))
+                .onErrorResume(e -> {
+                    storeFailures.increment();
+                    log.warn("Rate limit store unavailable, limiting locally: {}", e.toString());
+                    lease.depositIfExpired(requested, System.currentTimeMillis(), leaseTtlMillis);
+                    return Mono.empty();
+                })
+                .then()
+                .doFinally(signal -> lease.refill.set(null))
+                .cache();
+        Mono<Void> existing = lease.refill.compareAndExchange(null, fetch);
+        return existing != null ? existing : fetch;
+    }
+
+    private Lease leaseFor(String key, long now) {
+        Lease lease = leases.get(key);
+        if (lease != null) {
+            return lease;
+        }
+        if (leases.size() >= maxTrackedKeys) {
+            sweepIdle(now);
+            if (leases.size() >= maxTrackedKeys) {
+                return null;
+            }
+        }
+        return leases.computeIfAbsent(key, k -> new Lease());
+    }
+
+    // At most once per lease TTL, by whichever request finds the table full first
+    private void sweepIdle(long now) {
+        long due = nextSweepAt.get();
+        if (now < due || !nextSweepAt.compareAndSet(due, now + leaseTtlMillis)) {
+            return;
+        }
+        leases.values().removeIf(idle -> idle.lastUsed < now - 2 * leaseTtlMillis && idle.refill.get() == null);
+    }
+
+    public record Decision(boolean allowed, long retryAfterMillis) {
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        static Decision rejected(long retryAfterMillis) {
+            return new Decision(false, retryAfterMillis);
+        }
+    }
+
+    private static final class Lease {
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<Mono<Void>> refill = new AtomicReference<>();
+        private volatile long expiresAt;
+        private volatile long emptyUntil;
+        private volatile long lastUsed;
+
+        boolean tryTake(long now) {
+            lastUsed = now;
+            if (now >= expiresAt) {
+                return false;
+            }
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void deposit(long granted, long retryAfterMillis, long now, long ttlMillis) {
+            if (granted <= 0) {
+                emptyUntil = now + retryAfterMillis;
+                return;
+            }
+            if (now >= expiresAt) {
+                tokens.set(granted);
+            } else {
+                tokens.addAndGet(granted);
+            }
+            expiresAt = now + ttlMillis;
+            emptyUntil = 0;
+        }
+
+        // Without the store, spend one local lease per TTL and reject locally once it is gone
+        void depositIfExpired(long granted, long now, long ttlMillis) {
+            if (now >= expiresAt) {
+                deposit(granted, 0, now, ttlMillis);
+            } else {
+                emptyUntil = expiresAt;
+            }
+        }
+    }
+}
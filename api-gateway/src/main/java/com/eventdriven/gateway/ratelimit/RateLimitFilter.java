@@ -0,0 +1,59 @@
+package com.eventdriven.gateway.ratelimit;
+
+import com.eventdriven.gateway.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Limits each user per route. Runs after {@code JwtAuthenticationFilter}, whose {@code X-User-Id}
+ * header identifies the user; requests without one are keyed by client address.
+ */
+@Component
+public class RateLimitFilter implements GatewayFilter {
+
+    @Autowired
+    private LeasedRateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "default";
+        String key = routeId + ":" + clientKey(exchange);
+
+        return rateLimiter.acquire(key, properties.limitFor(routeId)).flatMap(decision -> {
+            if (decision.allowed()) {
+                return chain.filter(exchange);
+            }
+            long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return exchange.getResponse().setComplete();
+        });
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+        if (userId != null) {
+            return userId;
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null ? remote.getAddress().getHostAddress() : "anonymous";
+    }
+}
@@ -0,0 +1,62 @@
+package com.eventdriven.gateway.ratelimit;
+
+import com.eventdriven.gateway.config.RateLimitProperties;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Token buckets kept as Redis hashes and updated by a Lua script, so refill and take are one atomic
+ * round-trip. The script reads the Redis clock so nodes with skewed clocks agree on refills.
+ */
+@Component
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_SCRIPT = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local refill_per_ms = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil then
+              tokens = capacity
+              ts = now
+            end
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+            local retry_after = 0
+            if granted == 0 then
+              retry_after = math.ceil((1 - tokens) / refill_per_ms)
+            end
+            return {granted, retry_after}
+            """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Grant> take(String key, RateLimitProperties.Limit limit, int requested) {
+        double refillPerMillis = limit.getRefillPerSecond() / 1000.0;
+        return redisTemplate.execute(TAKE_SCRIPT, List.of(KEY_PREFIX + key), List.of(
+                        Long.toString(limit.getCapacity()),
+                        Double.toString(refillPerMillis),
+                        Integer.toString(requested)))
+                .next()
+                .map(result -> new Grant(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()));
+    }
+}
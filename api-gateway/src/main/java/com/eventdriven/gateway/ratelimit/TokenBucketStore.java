@@ -0,0 +1,22 @@
+package com.eventdriven.gateway.ratelimit;
+
+import com.eventdriven.gateway.config.RateLimitProperties;
+import reactor.core.publisher.Mono;
+
+/**
+ * The shared token buckets that every gateway node leases from.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Atomically refills the bucket and takes up to {@code requested} tokens from it.
+     */
+    Mono<Grant> take(String key, RateLimitProperties.Limit limit, int requested);
+
+    /**
+     * @param granted          tokens taken, possibly fewer than requested
+     * @param retryAfterMillis when nothing was granted, how long until a token is available
+     */
+    record Grant(long granted, long retryAfterMillis) {
+    }
+}
@@ -13,7 +13,7 @@ import reactor.core.publisher.Mono;
 public class JwtAuthenticationFilter implements GatewayFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -33,12 +33,7 @@ public class JwtAuthenticationFilter implements GatewayFilter {
         String token = authHeader.substring(7);
 
         try {
-            if (!jwtUtil.validateToken(token)) {
-                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                return exchange.getResponse().setComplete();
-            }
-
-            String username = jwtUtil.extractUsername(token);
+            String username = verifiedTokenCache.verifySubject(token);
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                     .header("X-User-Id", username)
                     .build();
@@ -0,0 +1,107 @@
+package com.eventdriven.gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subjects of tokens that have already passed signature verification, kept until the token's own
+ * {@code exp}. Repeat requests with the same token skip parsing and HMAC entirely. About
+ * {@code jwt.cache.max-entries} tokens are kept; concurrent misses may briefly add a few more. A hit only marks its entry as used, so lookups never
+ * contend; a miss that finds the cache full evicts with a clock sweep, sparing entries used since the
+ * hand last passed. Expired entries are dropped when next looked up or when the hand reaches them.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    // Clock hand, only moved while holding it
+    private Iterator<Map.Entry<String, VerifiedToken>> hand = verified.entrySet().iterator();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                              MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("gateway.jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gateway.jwt.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.size", verified, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the token's subject, verifying it first unless it is cached and unexpired.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public String verifySubject(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verified.get(token);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                if (!cached.used) {
+                    cached.used = true;
+                }
+                hits.increment();
+                return cached.subject;
+            }
+            verified.remove(token, cached);
+        }
+
+        misses.increment();
+        Claims claims = jwtUtil.extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            makeRoom(now);
+            verified.put(token, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+        }
+        return claims.getSubject();
+    }
+
+    private void makeRoom(long now) {
+        if (verified.size() < maxEntries) {
+            return;
+        }
+        synchronized (this) {
+            // Two passes at most: the first clears every used mark it meets
+            int budget = 2 * verified.size() + 1;
+            while (verified.size() >= maxEntries && budget-- > 0) {
+                if (!hand.hasNext()) {
+                    hand = verified.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                VerifiedToken entry = hand.next().getValue();
+                if (entry.used && entry.expiresAt > now) {
+                    entry.used = false;
+                } else {
+                    hand.remove();
+                }
+            }
+        }
+    }
+
+    private static final class VerifiedToken {
+
+        private final String subject;
+        private final long expiresAt;
+        private volatile boolean used;
+
+        private VerifiedToken(String subject, long expiresAt) {
+            this.subject = subject;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.eventdriven.gateway.admission;
+
+import com.eventdriven.gateway.config.AdmissionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(20);
+    }
+
+    @Test
+    void acquire_AsLoadRises_ShouldShedLowerClassesFirst() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, clock::get);
+        properties.getNormal().setMaxQueueWait(Duration.ZERO);
+        properties.getCritical().setMaxQueueWait(Duration.ZERO);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(admitted(limit, Priority.NORMAL)).isTrue();
+        }
+        assertThat(admitted(limit, Priority.LOW)).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(admitted(limit, Priority.NORMAL)).isTrue();
+        }
+        assertThat(admitted(limit, Priority.NORMAL)).isFalse();
+
+        assertThat(admitted(limit, Priority.CRITICAL)).isTrue();
+        assertThat(admitted(limit, Priority.CRITICAL)).isTrue();
+        assertThat(admitted(limit, Priority.CRITICAL)).isFalse();
+    }
+
+    @Test
+    void release_ShouldGrantFreedSlotToHighestPriorityWaiter() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, clock::get);
+        List<AdaptiveConcurrencyLimit.Permit> running = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            running.add(limit.acquire(Priority.CRITICAL).block());
+        }
+
+        AtomicReference<AdaptiveConcurrencyLimit.Permit> normal = new AtomicReference<>();
+        AtomicReference<AdaptiveConcurrencyLimit.Permit> critical = new AtomicReference<>();
+        limit.acquire(Priority.NORMAL).subscribe(normal::set);
+        limit.acquire(Priority.CRITICAL).subscribe(critical::set);
+
+        running.get(0).release(Duration.ofMillis(10).toNanos(), AdaptiveConcurrencyLimit.Outcome.SUCCESS);
+
+        assertThat(critical.get()).isNotNull();
+        assertThat(critical.get().isAdmitted()).isTrue();
+        assertThat(critical.get().wasQueued()).isTrue();
+        assertThat(normal.get()).isNull();
+    }
+
+    @Test
+    void acquire_WhenQueueWaitExpires_ShouldShedQueuedRequest() {
+        properties.getNormal().setMaxQueueWait(Duration.ofMillis(50));
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limit.acquire(Priority.CRITICAL).block();
+        }
+
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire(Priority.NORMAL).block(Duration.ofSeconds(1));
+
+        assertThat(permit.isAdmitted()).isFalse();
+        assertThat(permit.wasQueued()).isTrue();
+    }
+
+    @Test
+    void release_ShouldShrinkLimitOnSlowOrFailedResponsesAndGrowUnderHealthyLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, clock::get);
+
+        for (int round = 0; round < 5; round++) {
+            List<AdaptiveConcurrencyLimit.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limit.getLimit(); i++) {
+                permits.add(limit.acquire(Priority.CRITICAL).block());
+            }
+            permits.forEach(p -> p.release(Duration.ofMillis(10).toNanos(), AdaptiveConcurrencyLimit.Outcome.SUCCESS));
+        }
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        limit.acquire(Priority.CRITICAL).block()
+                .release(Duration.ofMillis(100).toNanos(), AdaptiveConcurrencyLimit.Outcome.SUCCESS);
+        limit.acquire(Priority.CRITICAL).block()
+                .release(Duration.ofMillis(10).toNanos(), AdaptiveConcurrencyLimit.Outcome.DROPPED);
+
+        assertThat(limit.getLimit()).isLessThan(grown);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void release_CalledTwice_ShouldOnlyFreeOneSlot() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, clock::get);
+        AdaptiveConcurrencyLimit.Permit first = limit.acquire(Priority.NORMAL).block();
+        limit.acquire(Priority.NORMAL).block();
+
+        first.release(1, AdaptiveConcurrencyLimit.Outcome.IGNORED);
+        first.release(1, AdaptiveConcurrencyLimit.Outcome.IGNORED);
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+    }
+
+    private static boolean admitted(AdaptiveConcurrencyLimit limit, Priority priority) {
+        return limit.acquire(priority).block().isAdmitted();
+    }
+}
@@ -0,0 +1,185 @@
+package com.eventdriven.gateway.cache;
+
+import com.eventdriven.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private final List<String> upstreamConditions = new ArrayList<>();
+    private ResponseCacheFilter filter;
+    private String upstreamEtag = "\"1-100\"";
+    private String upstreamBody = "{\"id\":1}";
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties.RouteCache routeCache = new ResponseCacheProperties.RouteCache();
+        routeCache.setTtl(Duration.ofMillis(100));
+        properties.setRoutes(Map.of("order-service", routeCache));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        filter = new ResponseCacheFilter(properties, new ResponseCache(properties, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void filter_WithinTtl_ShouldServeFromCacheWithoutCallingUpstream() {
+        MockServerWebExchange first = get("alice", null);
+        MockServerWebExchange second = get("alice", null);
+
+        assertThat(body(first)).isEqualTo(upstreamBody);
+        assertThat(body(second)).isEqualTo(upstreamBody);
+
+        assertThat(upstreamConditions).hasSize(1);
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo(upstreamEtag);
+    }
+
+    @Test
+    void filter_AfterTtl_ShouldRevalidateAndServeStoredBodyOn304() throws InterruptedException {
+        get("alice", null);
+        Thread.sleep(150);
+
+        MockServerWebExchange revalidated = get("alice", null);
+
+        assertThat(upstreamConditions).containsExactly(null, upstreamEtag);
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+                .isEqualTo("REVALIDATED");
+        assertThat(body(revalidated)).isEqualTo(upstreamBody);
+
+        // The 304 renewed the entry
+        get("alice", null);
+        assertThat(upstreamConditions).hasSize(2);
+    }
+
+    @Test
+    void filter_AfterTtlWithChangedResource_ShouldReplaceEntry() throws InterruptedException {
+        get("alice", null);
+        Thread.sleep(150);
+        upstreamEtag = "\"1-200\"";
+        upstreamBody = "{\"id\":1,\"status\":\"CONFIRMED\"}";
+
+        MockServerWebExchange changed = get("alice", null);
+        MockServerWebExchange cached = get("alice", null);
+
+        assertThat(body(changed)).isEqualTo(upstreamBody);
+        assertThat(body(cached)).isEqualTo(upstreamBody);
+        assertThat(cached.getResponse().getHeaders().getETag()).isEqualTo("\"1-200\"");
+    }
+
+    @Test
+    void filter_WithMatchingIfNoneMatch_ShouldAnswer304FromCache() {
+        get("alice", null);
+
+        MockServerWebExchange conditional = get("alice", "W/" + upstreamEtag);
+
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(body(conditional)).isEmpty();
+        assertThat(upstreamConditions).hasSize(1);
+    }
+
+    @Test
+    void filter_ForAnotherUser_ShouldNotShareEntries() {
+        get("alice", null);
+        get("bob", null);
+
+        assertThat(upstreamConditions).hasSize(2);
+    }
+
+    @Test
+    void filter_AfterWriteByUser_ShouldDropTheirEntries() {
+        get("alice", null);
+        MockServerWebExchange write = MockServerWebExchange.from(MockServerHttpRequest.post("/api/orders")
+                .header("X-User-Id", "alice"));
+        route(write);
+        filter.filter(write, exchange -> respond(exchange.getResponse(), HttpStatus.CREATED, null, "{}")).block();
+
+        get("alice", null);
+
+        assertThat(upstreamConditions).hasSize(2);
+    }
+
+    @Test
+    void put_OverMaxSize_ShouldEvictLeastRecentlyUsed() {
+        properties.setMaxSize(DataSize.ofBytes(3 * 200));
+        ResponseCache cache = new ResponseCache(properties, new SimpleMeterRegistry());
+        byte[] body = new byte[100];
+        cache.put("a", new CachedResponse(null, null, body, 0));
+        cache.put("b", new CachedResponse(null, null, body, 0));
+        cache.get("a");
+        cache.put("c", new CachedResponse(null, null, body, 0));
+        cache.put("d", new CachedResponse(null, null, body, 0));
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.bytes()).isLessThanOrEqualTo(3 * 200);
+    }
+
+    private MockServerWebExchange get(String userId, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/orders/1")
+                .header("X-User-Id", userId);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        route(exchange);
+        filter.capture().filter(exchange, routed -> filter.filter(routed, upstream())).block();
+        return exchange;
+    }
+
+    // Stands in for routing: honours If-None-Match the way order-service does
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            String condition = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            upstreamConditions.add(condition);
+            if (upstreamEtag.equals(condition)) {
+                return respond(exchange.getResponse(), HttpStatus.NOT_MODIFIED, upstreamEtag, null);
+            }
+            return respond(exchange.getResponse(), HttpStatus.OK, upstreamEtag, upstreamBody);
+        };
+    }
+
+    private static Mono<Void> respond(ServerHttpResponse response, HttpStatus status, String etag, String body) {
+        response.setStatusCode(status);
+        if (etag != null) {
+            response.getHeaders().setETag(etag);
+        }
+        if (body == null) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static void route(MockServerWebExchange exchange) {
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("order-service")
+                .uri("lb://order-service")
+                .predicate(e -> true)
+                .build());
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().blockOptional().orElse("");
+    }
+}
@@ -0,0 +1,110 @@
+package com.eventdriven.gateway.composite;
+
+import com.eventdriven.gateway.config.OrderDetailsProperties;
+import com.eventdriven.gateway.dto.OrderDetailsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderDetailsServiceTest {
+
+    private static final String ORDER = """
+            {"id":42,"userId":"alice","status":"CONFIRMED","items":[
+              {"productId":"P1","quantity":1},{"productId":"P2","quantity":2},{"productId":"P1","quantity":3}]}
+            """;
+
+    private final Map<String, Stub> stubs = new HashMap<>();
+    private OrderDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        OrderDetailsProperties properties = new OrderDetailsProperties();
+        properties.setPaymentTimeout(Duration.ofMillis(200));
+        properties.setInventoryTimeout(Duration.ofMillis(200));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    Stub stub = stubs.get(request.url().getHost() + request.url().getPath());
+                    if (stub == null) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+                    }
+                    return Mono.delay(stub.delay()).thenReturn(ClientResponse.create(stub.status())
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(stub.body())
+                            .build());
+                })
+                .build();
+        service = new OrderDetailsService(properties, webClient, new SimpleMeterRegistry());
+
+        stub("order-service/api/orders/42", 100, HttpStatus.OK, ORDER);
+        stub("payment-service/api/payments/order/42", 100, HttpStatus.OK, "{\"orderId\":42,\"status\":\"COMPLETED\"}");
+        stub("inventory-service/api/inventory/P1", 50, HttpStatus.OK, "{\"productId\":\"P1\",\"availableQuantity\":7}");
+        stub("inventory-service/api/inventory/P2", 50, HttpStatus.OK, "{\"productId\":\"P2\",\"availableQuantity\":0}");
+    }
+
+    @Test
+    void fetch_WhenAllLegsAnswer_ShouldCombineThemConcurrently() {
+        long start = System.nanoTime();
+        OrderDetailsResponse response = service.fetch(42, "alice").block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(response.isComplete()).isTrue();
+        assertThat(response.getOrder().path("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(response.getPayment().path("status").asText()).isEqualTo("COMPLETED");
+        assertThat(response.getInventory()).containsOnlyKeys("P1", "P2");
+        // Order and payment overlap, then both products in parallel: ~150ms rather than 100+100+50+50
+        assertThat(elapsed).isLessThan(Duration.ofMillis(280));
+    }
+
+    @Test
+    void fetch_WhenPaymentLegTimesOut_ShouldReturnPartialResult() {
+        stub("payment-service/api/payments/order/42", 1000, HttpStatus.OK, "{}");
+
+        OrderDetailsResponse response = service.fetch(42, "alice").block();
+
+        assertThat(response.getOrder()).isNotNull();
+        assertThat(response.getInventory()).hasSize(2);
+        assertThat(response.getPayment()).isNull();
+        assertThat(response.getErrors()).containsEntry("payment", "timed out");
+    }
+
+    @Test
+    void fetch_WhenInventoryLegFails_ShouldReportThatProductOnly() {
+        stub("inventory-service/api/inventory/P2", 0, HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+
+        OrderDetailsResponse response = service.fetch(42, "alice").block();
+
+        assertThat(response.getInventory()).containsOnlyKeys("P1");
+        assertThat(response.getErrors()).containsOnly(Map.entry("inventory:P2", "upstream returned 500"));
+    }
+
+    @Test
+    void fetch_WhenOrderLegFails_ShouldSkipInventoryAndKeepPayment() {
+        stub("order-service/api/orders/42", 0, HttpStatus.SERVICE_UNAVAILABLE, "{}");
+
+        OrderDetailsResponse response = service.fetch(42, "alice").block();
+
+        assertThat(response.getOrder()).isNull();
+        assertThat(response.getInventory()).isEmpty();
+        assertThat(response.getPayment()).isNotNull();
+        assertThat(response.getErrors()).containsOnlyKeys("order");
+    }
+
+    private void stub(String path, long delayMillis, HttpStatus status, String body) {
+        stubs.put(path, new Stub(Duration.ofMillis(delayMillis), status, body));
+    }
+
+    private record Stub(Duration delay, HttpStatus status, String body) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.eventdriven.gateway.hedge;
+
+import com.eventdriven.gateway.config.HedgeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        HedgeProperties properties = new HedgeProperties();
+        properties.setWindowSize(20);
+        properties.setWarmupSamples(20);
+        properties.setMinDelay(Duration.ofMillis(1));
+        properties.setBudgetRatio(0.1);
+        properties.setBudgetBurst(2);
+        meterRegistry = new SimpleMeterRegistry();
+        hedger = new RequestHedger(properties, "order-service", meterRegistry);
+    }
+
+    @Test
+    void execute_BeforeWarmup_ShouldNotHedge() {
+        String result = hedger.execute(respondingAfter(Map.of("a", 30L, "b", 1L)), "a", Mono.just("b")).block();
+
+        assertThat(result).isEqualTo("a");
+        assertThat(hedger.getDelayNanos()).isEqualTo(-1);
+        assertThat(count("gateway.hedge.hedges")).isZero();
+    }
+
+    @Test
+    void execute_WhenFirstAttemptIsSlow_ShouldReturnHedgeAndCancelFirst() {
+        warmUp(2);
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+        Function<String, Mono<String>> call = target -> target.equals("slow")
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn(target).doOnCancel(() -> firstCancelled.set(true))
+                : Mono.just(target);
+
+        long start = System.nanoTime();
+        String result = hedger.execute(call, "slow", Mono.just("fast")).block();
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(firstCancelled).isTrue();
+        assertThat(count("gateway.hedge.hedges")).isEqualTo(1);
+        assertThat(count("gateway.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void execute_WhenFirstAttemptAnswersWithinDelay_ShouldNotHedge() {
+        warmUp(50);
+
+        String result = hedger.execute(respondingAfter(Map.of("a", 1L, "b", 1L)), "a", Mono.just("b")).block();
+
+        assertThat(result).isEqualTo("a");
+        assertThat(count("gateway.hedge.hedges")).isZero();
+    }
+
+    @Test
+    void execute_WhenBurstIsSlow_ShouldCapHedgesAtBudget() {
+        warmUp(1);
+        Function<String, Mono<String>> call = respondingAfter(Map.of("a", 50L, "b", 50L));
+
+        Flux.range(0, 100).flatMap(i -> hedger.execute(call, "a", Mono.just("b")), 100).blockLast();
+
+        // A burst of 2 plus 10% of the 100 requests
+        assertThat(count("gateway.hedge.hedges")).isBetween(2.0, 12.0);
+        assertThat(count("gateway.hedge.budget.exhausted")).isGreaterThanOrEqualTo(88.0);
+    }
+
+    @Test
+    void execute_WithoutAlternative_ShouldWaitForFirstAndKeepBudget() {
+        warmUp(1);
+
+        String result = hedger.execute(respondingAfter(Map.of("a", 20L)), "a", Mono.<String>empty()).block();
+
+        assertThat(result).isEqualTo("a");
+        assertThat(count("gateway.hedge.hedges")).isZero();
+        assertThat(count("gateway.hedge.budget.exhausted")).isZero();
+    }
+
+    @Test
+    void execute_WhenBothAttemptsFail_ShouldPropagateUpstreamError() {
+        warmUp(1);
+        Function<String, Mono<String>> call = target -> Mono.error(new IOException(target + " refused"));
+
+        assertThatThrownBy(() -> hedger.execute(call, "a", Mono.just("b")).block())
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    private void warmUp(long latencyMillis) {
+        for (int i = 0; i < 20; i++) {
+            hedger.execute(target -> Mono.delay(Duration.ofMillis(latencyMillis)).thenReturn(target), "a", Mono.empty())
+                    .block();
+        }
+    }
+
+    private static Function<String, Mono<String>> respondingAfter(Map<String, Long> latencies) {
+        return target -> Mono.delay(Duration.ofMillis(latencies.get(target))).thenReturn(target);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("route", "order-service").counter().count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.eventdriven.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private InstanceLatencyTracker tracker;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new InstanceLatencyTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), meterRegistry, clock::get);
+        loadBalancer = new LatencyAwareLoadBalancer(null, tracker);
+    }
+
+    @Test
+    void choose_WithOneSlowInstance_ShouldSteerMostTrafficAway() {
+        List<ServiceInstance> instances = List.of(
+                instance("fast-1", 5), instance("fast-2", 5), instance("fast-3", 5), instance("slow", 200));
+
+        Map<String, Integer> picks = simulate(instances, 4000);
+
+        // Round-robin would send the slow instance a quarter of all requests
+        assertThat(picks.getOrDefault("slow", 0)).isLessThan(4000 / 20);
+    }
+
+    @Test
+    void choose_WhenInstanceIsNew_ShouldGiveItTrafficWithoutFloodingIt() {
+        List<ServiceInstance> instances = new ArrayList<>(List.of(instance("a", 10), instance("b", 10)));
+        simulate(instances, 1000);
+
+        instances.add(instance("new", 10));
+        Map<String, Integer> picks = simulate(instances, 3000);
+
+        assertThat(picks.get("new")).isBetween(500, 1500);
+    }
+
+    @Test
+    void choose_WhenSlowInstanceRecovers_ShouldProbeItAgainAfterDecay() {
+        List<ServiceInstance> instances = List.of(instance("a", 5), instance("b", 300));
+        simulate(instances, 500);
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        List<ServiceInstance> recovered = List.of(instance("a", 5), instance("b", 5));
+        Map<String, Integer> picks = simulate(recovered, 2000);
+
+        assertThat(picks.get("b")).isGreaterThan(500);
+    }
+
+    @Test
+    void end_ShouldExposePerInstanceScores() {
+        ServiceInstance instance = instance("a", 5);
+        tracker.begin(instance);
+        tracker.end(instance, Duration.ofMillis(20).toNanos(), false);
+
+        assertThat(meterRegistry.get("gateway.lb.instance.latency").tag("instance", "a:8080").gauge().value())
+                .isEqualTo(20.0);
+        assertThat(meterRegistry.get("gateway.lb.instance.score").tag("instance", "a:8080").gauge().value())
+                .isEqualTo(20.0);
+    }
+
+    /**
+     * Sends one request per millisecond and completes each after its instance's injected latency.
+     */
+    private Map<String, Integer> simulate(List<ServiceInstance> instances, int requests) {
+        Map<String, Integer> picks = new HashMap<>();
+        PriorityQueue<long[]> completions = new PriorityQueue<>((x, y) -> Long.compare(x[0], y[0]));
+        List<ServiceInstance> started = new ArrayList<>();
+        long tick = Duration.ofMillis(1).toNanos();
+
+        for (int i = 0; i < requests; i++) {
+            clock.addAndGet(tick);
+            while (!completions.isEmpty() && completions.peek()[0] <= clock.get()) {
+                long[] done = completions.poll();
+                tracker.end(started.get((int) done[1]), done[2], false);
+            }
+            ServiceInstance chosen = loadBalancer.choose(instances).getServer();
+            picks.merge(chosen.getInstanceId(), 1, Integer::sum);
+            tracker.begin(chosen);
+            long latency = Duration.ofMillis(Long.parseLong(chosen.getMetadata().get("latency"))).toNanos();
+            started.add(chosen);
+            completions.add(new long[]{clock.get() + latency, started.size() - 1, latency});
+        }
+        while (!completions.isEmpty()) {
+            long[] done = completions.poll();
+            clock.set(Math.max(clock.get(), done[0]));
+            tracker.end(started.get((int) done[1]), done[2], false);
+        }
+        return picks;
+    }
+
+    private static ServiceInstance instance(String host, long latencyMillis) {
+        return new DefaultServiceInstance(host, "order-service", host, 8080, false,
+                Map.of("latency", Long.toString(latencyMillis)));
+    }
+}
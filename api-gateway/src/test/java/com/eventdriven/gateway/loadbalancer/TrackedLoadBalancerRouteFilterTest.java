@@ -0,0 +1,106 @@
+package com.eventdriven.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackedLoadBalancerRouteFilterTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("a", "order-service", "a", 8080, false);
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstanceLatencyTracker tracker;
+    private TrackedLoadBalancerRouteFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new InstanceLatencyTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), meterRegistry);
+        filter = new TrackedLoadBalancerRouteFilter(tracker);
+    }
+
+    @Test
+    void filter_WhenClientCancels_ShouldReleaseInFlightSlot() {
+        MockServerWebExchange exchange = routed();
+        GatewayFilterChain hanging = e -> Mono.never();
+
+        Disposable call = filter.filter(exchange, hanging).subscribe();
+        assertThat(inFlight()).isEqualTo(1);
+        call.dispose();
+
+        assertThat(inFlight()).isZero();
+        assertThat(tracker.latency(instance)).isNotNegative();
+    }
+
+    @Test
+    void filter_When5xx_ShouldCountAtLeastFailurePenalty() {
+        MockServerWebExchange exchange = routed();
+        GatewayFilterChain failing = e -> {
+            e.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+            return Mono.empty();
+        };
+
+        filter.filter(exchange, failing).block();
+
+        assertThat(inFlight()).isZero();
+        assertThat(tracker.latency(instance)).isGreaterThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void filter_WithoutLoadBalancedInstance_ShouldNotTrack() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1"));
+
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        assertThat(meterRegistry.find("gateway.lb.instance.inflight").gauge()).isNull();
+    }
+
+    @Test
+    void filter_ForEventStream_ShouldNotTrack() {
+        MockServerWebExchange asked = routed(MockServerHttpRequest.get("/api/orders/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+        MockServerWebExchange streamRoute = routed(MockServerHttpRequest.get("/api/orders/stream"));
+        streamRoute.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("order-stream")
+                .uri("lb://order-service")
+                .predicate(e -> true)
+                .metadata(TrackedLoadBalancerRouteFilter.UNTRACKED, true)
+                .build());
+
+        filter.filter(asked, e -> Mono.never()).subscribe();
+        filter.filter(streamRoute, e -> Mono.never()).subscribe();
+
+        assertThat(meterRegistry.find("gateway.lb.instance.inflight").gauge()).isNull();
+    }
+
+    private MockServerWebExchange routed() {
+        return routed(MockServerHttpRequest.get("/api/orders/1"));
+    }
+
+    private MockServerWebExchange routed(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(instance));
+        return exchange;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.lb.instance.inflight").tag("instance", "a:8080").gauge().value();
+    }
+}
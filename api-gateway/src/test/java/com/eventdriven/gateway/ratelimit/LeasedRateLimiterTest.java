@@ -0,0 +1,129 @@
+package com.eventdriven.gateway.ratelimit;
+
+import com.eventdriven.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedRateLimiterTest {
+
+    private RateLimitProperties properties;
+    private RateLimitProperties.Limit limit;
+    private FakeStore store;
+    private LeasedRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setLeaseSize(10);
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(100);
+        store = new FakeStore(100);
+        rateLimiter = new LeasedRateLimiter(store, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void acquire_WithinBucket_ShouldServeMostDecisionsFromTheLocalLease() {
+        for (int i = 0; i < 50; i++) {
+            assertThat(rateLimiter.acquire("order-service:user123", limit).block().allowed()).isTrue();
+        }
+
+        assertThat(store.calls.get()).isLessThanOrEqualTo(7);
+        assertThat(store.remaining.get()).isGreaterThanOrEqualTo(40);
+    }
+
+    @Test
+    void acquire_WhenBucketIsEmpty_ShouldRejectWithRetryAfterWithoutCallingStoreAgain() {
+        store.remaining.set(3);
+
+        int allowed = 0;
+        for (int i = 0; i < 5; i++) {
+            if (rateLimiter.acquire("order-service:user123", limit).block().allowed()) {
+                allowed++;
+            }
+        }
+        int callsWhenEmpty = store.calls.get();
+        LeasedRateLimiter.Decision decision = rateLimiter.acquire("order-service:user123", limit).block();
+
+        assertThat(allowed).isEqualTo(3);
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterMillis()).isPositive();
+        assertThat(store.calls.get()).isEqualTo(callsWhenEmpty);
+    }
+
+    @Test
+    void acquire_ShouldKeepKeysIndependent() {
+        store.remaining.set(10);
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire("order-service:user1", limit).block();
+        }
+
+        store.remaining.set(10);
+        assertThat(rateLimiter.acquire("order-service:user2", limit).block().allowed()).isTrue();
+    }
+
+    @Test
+    void acquire_WhenStoreFails_ShouldFallBackToOneLocalLeasePerTtl() {
+        store.failing = true;
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (rateLimiter.acquire("order-service:user123", limit).block().allowed()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isBetween(10, 19);
+    }
+
+    @Test
+    void acquire_WhenTrackedKeysAreFull_ShouldSpendNewKeysStraightFromSharedBucket() {
+        properties.setMaxTrackedKeys(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LeasedRateLimiter(store, properties, meterRegistry);
+        rateLimiter.acquire("order-service:user1", limit).block();
+        rateLimiter.acquire("order-service:user2", limit).block();
+        int callsWhenFull = store.calls.get();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.acquire("order-service:user3", limit).block().allowed()).isTrue();
+        }
+        store.remaining.set(0);
+        LeasedRateLimiter.Decision decision = rateLimiter.acquire("order-service:user4", limit).block();
+
+        assertThat(store.calls.get()).isEqualTo(callsWhenFull + 6);
+        assertThat(store.lastRequested).isEqualTo(1);
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterMillis()).isPositive();
+        assertThat(meterRegistry.get("gateway.ratelimit.tracked.keys").gauge().value()).isEqualTo(2);
+    }
+
+    private static class FakeStore implements TokenBucketStore {
+        private final AtomicLong remaining;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile int lastRequested;
+
+        FakeStore(long capacity) {
+            this.remaining = new AtomicLong(capacity);
+        }
+
+        @Override
+        public Mono<Grant> take(String key, RateLimitProperties.Limit limit, int requested) {
+            calls.incrementAndGet();
+            lastRequested = requested;
+            if (failing) {
+                return Mono.error(new IllegalStateException("Redis down"));
+            }
+            long granted = Math.min(requested, remaining.get());
+            remaining.addAndGet(-granted);
+            return Mono.just(new Grant(granted, granted == 0 ? 500 : 0));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.eventdriven.gateway.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationMustBeLongEnough256Bits";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = jwtUtil(SECRET, 60_000L);
+        cache = new VerifiedTokenCache(jwtUtil, 2, meterRegistry);
+    }
+
+    @Test
+    void verifySubject_RepeatedToken_ShouldVerifyOnceThenHitCache() {
+        String token = jwtUtil.generateToken("user123");
+
+        assertThat(cache.verifySubject(token)).isEqualTo("user123");
+        assertThat(cache.verifySubject(token)).isEqualTo("user123");
+        assertThat(cache.verifySubject(token)).isEqualTo("user123");
+
+        assertThat(meterRegistry.counter("gateway.jwt.cache", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("gateway.jwt.cache", "result", "hit").count()).isEqualTo(2);
+    }
+
+    @Test
+    void verifySubject_ForgedOrTamperedToken_ShouldBeRejected() {
+        String token = jwtUtil.generateToken("user123");
+        cache.verifySubject(token);
+
+        String forged = jwtUtil("AnotherSecretKeyThatIsAlsoLongEnoughFor256BitsOfHmac", 60_000L)
+                .generateToken("user123");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThatThrownBy(() -> cache.verifySubject(forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verifySubject(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void verifySubject_ExpiredToken_ShouldBeRejected() {
+        String expired = jwtUtil(SECRET, -1_000L).generateToken("user123");
+
+        assertThatThrownBy(() -> cache.verifySubject(expired)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void verifySubject_WhenFull_ShouldEvictTokenNotUsedSinceLastSweep() {
+        String first = jwtUtil.generateToken("user1");
+        String second = jwtUtil.generateToken("user2");
+        String third = jwtUtil.generateToken("user3");
+        cache.verifySubject(first);
+        cache.verifySubject(second);
+        cache.verifySubject(first);
+
+        assertThat(cache.verifySubject(third)).isEqualTo("user3");
+        assertThat(cache.verifySubject(first)).isEqualTo("user1");
+        assertThat(cache.verifySubject(third)).isEqualTo("user3");
+
+        assertThat(meterRegistry.get("gateway.jwt.cache.size").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.counter("gateway.jwt.cache", "result", "miss").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("gateway.jwt.cache", "result", "hit").count()).isEqualTo(3);
+    }
+
+    @Test
+    void verifySubject_FromConcurrentRequests_ShouldStayNearCapacity() throws Exception {
+        SimpleMeterRegistry boundedRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache bounded = new VerifiedTokenCache(jwtUtil, 16, boundedRegistry);
+        List<String> tokens = IntStream.range(0, 64).mapToObj(i -> jwtUtil.generateToken("user" + i)).toList();
+        ExecutorService requests = Executors.newFixedThreadPool(4);
+
+        List<Future<?>> done = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            done.add(requests.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int user = ThreadLocalRandom.current().nextInt(tokens.size());
+                    assertThat(bounded.verifySubject(tokens.get(user))).isEqualTo("user" + user);
+                }
+            }));
+        }
+        for (Future<?> thread : done) {
+            thread.get(30, TimeUnit.SECONDS);
+        }
+        requests.shutdown();
+
+        assertThat(boundedRegistry.get("gateway.jwt.cache.size").gauge().value()).isLessThanOrEqualTo(16 + 4);
+        assertThat(boundedRegistry.counter("gateway.jwt.cache", "result", "hit").count()).isPositive();
+    }
+
+    private static JwtUtil jwtUtil(String secret, long expiration) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        util.init();
+        return util;
+    }
+}
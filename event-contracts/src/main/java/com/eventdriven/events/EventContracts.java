@@ -0,0 +1,115 @@
+package com.eventdriven.events;
+
+import com.eventdriven.events.codec.EventCodec;
+import com.eventdriven.events.codec.EventSchema;
+
+import java.util.List;
+
+import static com.eventdriven.events.codec.FieldTypes.BOOL;
+import static com.eventdriven.events.codec.FieldTypes.DECIMAL;
+import static com.eventdriven.events.codec.FieldTypes.INT32;
+import static com.eventdriven.events.codec.FieldTypes.INT64;
+import static com.eventdriven.events.codec.FieldTypes.STRING;
+import static com.eventdriven.events.codec.FieldTypes.listOf;
+
+/**
+ * Wire schemas of every event exchanged over Kafka. To evolve a contract, add the field to its class
+ * and append it here with the next version number; type ids are permanent. The published descriptions
+ * in this module's tests must then be updated, which is where an incompatible change gets caught.
+ */
+public final class EventContracts {
+
+    public static final EventSchema<OrderItemEvent> ORDER_ITEM = EventSchema
+            .builder("OrderItemEvent", OrderItemEvent::new)
+            .field("productId", 1, STRING, OrderItemEvent::getProductId, OrderItemEvent::setProductId)
+            .field("productName", 1, STRING, OrderItemEvent::getProductName, OrderItemEvent::setProductName)
+            .field("quantity", 1, INT32, OrderItemEvent::getQuantity, OrderItemEvent::setQuantity)
+            .field("price", 1, DECIMAL, OrderItemEvent::getPrice, OrderItemEvent::setPrice)
+            .build();
+
+    public static final EventSchema<OrderCreatedEvent> ORDER_CREATED = EventSchema
+            .builder("OrderCreatedEvent", OrderCreatedEvent::new)
+            .field("orderId", 1, INT64, OrderCreatedEvent::getOrderId, OrderCreatedEvent::setOrderId)
+            .field("userId", 1, STRING, OrderCreatedEvent::getUserId, OrderCreatedEvent::setUserId)
+            .field("totalAmount", 1, DECIMAL, OrderCreatedEvent::getTotalAmount, OrderCreatedEvent::setTotalAmount)
+            .field("items", 1, listOf(ORDER_ITEM), OrderCreatedEvent::getItems, OrderCreatedEvent::setItems)
+            .build();
+
+    public static final EventSchema<PaymentSucceededEvent> PAYMENT_SUCCEEDED = EventSchema
+            .builder("PaymentSucceededEvent", PaymentSucceededEvent::new)
+            .field("orderId", 1, INT64, PaymentSucceededEvent::getOrderId, PaymentSucceededEvent::setOrderId)
+            .field("paymentId", 1, STRING, PaymentSucceededEvent::getPaymentId, PaymentSucceededEvent::setPaymentId)
+            .field("items", 1, listOf(ORDER_ITEM), PaymentSucceededEvent::getItems, PaymentSucceededEvent::setItems)
+            .build();
+
+    public static final EventSchema<PaymentFailedEvent> PAYMENT_FAILED = EventSchema
+            .builder("PaymentFailedEvent", PaymentFailedEvent::new)
+            .field("orderId", 1, INT64, PaymentFailedEvent::getOrderId, PaymentFailedEvent::setOrderId)
+            .field("reason", 1, STRING, PaymentFailedEvent::getReason, PaymentFailedEvent::setReason)
+            .field("retryable", 1, BOOL, PaymentFailedEvent::isRetryable, PaymentFailedEvent::setRetryable)
+            .build();
+
+    public static final EventSchema<InventoryReservedEvent> INVENTORY_RESERVED = EventSchema
+            .builder("InventoryReservedEvent", InventoryReservedEvent::new)
+            .field("orderId", 1, INT64, InventoryReservedEvent::getOrderId, InventoryReservedEvent::setOrderId)
+            .build();
+
+    public static final EventSchema<InventoryUnavailableEvent> INVENTORY_UNAVAILABLE = EventSchema
+            .builder("InventoryUnavailableEvent", InventoryUnavailableEvent::new)
+            .field("orderId", 1, INT64, InventoryUnavailableEvent::getOrderId, InventoryUnavailableEvent::setOrderId)
+            .field("reason", 1, STRING, InventoryUnavailableEvent::getReason, InventoryUnavailableEvent::setReason)
+            .build();
+
+    public static final EventSchema<OrderStateEvent> ORDER_STATE = EventSchema
+            .builder("OrderStateEvent", OrderStateEvent::new)
+            .field("orderId", 1, INT64, OrderStateEvent::getOrderId, OrderStateEvent::setOrderId)
+            .field("userId", 1, STRING, OrderStateEvent::getUserId, OrderStateEvent::setUserId)
+            .field("status", 1, STRING, OrderStateEvent::getStatus, OrderStateEvent::setStatus)
+            .field("totalAmount", 1, DECIMAL, OrderStateEvent::getTotalAmount, OrderStateEvent::setTotalAmount)
+            .field("updatedAt", 1, INT64, OrderStateEvent::getUpdatedAt, OrderStateEvent::setUpdatedAt)
+            .build();
+
+    public static final EventSchema<ReserveInventoryCommand> RESERVE_INVENTORY = EventSchema
+            .builder("ReserveInventoryCommand", ReserveInventoryCommand::new)
+            .field("orderId", 1, INT64, ReserveInventoryCommand::getOrderId, ReserveInventoryCommand::setOrderId)
+            .field("items", 1, listOf(ORDER_ITEM), ReserveInventoryCommand::getItems, ReserveInventoryCommand::setItems)
+            .build();
+
+    public static final EventSchema<RefundPaymentCommand> REFUND_PAYMENT = EventSchema
+            .builder("RefundPaymentCommand", RefundPaymentCommand::new)
+            .field("orderId", 1, INT64, RefundPaymentCommand::getOrderId, RefundPaymentCommand::setOrderId)
+            .field("reason", 1, STRING, RefundPaymentCommand::getReason, RefundPaymentCommand::setReason)
+            .build();
+
+    public static final EventSchema<PaymentRefundedEvent> PAYMENT_REFUNDED = EventSchema
+            .builder("PaymentRefundedEvent", PaymentRefundedEvent::new)
+            .field("orderId", 1, INT64, PaymentRefundedEvent::getOrderId, PaymentRefundedEvent::setOrderId)
+            .field("paymentId", 1, STRING, PaymentRefundedEvent::getPaymentId, PaymentRefundedEvent::setPaymentId)
+            .build();
+
+    private static final EventCodec CODEC = new EventCodec()
+            .register(1, OrderCreatedEvent.class, ORDER_CREATED)
+            .register(2, PaymentSucceededEvent.class, PAYMENT_SUCCEEDED)
+            .register(3, PaymentFailedEvent.class, PAYMENT_FAILED)
+            .register(4, InventoryReservedEvent.class, INVENTORY_RESERVED)
+            .register(5, InventoryUnavailableEvent.class, INVENTORY_UNAVAILABLE)
+            .register(6, OrderStateEvent.class, ORDER_STATE)
+            .register(7, ReserveInventoryCommand.class, RESERVE_INVENTORY)
+            .register(8, RefundPaymentCommand.class, REFUND_PAYMENT)
+            .register(9, PaymentRefundedEvent.class, PAYMENT_REFUNDED);
+
+    private EventContracts() {
+    }
+
+    public static EventCodec codec() {
+        return CODEC;
+    }
+
+    /**
+     * Every schema, nested records included, for the compatibility check.
+     */
+    public static List<EventSchema<?>> schemas() {
+        return List.of(ORDER_ITEM, ORDER_CREATED, PAYMENT_SUCCEEDED, PAYMENT_FAILED, INVENTORY_RESERVED,
+                INVENTORY_UNAVAILABLE, ORDER_STATE, RESERVE_INVENTORY, REFUND_PAYMENT, PAYMENT_REFUNDED);
+    }
+}
@@ -1,4 +1,4 @@
-package com.eventdriven.order.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
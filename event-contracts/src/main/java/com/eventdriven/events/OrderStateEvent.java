@@ -1,4 +1,4 @@
-package com.eventdriven.notification.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,12 +7,17 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
+/**
+ * An order's latest state, keyed by order id on the compacted order state topic.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderCreatedEvent {
+public class OrderStateEvent {
     private Long orderId;
     private String userId;
+    private String status;
     private BigDecimal totalAmount;
+    private Long updatedAt;
 }
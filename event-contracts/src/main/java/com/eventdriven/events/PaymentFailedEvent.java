@@ -1,4 +1,4 @@
-package com.eventdriven.notification.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class PaymentFailedEvent {
     private Long orderId;
     private String reason;
+    private boolean retryable;
 }
@@ -1,4 +1,4 @@
-package com.eventdriven.order.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class PaymentSucceededEvent {
+public class PaymentRefundedEvent {
     private Long orderId;
     private String paymentId;
 }
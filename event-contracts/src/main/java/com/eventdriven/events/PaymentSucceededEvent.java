@@ -1,4 +1,4 @@
-package com.eventdriven.payment.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -1,15 +1,18 @@
-package com.eventdriven.notification.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Sent by order-service's saga orchestrator to undo the payment of an order that cannot be fulfilled.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class InventoryUnavailableEvent {
+public class RefundPaymentCommand {
     private Long orderId;
     private String reason;
 }
@@ -1,4 +1,4 @@
-package com.eventdriven.inventory.event;
+package com.eventdriven.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,12 +7,14 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * Sent by order-service's saga orchestrator once an order is paid for.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class PaymentSucceededEvent {
+public class ReserveInventoryCommand {
     private Long orderId;
-    private String paymentId;
     private List<OrderItemEvent> items;
 }
@@ -0,0 +1,89 @@
+package com.eventdriven.events.codec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes registered event types as {@code [magic][type id][schema version][record]}. The type id
+ * identifies the contract, so topics need no type headers; the schema version tells a reader which
+ * revision of the contract wrote the record.
+ */
+public final class EventCodec {
+
+    public static final int MAGIC = 0xC5;
+
+    private final Map<Class<?>, Registration<?>> byType = new HashMap<>();
+    private final Map<Integer, Registration<?>> byId = new HashMap<>();
+    private final List<Registration<?>> registrations = new ArrayList<>();
+
+    public <T> EventCodec register(int typeId, Class<T> type, EventSchema<T> schema) {
+        Registration<T> registration = new Registration<>(typeId, type, schema);
+        if (byId.putIfAbsent(typeId, registration) != null) {
+            throw new IllegalArgumentException("Type id " + typeId + " is already taken by " + byId.get(typeId).type());
+        }
+        if (byType.putIfAbsent(type, registration) != null) {
+            throw new IllegalArgumentException(type + " is already registered");
+        }
+        registrations.add(registration);
+        return this;
+    }
+
+    public byte[] encode(Object event) {
+        Registration<?> registration = byType.get(event.getClass());
+        if (registration == null) {
+            throw new EventCodecException("Not a registered event type: " + event.getClass().getName());
+        }
+        EventWriter out = new EventWriter(128);
+        out.writeByte(MAGIC);
+        out.writeVarLong(registration.typeId());
+        out.writeVarLong(registration.schema().version());
+        registration.write(event, out);
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] data) {
+        EventReader in = new EventReader(data);
+        int magic = in.readByte();
+        if (magic != MAGIC) {
+            throw new EventCodecException("Not a binary event: leading byte 0x" + Integer.toHexString(magic));
+        }
+        int typeId = in.readVarInt();
+        Registration<?> registration = byId.get(typeId);
+        if (registration == null) {
+            throw new EventCodecException("Unknown event type id " + typeId);
+        }
+        // Any version is readable; fields this reader does not know are ignored
+        in.readVarInt();
+        return registration.schema().readFields(in);
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length > 0 && (data[0] & 0xFF) == MAGIC;
+    }
+
+    /**
+     * The registered type with this simple class name, if any.
+     */
+    public Class<?> typeNamed(String simpleName) {
+        for (Registration<?> registration : registrations) {
+            if (registration.type().getSimpleName().equals(simpleName)) {
+                return registration.type();
+            }
+        }
+        return null;
+    }
+
+    public List<Registration<?>> registrations() {
+        return Collections.unmodifiableList(registrations);
+    }
+
+    public record Registration<T>(int typeId, Class<T> type, EventSchema<T> schema) {
+
+        void write(Object event, EventWriter out) {
+            schema.writeFields(type.cast(event), out);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eventdriven.events.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link EventWriter} wrote. Sections are read under a limit so that a reader that knows
+ * fewer fields than the writer can skip the rest.
+ */
+public final class EventReader {
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    public EventReader(byte[] buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.length;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EventCodecException("Malformed varint at offset " + position);
+    }
+
+    public int readVarInt() {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new EventCodecException("Length out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    public long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public byte[] readBytes() {
+        int length = readVarInt();
+        require(length);
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Narrows reading to the next length-prefixed section.
+     *
+     * @return the enclosing limit, to be handed back to {@link #endSection}
+     */
+    public int beginSection() {
+        int length = readVarInt();
+        require(length);
+        int enclosing = limit;
+        limit = position + length;
+        return enclosing;
+    }
+
+    /**
+     * Skips whatever of the section was not read and restores the enclosing limit.
+     */
+    public void endSection(int enclosing) {
+        position = limit;
+        limit = enclosing;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    private void require(int length) {
+        if (length > limit - position) {
+            throw new EventCodecException("Truncated event: needed " + length + " bytes at offset " + position);
+        }
+    }
+}
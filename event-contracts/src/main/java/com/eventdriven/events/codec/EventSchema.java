@@ -0,0 +1,137 @@
+package com.eventdriven.events.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of one event or nested record, in wire order, each tagged with the schema version that
+ * introduced it. Values are read and written through the accessors given here, so decoding needs no
+ * reflection.
+ * <p>
+ * Fields are positional. A record is written as its field count, a bitmap of the non-null fields, and
+ * then their values. A reader that knows more fields than the writer leaves the extra ones at their
+ * defaults; one that knows fewer skips the rest of the record. That holds as long as schemas only ever
+ * append fields, which {@link SchemaCompatibility} checks against the published descriptions. A field
+ * that is no longer needed stays in place and is written as null.
+ */
+public final class EventSchema<T> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final List<Field<T, ?>> fields;
+    private final int version;
+
+    private EventSchema(String name, Supplier<T> factory, List<Field<T, ?>> fields) {
+        this.name = name;
+        this.factory = factory;
+        this.fields = List.copyOf(fields);
+        this.version = fields.stream().mapToInt(Field::since).max().orElse(1);
+    }
+
+    public static <T> Builder<T> builder(String name, Supplier<T> factory) {
+        return new Builder<>(name, factory);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /**
+     * One line naming the schema, its version and its fields in order, e.g.
+     * {@code OrderItemEvent v1: productId string @1, quantity int32 @1}.
+     */
+    public String describe() {
+        return name + " v" + version + ": " + fields.stream()
+                .map(field -> field.name() + " " + field.type().name() + " @" + field.since())
+                .collect(Collectors.joining(", "));
+    }
+
+    void writeFields(T value, EventWriter out) {
+        int count = fields.size();
+        out.writeVarLong(count);
+        int bitmap = out.reserve((count + 7) / 8);
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            if (fields.get(i).writeIfPresent(value, out)) {
+                bits |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7 || i == count - 1) {
+                out.setByte(bitmap + i / 8, bits);
+                bits = 0;
+            }
+        }
+    }
+
+    T readFields(EventReader in) {
+        int count = in.readVarInt();
+        byte[] bitmap = new byte[(count + 7) / 8];
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = (byte) in.readByte();
+        }
+        T value = factory.get();
+        int known = Math.min(count, fields.size());
+        for (int i = 0; i < known; i++) {
+            if ((bitmap[i / 8] & (1 << (i & 7))) != 0) {
+                fields.get(i).readInto(value, in);
+            }
+        }
+        // Fields added after this reader's version are left for the caller to skip
+        return value;
+    }
+
+    private record Field<T, V>(String name, int since, FieldType<V> type,
+                               Function<T, V> getter, BiConsumer<T, V> setter) {
+
+        boolean writeIfPresent(T target, EventWriter out) {
+            V value = getter.apply(target);
+            if (value == null) {
+                return false;
+            }
+            type.write(out, value);
+            return true;
+        }
+
+        void readInto(T target, EventReader in) {
+            setter.accept(target, type.read(in));
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final String name;
+        private final Supplier<T> factory;
+        private final List<Field<T, ?>> fields = new ArrayList<>();
+
+        private Builder(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        /**
+         * Appends a field introduced in schema version {@code since}. Versions may not decrease along the
+         * field list: new fields go at the end.
+         */
+        public <V> Builder<T> field(String name, int since, FieldType<V> type,
+                                    Function<T, V> getter, BiConsumer<T, V> setter) {
+            int latest = fields.isEmpty() ? 1 : fields.get(fields.size() - 1).since();
+            if (since < latest) {
+                throw new IllegalArgumentException(this.name + "." + name + " is @" + since
+                        + " but follows a field added in v" + latest + "; append new fields at the end");
+            }
+            fields.add(new Field<>(name, since, type, getter, setter));
+            return this;
+        }
+
+        public EventSchema<T> build() {
+            return new EventSchema<>(name, factory, fields);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.eventdriven.events.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable output buffer for the binary event format. Integers are LEB128 varints, signed ones
+ * zig-zag encoded first, so small values take one byte.
+ */
+public final class EventWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public EventWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a length-prefixed section. The body is written first and then moved up to make room
+     * for its length, which for the small nested records of an event is cheaper than sizing it twice.
+     */
+    public void writeSection(Runnable body) {
+        int start = position;
+        body.run();
+        int length = position - start;
+        int prefix = varLongSize(length);
+        ensureCapacity(prefix);
+        System.arraycopy(buffer, start, buffer, start + prefix, length);
+        position = start;
+        writeVarLong(length);
+        position = start + prefix + length;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Reserves {@code length} zero bytes to be filled in later with {@link #setByte}.
+     */
+    public int reserve(int length) {
+        ensureCapacity(length);
+        int start = position;
+        Arrays.fill(buffer, start, start + length, (byte) 0);
+        position += length;
+        return start;
+    }
+
+    public void setByte(int index, int value) {
+        buffer[index] = (byte) value;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+}
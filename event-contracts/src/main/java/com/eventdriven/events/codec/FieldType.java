@@ -0,0 +1,14 @@
+package com.eventdriven.events.codec;
+
+/**
+ * How one kind of field value is written. The name is part of a schema's published description, so
+ * changing a field's type shows up as a compatibility break.
+ */
+public interface FieldType<V> {
+
+    String name();
+
+    void write(EventWriter out, V value);
+
+    V read(EventReader in);
+}
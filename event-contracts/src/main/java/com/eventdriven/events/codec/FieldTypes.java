@@ -0,0 +1,109 @@
+package com.eventdriven.events.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class FieldTypes {
+
+    public static final FieldType<Long> INT64 = of("int64", (out, value) -> out.writeZigZag(value), EventReader::readZigZag);
+
+    public static final FieldType<Integer> INT32 = of("int32", (out, value) -> out.writeZigZag(value),
+            in -> Math.toIntExact(in.readZigZag()));
+
+    public static final FieldType<Boolean> BOOL = of("bool", (out, value) -> out.writeByte(value ? 1 : 0),
+            in -> in.readByte() != 0);
+
+    public static final FieldType<String> STRING = of("string", EventWriter::writeString, EventReader::readString);
+
+    /**
+     * Scale and unscaled value; the unscaled value is a varint when it fits in a long, which covers any
+     * realistic amount, and two's-complement bytes otherwise.
+     */
+    public static final FieldType<BigDecimal> DECIMAL = of("decimal", (out, value) -> {
+        BigInteger unscaled = value.unscaledValue();
+        boolean wide = unscaled.bitLength() > 63;
+        out.writeVarLong((((long) value.scale() << 1) ^ (value.scale() >> 31)) << 1 | (wide ? 1 : 0));
+        if (wide) {
+            out.writeBytes(unscaled.toByteArray());
+        } else {
+            out.writeZigZag(unscaled.longValue());
+        }
+    }, in -> {
+        long header = in.readVarLong();
+        long zigZagScale = header >>> 1;
+        int scale = (int) ((zigZagScale >>> 1) ^ -(zigZagScale & 1));
+        if ((header & 1) != 0) {
+            return new BigDecimal(new BigInteger(in.readBytes()), scale);
+        }
+        return BigDecimal.valueOf(in.readZigZag(), scale);
+    });
+
+    private FieldTypes() {
+    }
+
+    public static <E> FieldType<E> struct(EventSchema<E> schema) {
+        return of(schema.name(), (out, value) -> out.writeSection(() -> schema.writeFields(value, out)), in -> {
+            int enclosing = in.beginSection();
+            E value = schema.readFields(in);
+            in.endSection(enclosing);
+            return value;
+        });
+    }
+
+    /**
+     * Elements are nested records, each in its own section so they can grow fields independently.
+     * Null elements are not representable and are dropped.
+     */
+    public static <E> FieldType<List<E>> listOf(EventSchema<E> schema) {
+        FieldType<E> element = struct(schema);
+        return of("list<" + schema.name() + ">", (out, values) -> {
+            int count = 0;
+            for (E value : values) {
+                if (value != null) {
+                    count++;
+                }
+            }
+            out.writeVarLong(count);
+            for (E value : values) {
+                if (value != null) {
+                    element.write(out, value);
+                }
+            }
+        }, in -> {
+            int count = in.readVarInt();
+            List<E> values = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                values.add(element.read(in));
+            }
+            return values;
+        });
+    }
+
+    private static <V> FieldType<V> of(String name, BiConsumer<EventWriter, V> writer, Function<EventReader, V> reader) {
+        return new FieldType<>() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void write(EventWriter out, V value) {
+                writer.accept(out, value);
+            }
+
+            @Override
+            public V read(EventReader in) {
+                return reader.apply(in);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventdriven.events.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares a schema against the description it was published with (see {@link EventSchema#describe()}).
+ * Readers and writers of any two versions understand each other only if every published field keeps
+ * its position, type and version, and everything new is appended under a higher version.
+ */
+public final class SchemaCompatibility {
+
+    private SchemaCompatibility() {
+    }
+
+    public static List<String> problems(String published, String current) {
+        Description before = Description.parse(published);
+        Description after = Description.parse(current);
+        List<String> problems = new ArrayList<>();
+        if (!before.name().equals(after.name())) {
+            problems.add("schema renamed from " + before.name() + " to " + after.name());
+            return problems;
+        }
+        if (after.version() < before.version()) {
+            problems.add(after.name() + " went back from v" + before.version() + " to v" + after.version());
+        }
+        for (int i = 0; i < before.fields().size(); i++) {
+            String field = before.fields().get(i);
+            if (i >= after.fields().size()) {
+                problems.add(after.name() + " dropped field '" + field + "'; keep it and stop setting it instead");
+            } else if (!field.equals(after.fields().get(i))) {
+                problems.add(after.name() + " changed field " + (i + 1) + " from '" + field + "' to '"
+                        + after.fields().get(i) + "'");
+            }
+        }
+        for (int i = before.fields().size(); i < after.fields().size(); i++) {
+            String field = after.fields().get(i);
+            if (sinceOf(field) <= before.version()) {
+                problems.add(after.name() + " added '" + field + "' without a version above v" + before.version());
+            }
+        }
+        return problems;
+    }
+
+    private static int sinceOf(String field) {
+        return Integer.parseInt(field.substring(field.lastIndexOf('@') + 1));
+    }
+
+    private record Description(String name, int version, List<String> fields) {
+
+        static Description parse(String line) {
+            int colon = line.indexOf(':');
+            int v = line.lastIndexOf(" v", colon);
+            if (colon < 0 || v < 0) {
+                throw new IllegalArgumentException("Not a schema description: " + line);
+            }
+            List<String> fields = new ArrayList<>();
+            for (String field : line.substring(colon + 1).split(",")) {
+                if (!field.isBlank()) {
+                    fields.add(field.trim());
+                }
+            }
+            return new Description(line.substring(0, v).trim(), Integer.parseInt(line.substring(v + 2, colon)), fields);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.eventdriven.events.kafka;
+
+import com.eventdriven.events.EventContracts;
+import com.eventdriven.events.codec.EventCodec;
+import com.eventdriven.events.codec.EventCodecException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for the event contracts. Records written as JSON before the switch, which
+ * carry the contract's simple name in the {@code __TypeId__} header, are still read unless
+ * {@value #LEGACY_JSON_CONFIG} is set to false; that path uses Jackson and is meant only to outlive
+ * the topics' retention.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    public static final String LEGACY_JSON_CONFIG = "eventdriven.events.legacy-json";
+
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private final EventCodec codec;
+    private boolean legacyJson = true;
+    private ObjectMapper objectMapper;
+
+    public EventDeserializer() {
+        this(EventContracts.codec());
+    }
+
+    public EventDeserializer(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object legacy = configs.get(LEGACY_JSON_CONFIG);
+        if (legacy != null) {
+            legacyJson = Boolean.parseBoolean(legacy.toString());
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (EventCodec.isEncoded(data) || !legacyJson) {
+                return codec.decode(data);
+            }
+            return readLegacyJson(headers, data);
+        } catch (EventCodecException e) {
+            throw new SerializationException("Cannot deserialize event from " + topic, e);
+        }
+    }
+
+    private Object readLegacyJson(Headers headers, byte[] data) {
+        Header typeId = headers == null ? null : headers.lastHeader(TYPE_ID_HEADER);
+        String name = typeId == null ? null : new String(typeId.value(), StandardCharsets.UTF_8);
+        Class<?> type = name == null ? null : codec.typeNamed(name.substring(name.lastIndexOf('.') + 1));
+        if (type == null) {
+            throw new EventCodecException("Record is neither a binary event nor JSON of a known type ("
+                    + TYPE_ID_HEADER + "=" + name + ")");
+        }
+        try {
+            return legacyMapper().readValue(data, type);
+        } catch (Exception e) {
+            throw new EventCodecException("Unreadable JSON " + name, e);
+        }
+    }
+
+    private ObjectMapper legacyMapper() {
+        if (objectMapper == null) {
+            objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        }
+        return objectMapper;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eventdriven.events.kafka;
+
+import com.eventdriven.events.EventContracts;
+import com.eventdriven.events.codec.EventCodec;
+import com.eventdriven.events.codec.EventCodecException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for the event contracts, configured in place of the JSON serializer. Byte
+ * arrays are written as they are: that is how a record which could not be deserialized reaches its
+ * dead-letter topic.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final EventCodec codec;
+
+    public EventSerializer() {
+        this(EventContracts.codec());
+    }
+
+    public EventSerializer(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[] raw) {
+            return raw;
+        }
+        try {
+            return codec.encode(data);
+        } catch (EventCodecException e) {
+            throw new SerializationException("Cannot serialize event for " + topic, e);
+        }
+    }
+}
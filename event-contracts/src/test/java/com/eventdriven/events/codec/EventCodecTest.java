@@ -0,0 +1,149 @@
+package com.eventdriven.events.codec;
+
+import com.eventdriven.events.EventContracts;
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.events.OrderItemEvent;
+import com.eventdriven.events.PaymentFailedEvent;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private final EventCodec codec = EventContracts.codec();
+
+    @Test
+    void decode_OfEncodedEvent_ShouldRoundTrip() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .orderId(42L)
+                .userId("alice")
+                .totalAmount(new BigDecimal("1029.97"))
+                .items(List.of(
+                        item("PROD001", "iPhone 15 Pro", 1, "999.99"),
+                        item("PROD002", "Käse", 2, "14.99")))
+                .build();
+
+        byte[] encoded = codec.encode(event);
+
+        assertThat(codec.decode(encoded)).isEqualTo(event);
+        assertThat(encoded[0] & 0xFF).isEqualTo(EventCodec.MAGIC);
+    }
+
+    @Test
+    void decode_WithNullFields_ShouldLeaveThemNull() {
+        PaymentFailedEvent event = PaymentFailedEvent.builder().orderId(7L).retryable(true).build();
+
+        PaymentFailedEvent decoded = (PaymentFailedEvent) codec.decode(codec.encode(event));
+
+        assertThat(decoded.getReason()).isNull();
+        assertThat(decoded.isRetryable()).isTrue();
+        assertThat(decoded.getOrderId()).isEqualTo(7L);
+    }
+
+    @Test
+    void decode_WithDecimalBeyondLong_ShouldKeepValueAndScale() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .totalAmount(new BigDecimal("-123456789012345678901234567890.1234"))
+                .build();
+
+        OrderCreatedEvent decoded = (OrderCreatedEvent) codec.decode(codec.encode(event));
+
+        assertThat(decoded.getTotalAmount()).isEqualTo(event.getTotalAmount());
+    }
+
+    @Test
+    void decode_ByOlderReader_ShouldSkipFieldsAddedLater() {
+        EventCodec v2 = new EventCodec().register(1, Sample.class, sample(true));
+        EventCodec v1 = new EventCodec().register(1, Sample.class, sample(false));
+        Sample written = new Sample();
+        written.setId(5L);
+        written.setNote("added in v2");
+        written.setParts(List.of(part("a", 1), part("b", 2)));
+
+        Sample read = (Sample) v1.decode(v2.encode(written));
+
+        assertThat(read.getId()).isEqualTo(5L);
+        assertThat(read.getNote()).isNull();
+        assertThat(read.getParts()).extracting(Part::getName).containsExactly("a", "b");
+        assertThat(read.getParts()).extracting(Part::getWeight).containsOnlyNulls();
+    }
+
+    @Test
+    void decode_ByNewerReader_ShouldDefaultFieldsTheWriterDidNotHave() {
+        EventCodec v2 = new EventCodec().register(1, Sample.class, sample(true));
+        EventCodec v1 = new EventCodec().register(1, Sample.class, sample(false));
+        Sample written = new Sample();
+        written.setId(5L);
+        written.setParts(List.of(part("a", 1)));
+
+        Sample read = (Sample) v2.decode(v1.encode(written));
+
+        assertThat(read.getId()).isEqualTo(5L);
+        assertThat(read.getNote()).isNull();
+        assertThat(read.getParts().get(0).getName()).isEqualTo("a");
+        assertThat(read.getParts().get(0).getWeight()).isNull();
+    }
+
+    @Test
+    void decode_WithUnknownTypeOrTruncatedData_ShouldFail() {
+        byte[] encoded = codec.encode(PaymentFailedEvent.builder().orderId(1L).reason("declined").build());
+        byte[] truncated = java.util.Arrays.copyOf(encoded, encoded.length - 2);
+        byte[] unknownType = encoded.clone();
+        unknownType[1] = 99;
+
+        assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(EventCodecException.class);
+        assertThatThrownBy(() -> codec.decode(unknownType)).isInstanceOf(EventCodecException.class)
+                .hasMessageContaining("99");
+        assertThatThrownBy(() -> codec.encode("not an event")).isInstanceOf(EventCodecException.class);
+    }
+
+    private static OrderItemEvent item(String productId, String name, int quantity, String price) {
+        return OrderItemEvent.builder()
+                .productId(productId)
+                .productName(name)
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    // v1 has id and parts with a name; v2 adds note and each part's weight
+    private static EventSchema<Sample> sample(boolean v2) {
+        EventSchema.Builder<Part> part = EventSchema.builder("Part", Part::new)
+                .field("name", 1, FieldTypes.STRING, Part::getName, Part::setName);
+        EventSchema.Builder<Sample> sample = EventSchema.builder("Sample", Sample::new)
+                .field("id", 1, FieldTypes.INT64, Sample::getId, Sample::setId);
+        if (v2) {
+            part.field("weight", 2, FieldTypes.INT32, Part::getWeight, Part::setWeight);
+        }
+        sample.field("parts", 1, FieldTypes.listOf(part.build()), Sample::getParts, Sample::setParts);
+        if (v2) {
+            sample.field("note", 2, FieldTypes.STRING, Sample::getNote, Sample::setNote);
+        }
+        return sample.build();
+    }
+
+    private static Part part(String name, int weight) {
+        Part part = new Part();
+        part.setName(name);
+        part.setWeight(weight);
+        return part;
+    }
+
+    @Data
+    static class Sample {
+        private Long id;
+        private List<Part> parts;
+        private String note;
+    }
+
+    @Data
+    static class Part {
+        private String name;
+        private Integer weight;
+    }
+}
@@ -0,0 +1,57 @@
+package com.eventdriven.events.codec;
+
+import com.eventdriven.events.EventContracts;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaCompatibilityTest {
+
+    @Test
+    void schemas_ShouldStayCompatibleWithPublishedVersions() throws IOException {
+        Map<String, String> published = published();
+
+        for (EventSchema<?> schema : EventContracts.schemas()) {
+            String description = published.get(schema.name());
+            assertThat(description).as("published description of %s; add: %s", schema.name(), schema.describe())
+                    .isNotNull();
+            assertThat(SchemaCompatibility.problems(description, schema.describe())).as(schema.name()).isEmpty();
+        }
+    }
+
+    @Test
+    void problems_WithAppendedFieldUnderNewVersion_ShouldBeNone() {
+        assertThat(SchemaCompatibility.problems(
+                "Sample v1: id int64 @1, name string @1",
+                "Sample v2: id int64 @1, name string @1, note string @2")).isEmpty();
+    }
+
+    @Test
+    void problems_WithChangedDroppedOrUnversionedFields_ShouldReportEach() {
+        assertThat(SchemaCompatibility.problems(
+                "Sample v2: id int64 @1, name string @1, note string @2",
+                "Sample v2: id int32 @1, name string @1")).hasSize(2);
+        assertThat(SchemaCompatibility.problems(
+                "Sample v1: id int64 @1",
+                "Sample v1: id int64 @1, note string @1")).singleElement().asString().contains("without a version");
+    }
+
+    private static Map<String, String> published() throws IOException {
+        Map<String, String> descriptions = new LinkedHashMap<>();
+        try (InputStream in = SchemaCompatibilityTest.class.getResourceAsStream("/published-schemas.txt")) {
+            assertThat(in).as("published-schemas.txt").isNotNull();
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    descriptions.put(line.substring(0, line.indexOf(" v")), line.trim());
+                }
+            }
+        }
+        return descriptions;
+    }
+}
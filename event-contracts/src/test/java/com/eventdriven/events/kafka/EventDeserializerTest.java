@@ -0,0 +1,51 @@
+package com.eventdriven.events.kafka;
+
+import com.eventdriven.events.InventoryUnavailableEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventDeserializerTest {
+
+    private static final byte[] LEGACY_JSON =
+            "{\"orderId\":9,\"reason\":\"out of stock\",\"since\":\"dropped\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final EventSerializer serializer = new EventSerializer();
+    private final EventDeserializer deserializer = new EventDeserializer();
+
+    @Test
+    void deserialize_OfSerializedEvent_ShouldReturnSameEvent() {
+        InventoryUnavailableEvent event = new InventoryUnavailableEvent(9L, "out of stock");
+
+        byte[] data = serializer.serialize("inventory-unavailable-topic", event);
+
+        assertThat(deserializer.deserialize("inventory-unavailable-topic", new RecordHeaders(), data)).isEqualTo(event);
+        assertThat(deserializer.deserialize("inventory-unavailable-topic", new RecordHeaders(), (byte[]) null)).isNull();
+    }
+
+    @Test
+    void deserialize_OfJsonWrittenBeforeTheSwitch_ShouldUseTypeHeader() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("__TypeId__", "InventoryUnavailableEvent".getBytes(StandardCharsets.UTF_8));
+
+        Object event = deserializer.deserialize("inventory-unavailable-topic", headers, LEGACY_JSON);
+
+        assertThat(event).isEqualTo(new InventoryUnavailableEvent(9L, "out of stock"));
+    }
+
+    @Test
+    void deserialize_OfJsonWithLegacyReadingOff_ShouldFail() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("__TypeId__", "InventoryUnavailableEvent".getBytes(StandardCharsets.UTF_8));
+        deserializer.configure(Map.of(EventDeserializer.LEGACY_JSON_CONFIG, "false"), false);
+
+        assertThatThrownBy(() -> deserializer.deserialize("inventory-unavailable-topic", headers, LEGACY_JSON))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -74,7 +74,7 @@ function App() {
       });
       if (res.ok) {
         alert('Order Placed!');
-        fetchOrders(); // Refresh list
+        applyOrder(await res.json());
       } else {
         alert('Failed to place order');
       }
@@ -83,12 +83,83 @@ function App() {
     }
   };
 
+  const applyOrder = (order) => {
+    setOrders(prev => {
+      const index = prev.findIndex(o => o.id === order.id);
+      if (index === -1) {
+        return [order, ...prev];
+      }
+      const next = [...prev];
+      next[index] = order;
+      return next;
+    });
+  };
+
+  // Status changes are pushed over Server-Sent Events. EventSource cannot send an Authorization
+  // header, so the stream is read with fetch and parsed here; reconnects resume via Last-Event-ID.
   useEffect(() => {
-    if (token) {
-        fetchOrders();
-        const interval = setInterval(fetchOrders, 3000); // Auto-refresh for "event driven" feel
-        return () => clearInterval(interval);
+    if (!token) {
+      return;
     }
+    const controller = new AbortController();
+    let lastEventId = null;
+    let retryDelay = 1000;
+
+    const handle = (raw) => {
+      const event = { name: 'message', data: '' };
+      for (const line of raw.split('\n')) {
+        if (line.startsWith('id:')) event.id = line.slice(3).trim();
+        else if (line.startsWith('event:')) event.name = line.slice(6).trim();
+        else if (line.startsWith('data:')) event.data += line.slice(5);
+      }
+      if (event.id) {
+        lastEventId = event.id;
+      }
+      if (event.name === 'order') {
+        applyOrder(JSON.parse(event.data));
+      } else if (event.name === 'resync') {
+        fetchOrders();
+      }
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers = { 'Authorization': `Bearer ${token}`, 'Accept': 'text/event-stream' };
+          if (lastEventId) {
+            headers['Last-Event-ID'] = lastEventId;
+          }
+          const res = await fetch(`${API_BASE}/api/orders/stream`, { headers, signal: controller.signal });
+          if (!res.ok) {
+            throw new Error(`Order stream returned ${res.status}`);
+          }
+          retryDelay = 1000;
+          if (!lastEventId) {
+            fetchOrders(); // Load the list once the stream is open, so no change falls in between
+          }
+          const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value;
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+              handle(buffer.slice(0, boundary));
+              buffer = buffer.slice(boundary + 2);
+            }
+          }
+        } catch (e) {
+          if (controller.signal.aborted) return;
+          console.error(e);
+        }
+        await new Promise(resolve => setTimeout(resolve, retryDelay));
+        retryDelay = Math.min(retryDelay * 2, 30000);
+      }
+    };
+
+    connect();
+    return () => controller.abort();
   }, [token]);
 
   if (!token) {
@@ -6,6 +6,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 @RestController
 @RequestMapping("/api/inventory")
 @RequiredArgsConstructor
@@ -13,10 +16,11 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
 
+    // Answered with 304 by MVC, before the body is written, when If-None-Match carries the ETag
     @GetMapping("/{productId}")
     public ResponseEntity<Inventory> getInventory(@PathVariable String productId) {
         Inventory inventory = inventoryService.getInventoryByProductId(productId);
-        return ResponseEntity.ok(inventory);
+        return ResponseEntity.ok().eTag(etag(inventory)).body(inventory);
     }
 
     @PostMapping
@@ -35,4 +39,12 @@ public class InventoryController {
         Inventory inventory = inventoryService.updateStock(productId, quantity);
         return ResponseEntity.ok(inventory);
     }
+
+    // Every stock change goes through save(), which bumps updatedAt
+    private static String etag(Inventory inventory) {
+        LocalDateTime updatedAt = inventory.getUpdatedAt();
+        long version = updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + inventory.getId() + "-" + version + "\"";
+    }
 }
@@ -1,7 +1,7 @@
 package com.eventdriven.inventory.listener;
 
-import com.eventdriven.inventory.event.OrderCreatedEvent;
-import com.eventdriven.inventory.event.PaymentSucceededEvent;
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.events.ReserveInventoryCommand;
 import com.eventdriven.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,16 +15,17 @@ public class InventoryEventListener {
 
     private final InventoryService inventoryService;
 
-    @KafkaListener(topics = "payment-succeeded-topic", groupId = "inventory-service-group")
-    public void handlePaymentSucceeded(PaymentSucceededEvent event) {
-        log.info("Received PaymentSucceededEvent for order: {}", event.getOrderId());
-        
+    // Sent by order-service's saga orchestrator once the order is paid for
+    @KafkaListener(topics = "reserve-inventory-topic", groupId = "inventory-service-group")
+    public void handleReserveInventory(ReserveInventoryCommand command) {
+        log.info("Received ReserveInventoryCommand for order: {}", command.getOrderId());
+
         // Convert to OrderCreatedEvent format for processing
         OrderCreatedEvent orderEvent = OrderCreatedEvent.builder()
-                .orderId(event.getOrderId())
-                .items(event.getItems())
+                .orderId(command.getOrderId())
+                .items(command.getItems())
                 .build();
-        
+
         inventoryService.reserveInventory(orderEvent);
     }
 }
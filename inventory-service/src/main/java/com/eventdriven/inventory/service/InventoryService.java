@@ -1,10 +1,13 @@
 package com.eventdriven.inventory.service;
 
+import com.eventdriven.events.*;
+import com.eventdriven.kafka.replay.ReplayMode;
+import com.eventdriven.kafka.saga.SagaTracing;
 import com.eventdriven.inventory.entity.Inventory;
-import com.eventdriven.inventory.event.*;
 import com.eventdriven.inventory.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -18,9 +21,10 @@ public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SagaTracing sagaTracing;
 
     @Transactional
-    @CacheEvict(value = "inventory", allEntries = true)
+    @CacheEvict(value = "inventory", allEntries = true, condition = "!T(com.eventdriven.kafka.replay.ReplayMode).isActive()")
     public void reserveInventory(OrderCreatedEvent event) {
         log.info("Reserving inventory for order: {}", event.getOrderId());
 
@@ -41,7 +45,8 @@ public class InventoryService {
                     .orderId(event.getOrderId())
                     .build();
 
-            kafkaTemplate.send("inventory-reserved-topic", reservedEvent);
+            publish(sagaTracing.next("inventory-reserved-topic",
+                    String.valueOf(event.getOrderId()), reservedEvent));
             log.info("Inventory reserved for order: {}", event.getOrderId());
 
         } catch (Exception e) {
@@ -52,7 +57,8 @@ public class InventoryService {
                     .reason(e.getMessage())
                     .build();
 
-            kafkaTemplate.send("inventory-unavailable-topic", unavailableEvent);
+            publish(sagaTracing.next("inventory-unavailable-topic",
+                    String.valueOf(event.getOrderId()), unavailableEvent));
         }
     }
 
@@ -84,4 +90,11 @@ public class InventoryService {
         inventory.setAvailableQuantity(inventory.getAvailableQuantity() + quantity);
         return inventoryRepository.save(inventory);
     }
+
+    // A replay only rebuilds the stock levels; the rest of the saga already saw the outcome
+    private void publish(ProducerRecord<String, Object> record) {
+        if (!ReplayMode.isActive()) {
+            kafkaTemplate.send(record);
+        }
+    }
 }
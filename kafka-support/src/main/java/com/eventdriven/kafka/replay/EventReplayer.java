@@ -0,0 +1,319 @@
+package com.eventdriven.kafka.replay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.GenericMessageListener;
+import org.springframework.kafka.listener.ListenerContainerRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a range of a topic's history through the service's own {@code @KafkaListener} methods, the
+ * same listener adapters the containers call, so events are converted and handled exactly as they were
+ * the first time. Each partition gets a worker with its own consumer, assigned rather than subscribed:
+ * nothing joins the service's consumer group or commits offsets, so live consumption is not disturbed.
+ * <p>
+ * Workers apply records in batches, one database transaction per batch, and run in {@link ReplayMode}
+ * so handlers leave out outbound effects. If a record fails, its batch is rolled back and applied again
+ * one record per transaction, so only the failing records are skipped.
+ */
+@Slf4j
+public class EventReplayer {
+
+    private static final int KEPT_JOBS = 20;
+    private static final Acknowledgment NO_ACK = () -> {
+    };
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final ListenerContainerRegistry listenerRegistry;
+    private final ReplayProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CacheManager> cacheManagers;
+    private final Deque<ReplayJob> jobs = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    public EventReplayer(ConsumerFactory<?, ?> consumerFactory,
+                         ListenerContainerRegistry listenerRegistry,
+                         ReplayProperties properties,
+                         PlatformTransactionManager transactionManager,
+                         ObjectProvider<CacheManager> cacheManagers) {
+        this.consumerFactory = consumerFactory;
+        this.listenerRegistry = listenerRegistry;
+        this.properties = properties;
+        this.transactionTemplate = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        this.cacheManagers = cacheManagers;
+    }
+
+    /**
+     * Resolves the range of every partition and starts replaying in the background.
+     *
+     * @throws IllegalArgumentException if a topic does not exist or has no listener in this service
+     * @throws IllegalStateException if another replay is still running
+     */
+    public synchronized ReplayJob start(ReplayRequest request) {
+        if (request.topics() == null || request.topics().isEmpty()) {
+            throw new IllegalArgumentException("No topics to replay");
+        }
+        if (jobs.stream().anyMatch(job -> job.state() == ReplayJob.State.RUNNING)) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        Map<String, List<GenericMessageListener<ConsumerRecord<Object, Object>>>> listeners = new LinkedHashMap<>();
+        for (String topic : request.topics()) {
+            listeners.put(topic, listeners(topic));
+        }
+
+        ReplayJob job = new ReplayJob(UUID.randomUUID().toString(), request);
+        Map<String, List<ReplayJob.PartitionProgress>> ranges = new LinkedHashMap<>();
+        try (Consumer<Object, Object> consumer = consumer()) {
+            for (String topic : request.topics()) {
+                ranges.put(topic, ranges(consumer, topic, request, job));
+            }
+        }
+        jobs.addFirst(job);
+        while (jobs.size() > KEPT_JOBS) {
+            jobs.removeLast();
+        }
+        Thread runner = new Thread(() -> run(job, ranges, listeners), "replay-" + threads.incrementAndGet());
+        runner.setDaemon(true);
+        runner.start();
+        log.info("Started replay {} of {}", job.id(), request.topics());
+        return job;
+    }
+
+    public List<ReplayJob> jobs() {
+        return List.copyOf(jobs);
+    }
+
+    public ReplayJob job(String id) {
+        return jobs.stream()
+                .filter(job -> job.id().equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown replay: " + id));
+    }
+
+    private void run(ReplayJob job,
+                     Map<String, List<ReplayJob.PartitionProgress>> ranges,
+                     Map<String, List<GenericMessageListener<ConsumerRecord<Object, Object>>>> listeners) {
+        String error = null;
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, properties.getMaxWorkers()), task -> {
+            Thread thread = new Thread(task, "replay-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Map.Entry<String, List<ReplayJob.PartitionProgress>> topic : ranges.entrySet()) {
+                job.topic(topic.getKey());
+                List<Future<?>> partitions = new ArrayList<>();
+                for (ReplayJob.PartitionProgress partition : topic.getValue()) {
+                    partitions.add(workers.submit(() -> replay(job, partition, listeners.get(topic.getKey()))));
+                }
+                // The next topic starts once this one is done, keeping the saga's order
+                for (Future<?> partition : partitions) {
+                    partition.get();
+                }
+                if (job.isCancelled()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } catch (Exception e) {
+            error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            log.error("Replay {} failed", job.id(), e);
+        } finally {
+            workers.shutdownNow();
+            // Handlers did not evict during the replay; whatever they changed may be cached
+            cacheManagers.orderedStream().forEach(cacheManager -> cacheManager.getCacheNames().stream()
+                    .map(cacheManager::getCache)
+                    .filter(Objects::nonNull)
+                    .forEach(Cache::clear));
+            job.finished(error);
+        }
+        ReplayJob.Status status = job.status();
+        log.info("Replay {} {}: {} records applied, {} failed, {} records/s", job.id(), status.state(),
+                status.applied(), status.failed(), status.recordsPerSecond());
+    }
+
+    private void replay(ReplayJob job,
+                        ReplayJob.PartitionProgress progress,
+                        List<GenericMessageListener<ConsumerRecord<Object, Object>>> listeners) {
+        if (progress.from >= progress.to) {
+            return;
+        }
+        TopicPartition partition = new TopicPartition(progress.topic, progress.partition);
+        ReplayMode.enter();
+        try (Consumer<Object, Object> consumer = consumer()) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, progress.from);
+            List<ConsumerRecord<Object, Object>> batch = new ArrayList<>(properties.getBatchSize());
+            while (!job.isCancelled() && consumer.position(partition) < progress.to) {
+                for (ConsumerRecord<Object, Object> record : consumer.poll(properties.getPollTimeout())) {
+                    if (record.offset() >= progress.to) {
+                        break;
+                    }
+                    batch.add(record);
+                    if (batch.size() >= properties.getBatchSize()) {
+                        apply(batch, listeners, progress);
+                    }
+                }
+            }
+            if (!job.isCancelled()) {
+                apply(batch, listeners, progress);
+            }
+        } finally {
+            ReplayMode.exit();
+        }
+    }
+
+    private void apply(List<ConsumerRecord<Object, Object>> batch,
+                       List<GenericMessageListener<ConsumerRecord<Object, Object>>> listeners,
+                       ReplayJob.PartitionProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long next = batch.get(batch.size() - 1).offset() + 1;
+        List<ConsumerRecord<Object, Object>> readable = new ArrayList<>(batch.size());
+        for (ConsumerRecord<Object, Object> record : batch) {
+            // Left empty by the error-handling deserializer; it went to the dead-letter topic live too
+            if (record.value() == null) {
+                progress.failed.incrementAndGet();
+            } else {
+                readable.add(record);
+            }
+        }
+        try {
+            inTransaction(() -> readable.forEach(record -> deliver(record, listeners)));
+            progress.applied.addAndGet(readable.size());
+        } catch (RuntimeException batchFailure) {
+            for (ConsumerRecord<Object, Object> record : readable) {
+                try {
+                    inTransaction(() -> deliver(record, listeners));
+                    progress.applied.incrementAndGet();
+                } catch (RuntimeException e) {
+                    progress.failed.incrementAndGet();
+                    log.warn("Replay skipped {}-{}@{}: {}", record.topic(), record.partition(), record.offset(),
+                            e.getMessage());
+                }
+            }
+        }
+        progress.position = next;
+        batch.clear();
+    }
+
+    private void inTransaction(Runnable work) {
+        if (transactionTemplate == null) {
+            work.run();
+        } else {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+        }
+    }
+
+    private static void deliver(ConsumerRecord<Object, Object> record,
+                                List<GenericMessageListener<ConsumerRecord<Object, Object>>> listeners) {
+        for (GenericMessageListener<ConsumerRecord<Object, Object>> listener : listeners) {
+            listener.onMessage(record, NO_ACK, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<GenericMessageListener<ConsumerRecord<Object, Object>>> listeners(String topic) {
+        List<GenericMessageListener<ConsumerRecord<Object, Object>>> listeners = new ArrayList<>();
+        for (MessageListenerContainer container : listenerRegistry.getAllListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+            Object listener = container.getContainerProperties().getMessageListener();
+            if (topics != null && Arrays.asList(topics).contains(topic) && listener instanceof GenericMessageListener) {
+                listeners.add((GenericMessageListener<ConsumerRecord<Object, Object>>) listener);
+            }
+        }
+        if (listeners.isEmpty()) {
+            throw new IllegalArgumentException("No listener for topic " + topic + " in this service");
+        }
+        return listeners;
+    }
+
+    private static List<ReplayJob.PartitionProgress> ranges(Consumer<Object, Object> consumer, String topic,
+                                                            ReplayRequest request, ReplayJob job) {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalArgumentException("Unknown topic: " + topic);
+        }
+        List<TopicPartition> partitions = infos.stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .sorted((a, b) -> Integer.compare(a.partition(), b.partition()))
+                .toList();
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+        Map<TopicPartition, Long> from = offsetsAt(consumer, partitions, request.fromTime(), end);
+        Map<TopicPartition, Long> to = offsetsAt(consumer, partitions, request.toTime(), end);
+
+        List<ReplayJob.PartitionProgress> ranges = new ArrayList<>();
+        for (TopicPartition partition : partitions) {
+            long first = beginning.get(partition);
+            long last = end.get(partition);
+            long start = from != null ? from.get(partition)
+                    : request.fromOffset() != null ? request.fromOffset() : first;
+            long stop = to != null ? to.get(partition)
+                    : request.toOffset() != null ? request.toOffset() : last;
+            start = Math.min(Math.max(start, first), last);
+            stop = Math.min(Math.max(stop, start), last);
+            ranges.add(job.partition(topic, partition.partition(), start, stop));
+        }
+        return ranges;
+    }
+
+    // First offset at or after the time, or the end of partitions with nothing that recent
+    private static Map<TopicPartition, Long> offsetsAt(Consumer<Object, Object> consumer, List<TopicPartition> partitions,
+                                                       Instant time, Map<TopicPartition, Long> end) {
+        if (time == null) {
+            return null;
+        }
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, time.toEpochMilli()));
+        Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(query);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp offset = found.get(partition);
+            offsets.put(partition, offset != null ? offset.offset() : end.get(partition));
+        }
+        return offsets;
+    }
+
+    private Consumer<Object, Object> consumer() {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        // Assigned, never committed: the replay leaves no trace in the service's consumer group
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.CLIENT_ID_CONFIG, "replay-" + System.nanoTime());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getMaxPollRecords());
+        return new KafkaConsumer<>(config);
+    }
+}
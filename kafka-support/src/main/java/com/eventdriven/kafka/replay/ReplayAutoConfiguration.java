@@ -0,0 +1,50 @@
+package com.eventdriven.kafka.replay;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Replay of the service's own topics through its listeners, driven from {@code /admin/replay}.
+ */
+@AutoConfiguration(after = {KafkaAutoConfiguration.class, TransactionAutoConfiguration.class})
+@ConditionalOnClass(KafkaListenerEndpointRegistry.class)
+@ConditionalOnBean(ConsumerFactory.class)
+@ConditionalOnProperty(prefix = "eventdriven.kafka.replay", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ReplayProperties.class)
+public class ReplayAutoConfiguration {
+
+    @Bean
+    public EventReplayer eventReplayer(ConsumerFactory<?, ?> consumerFactory,
+                                       KafkaListenerEndpointRegistry listenerRegistry,
+                                       ReplayProperties properties,
+                                       ObjectProvider<PlatformTransactionManager> transactionManager,
+                                       ObjectProvider<CacheManager> cacheManagers) {
+        return new EventReplayer(consumerFactory, listenerRegistry, properties,
+                transactionManager.getIfUnique(), cacheManagers);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(DispatcherServlet.class)
+    static class ReplayControllerConfiguration {
+
+        @Bean
+        public ReplayController replayController(EventReplayer eventReplayer) {
+            return new ReplayController(eventReplayer);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventdriven.kafka.replay;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/replay")
+public class ReplayController {
+
+    private final EventReplayer eventReplayer;
+
+    public ReplayController(EventReplayer eventReplayer) {
+        this.eventReplayer = eventReplayer;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReplayJob.Status> start(@RequestBody ReplayRequest request) {
+        return ResponseEntity.accepted().body(eventReplayer.start(request).status());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReplayJob.Status>> getJobs() {
+        return ResponseEntity.ok(eventReplayer.jobs().stream().map(ReplayJob::status).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReplayJob.Status> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(eventReplayer.job(id).status());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReplayJob.Status> cancel(@PathVariable String id) {
+        ReplayJob job = eventReplayer.job(id);
+        job.cancel();
+        return ResponseEntity.ok(job.status());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
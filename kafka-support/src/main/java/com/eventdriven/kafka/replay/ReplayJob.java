@@ -0,0 +1,137 @@
+package com.eventdriven.kafka.replay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one replay, updated by its workers and read through {@link #status()}.
+ */
+public class ReplayJob {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id;
+    private final ReplayRequest request;
+    private final Instant startedAt = Instant.now();
+    private final List<PartitionProgress> partitions = new CopyOnWriteArrayList<>();
+    private volatile State state = State.RUNNING;
+    private volatile String topic;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ReplayJob(String id, ReplayRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public ReplayRequest request() {
+        return request;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public void cancel() {
+        if (state == State.RUNNING) {
+            state = State.CANCELLED;
+        }
+    }
+
+    public boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public Status status() {
+        long applied = 0;
+        long failed = 0;
+        long total = 0;
+        for (PartitionProgress partition : partitions) {
+            applied += partition.applied.get();
+            failed += partition.failed.get();
+            total += partition.to - partition.from;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+        return new Status(id, state, request.topics(), topic, startedAt, finishedAt, total, applied + failed,
+                applied, failed, Math.round((applied + failed) / seconds), error,
+                partitions.stream().map(PartitionProgress::status).toList());
+    }
+
+    PartitionProgress partition(String topic, int partition, long from, long to) {
+        PartitionProgress progress = new PartitionProgress(topic, partition, from, to);
+        partitions.add(progress);
+        return progress;
+    }
+
+    void topic(String topic) {
+        this.topic = topic;
+    }
+
+    void finished(String error) {
+        this.error = error;
+        if (error != null) {
+            state = State.FAILED;
+        } else if (state == State.RUNNING) {
+            state = State.COMPLETED;
+        }
+        topic = null;
+        finishedAt = Instant.now();
+    }
+
+    static class PartitionProgress {
+
+        final String topic;
+        final int partition;
+        final long from;
+        final long to;
+        final AtomicLong applied = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        volatile long position;
+
+        PartitionProgress(String topic, int partition, long from, long to) {
+            this.topic = topic;
+            this.partition = partition;
+            this.from = from;
+            this.to = to;
+            this.position = from;
+        }
+
+        PartitionStatus status() {
+            return new PartitionStatus(topic, partition, from, to, position, applied.get(), failed.get());
+        }
+    }
+
+    public record Status(String id,
+                         State state,
+                         List<String> topics,
+                         String currentTopic,
+                         Instant startedAt,
+                         Instant finishedAt,
+                         long total,
+                         long processed,
+                         long applied,
+                         long failed,
+                         long recordsPerSecond,
+                         String error,
+                         List<PartitionStatus> partitions) {
+    }
+
+    public record PartitionStatus(String topic,
+                                  int partition,
+                                  long from,
+                                  long to,
+                                  long position,
+                                  long applied,
+                                  long failed) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.eventdriven.kafka.replay;
+
+/**
+ * Whether the current thread is replaying history. Handlers run unchanged during a replay; the few
+ * places with effects outside the service's own database (publishing events, pushing to clients,
+ * evicting caches) check {@link #isActive()} and skip them.
+ */
+public final class ReplayMode {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private ReplayMode() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    static void enter() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    static void exit() {
+        ACTIVE.remove();
+    }
+}
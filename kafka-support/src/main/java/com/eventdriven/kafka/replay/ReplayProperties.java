@@ -0,0 +1,23 @@
+package com.eventdriven.kafka.replay;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eventdriven.kafka.replay")
+public class ReplayProperties {
+
+    private boolean enabled = true;
+
+    // Records applied per database transaction
+    private int batchSize = 500;
+
+    private int maxPollRecords = 2000;
+
+    // Partitions of a topic replayed at the same time, one worker each
+    private int maxWorkers = 16;
+
+    private Duration pollTimeout = Duration.ofSeconds(1);
+}
@@ -0,0 +1,19 @@
+package com.eventdriven.kafka.replay;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What to replay. Topics are replayed one after the other in the given order, so the events of a saga
+ * are applied in the order they happened; within a topic every partition has its own worker.
+ * <p>
+ * The range applies to every partition: from {@code fromTime} or {@code fromOffset} (the start of the
+ * partition if neither is set) up to, not including, {@code toTime} or {@code toOffset} (the end of
+ * the partition when the replay starts if neither is set).
+ */
+public record ReplayRequest(List<String> topics,
+                            Long fromOffset,
+                            Long toOffset,
+                            Instant fromTime,
+                            Instant toTime) {
+}
@@ -0,0 +1,234 @@
+package com.eventdriven.kafka.retry;
+
+import com.eventdriven.events.EventContracts;
+import com.eventdriven.events.codec.EventCodec;
+import com.eventdriven.events.codec.EventCodecException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Reads and redrives the service's dead-letter topics. Records are never removed from a dead-letter
+ * topic; instead a consumer group of its own remembers how far they have been redriven, so inspection
+ * shows what is still pending and a second redrive does not send anything twice.
+ * <p>
+ * Redriven records go to the first retry topic rather than the main one: retry topics belong to this
+ * service alone, while the main topic would hand the record to every other consumer group again. The
+ * record's failure and retry headers are dropped, so it passes through every retry topic again: that is
+ * {@code attempts - 1} tries, one fewer than a new record, because the main-topic attempt is skipped.
+ */
+@Slf4j
+public class DeadLetterAdmin {
+
+    static final String REDRIVEN_FROM_HEADER = "dlt-redriven-from";
+
+    // Failure and retry bookkeeping the retry topics attach on the way to the DLT
+    private static final List<String> FAILURE_HEADER_PREFIXES =
+            List.of("kafka_original-", "kafka_exception-", "kafka_dlt-", "retry_topic-");
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final ProducerFactory<?, ?> producerFactory;
+    private final RetryTopicNaming naming;
+    private final RetryTopicsProperties properties;
+    private final String groupId;
+    private final EventCodec codec = EventContracts.codec();
+
+    public DeadLetterAdmin(ConsumerFactory<?, ?> consumerFactory,
+                           ProducerFactory<?, ?> producerFactory,
+                           RetryTopicNaming naming,
+                           RetryTopicsProperties properties,
+                           String groupId) {
+        this.consumerFactory = consumerFactory;
+        this.producerFactory = producerFactory;
+        this.naming = naming;
+        this.properties = properties;
+        this.groupId = groupId;
+    }
+
+    public List<DeadLetterTopic> topics() {
+        try (Consumer<byte[], byte[]> consumer = consumer()) {
+            List<DeadLetterTopic> topics = new ArrayList<>();
+            consumer.listTopics(pollTimeout()).keySet().stream()
+                    .filter(naming::isDeadLetterTopic)
+                    .sorted()
+                    .forEach(topic -> {
+                        List<TopicPartition> partitions = partitions(consumer, topic);
+                        Map<TopicPartition, Long> start = redrivePositions(consumer, partitions);
+                        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+                        long pending = partitions.stream().mapToLong(p -> end.get(p) - start.get(p)).sum();
+                        topics.add(new DeadLetterTopic(topic, naming.mainTopic(topic), pending));
+                    });
+            return topics;
+        }
+    }
+
+    public List<DeadLetterEntry> inspect(String topic, int limit) {
+        naming.mainTopic(topic);
+        try (Consumer<byte[], byte[]> consumer = consumer()) {
+            return readPending(consumer, topic, limit).stream()
+                    .map(record -> DeadLetterEntry.of(record, render(record.value())))
+                    .toList();
+        }
+    }
+
+    public RedriveResult redrive(String topic, int limit) {
+        if (properties.getAttempts() < 2) {
+            throw new IllegalStateException("No retry topics are configured to redrive into");
+        }
+        String target = naming.firstRetryTopic(naming.mainTopic(topic));
+        try (Consumer<byte[], byte[]> consumer = consumer();
+             Producer<byte[], byte[]> producer = producer()) {
+            List<ConsumerRecord<byte[], byte[]>> records = readPending(consumer, topic, limit);
+            List<Future<RecordMetadata>> sends = new ArrayList<>(records.size());
+            Map<TopicPartition, OffsetAndMetadata> redriven = new HashMap<>();
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                sends.add(producer.send(new ProducerRecord<>(target, null, record.key(), record.value(),
+                        redriveHeaders(record))));
+                redriven.merge(new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1),
+                        (a, b) -> a.offset() >= b.offset() ? a : b);
+            }
+            producer.flush();
+            for (Future<RecordMetadata> send : sends) {
+                await(send);
+            }
+            // Only once everything has been written, so a failed redrive can simply be repeated
+            if (!redriven.isEmpty()) {
+                consumer.commitSync(redriven);
+            }
+            log.info("Redrove {} records from {} to {}", records.size(), topic, target);
+            return new RedriveResult(topic, target, records.size());
+        }
+    }
+
+    private List<ConsumerRecord<byte[], byte[]>> readPending(Consumer<byte[], byte[]> consumer, String topic, int limit) {
+        int max = Math.max(0, Math.min(limit, properties.getAdmin().getMaxRecords()));
+        List<TopicPartition> partitions = partitions(consumer, topic);
+        consumer.assign(partitions);
+        redrivePositions(consumer, partitions).forEach(consumer::seek);
+        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+
+        List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+        while (records.size() < max && !caughtUp(consumer, end)) {
+            for (ConsumerRecord<byte[], byte[]> record : consumer.poll(pollTimeout())) {
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                if (records.size() < max && record.offset() < end.get(partition)) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    // Where redriving would continue: after the last redriven record, or at the start of the topic
+    private Map<TopicPartition, Long> redrivePositions(Consumer<byte[], byte[]> consumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> positions = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            long start = beginning.get(partition);
+            positions.put(partition, offset == null ? start : Math.max(offset.offset(), start));
+        }
+        return positions;
+    }
+
+    private static List<TopicPartition> partitions(Consumer<?, ?> consumer, String topic) {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalArgumentException("Unknown topic: " + topic);
+        }
+        return infos.stream().map(info -> new TopicPartition(topic, info.partition())).toList();
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private static RecordHeaders redriveHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (FAILURE_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                headers.add(header);
+            }
+        }
+        String source = record.topic() + "-" + record.partition() + "@" + record.offset();
+        headers.add(REDRIVEN_FROM_HEADER, source.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    private String render(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (!EventCodec.isEncoded(value)) {
+            // JSON written before the binary codec
+            return new String(value, StandardCharsets.UTF_8);
+        }
+        try {
+            return String.valueOf(codec.decode(value));
+        } catch (EventCodecException e) {
+            return "undecodable (" + value.length + " bytes): " + e.getMessage();
+        }
+    }
+
+    private Consumer<byte[], byte[]> consumer() {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.CLIENT_ID_CONFIG, groupId + "-" + System.nanoTime());
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private Producer<byte[], byte[]> producer() {
+        return new KafkaProducer<>(new HashMap<>(producerFactory.getConfigurationProperties()),
+                new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    private Duration pollTimeout() {
+        return properties.getAdmin().getPollTimeout();
+    }
+
+    private static void await(Future<RecordMetadata> send) {
+        try {
+            send.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while redriving", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Redrive failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public record DeadLetterTopic(String topic, String mainTopic, long pending) {
+    }
+
+    public record RedriveResult(String topic, String target, int redriven) {
+    }
+}
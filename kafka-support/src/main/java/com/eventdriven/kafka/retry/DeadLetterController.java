@@ -0,0 +1,45 @@
+package com.eventdriven.kafka.retry;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/dlt")
+public class DeadLetterController {
+
+    private final DeadLetterAdmin deadLetterAdmin;
+
+    public DeadLetterController(DeadLetterAdmin deadLetterAdmin) {
+        this.deadLetterAdmin = deadLetterAdmin;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetterAdmin.DeadLetterTopic>> getTopics() {
+        return ResponseEntity.ok(deadLetterAdmin.topics());
+    }
+
+    @GetMapping("/{topic}")
+    public ResponseEntity<List<DeadLetterEntry>> inspect(@PathVariable String topic,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(deadLetterAdmin.inspect(topic, limit));
+    }
+
+    @PostMapping("/{topic}/redrive")
+    public ResponseEntity<DeadLetterAdmin.RedriveResult> redrive(@PathVariable String topic,
+                                                                 @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(deadLetterAdmin.redrive(topic, limit));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,60 @@
+package com.eventdriven.kafka.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+
+/**
+ * A dead-lettered record with the failure metadata the dead-letter publisher attached to it.
+ */
+public record DeadLetterEntry(int partition,
+                              long offset,
+                              Instant timestamp,
+                              String key,
+                              String originalTopic,
+                              Integer originalPartition,
+                              Long originalOffset,
+                              String exception,
+                              String message,
+                              String value) {
+
+    static DeadLetterEntry of(ConsumerRecord<?, ?> record, String value) {
+        Headers headers = record.headers();
+        Object key = record.key();
+        return new DeadLetterEntry(
+                record.partition(),
+                record.offset(),
+                Instant.ofEpochMilli(record.timestamp()),
+                key instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : key == null ? null : key.toString(),
+                string(first(headers, KafkaHeaders.ORIGINAL_TOPIC)),
+                intValue(first(headers, KafkaHeaders.ORIGINAL_PARTITION)),
+                longValue(first(headers, KafkaHeaders.ORIGINAL_OFFSET)),
+                string(headers.lastHeader(KafkaHeaders.EXCEPTION_FQCN)),
+                string(headers.lastHeader(KafkaHeaders.EXCEPTION_MESSAGE)),
+                value);
+    }
+
+    // Each hop through a retry topic appends its own copy; the first one names the main topic
+    private static Header first(Headers headers, String name) {
+        Iterator<Header> all = headers.headers(name).iterator();
+        return all.hasNext() ? all.next() : null;
+    }
+
+    private static String string(Header header) {
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Integer intValue(Header header) {
+        return header == null || header.value() == null ? null : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    private static Long longValue(Header header) {
+        return header == null || header.value() == null ? null : ByteBuffer.wrap(header.value()).getLong();
+    }
+}
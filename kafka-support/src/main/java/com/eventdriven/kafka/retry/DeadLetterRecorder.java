@@ -0,0 +1,37 @@
+package com.eventdriven.kafka.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+
+/**
+ * Listens on every dead-letter topic of the service. Records stay on the topic for
+ * {@link DeadLetterAdmin} to inspect and redrive; this only reports their arrival.
+ */
+@Slf4j
+public class DeadLetterRecorder {
+
+    static final String BEAN_NAME = "deadLetterRecorder";
+    static final String METHOD_NAME = "record";
+
+    private final MeterRegistry meterRegistry;
+
+    public DeadLetterRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(ConsumerRecord<?, ?> record,
+                       @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment ack) {
+        DeadLetterEntry entry = DeadLetterEntry.of(record, null);
+        log.error("Dead-lettered {} record {}@{} (key {}) after {}: {}", entry.originalTopic(),
+                entry.originalPartition(), entry.originalOffset(), record.key(), entry.exception(), entry.message());
+        meterRegistry.counter("kafka.dlt.records", "topic", record.topic()).increment();
+        // Containers with manual acks hand one in; the others commit by themselves
+        if (ack != null) {
+            ack.acknowledge();
+        }
+    }
+}
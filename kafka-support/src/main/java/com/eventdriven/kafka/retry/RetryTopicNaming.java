@@ -0,0 +1,45 @@
+package com.eventdriven.kafka.retry;
+
+/**
+ * Names of a service's retry and dead-letter topics. Several services consume the same topics, so the
+ * names carry the service's qualifier: otherwise each group would also consume the others' retries.
+ */
+public final class RetryTopicNaming {
+
+    private final String retrySuffix;
+    private final String dltSuffix;
+
+    public RetryTopicNaming(String qualifier) {
+        String prefix = qualifier == null || qualifier.isBlank() ? "" : "-" + qualifier;
+        this.retrySuffix = prefix + "-retry";
+        this.dltSuffix = prefix + "-dlt";
+    }
+
+    public String retrySuffix() {
+        return retrySuffix;
+    }
+
+    public String dltSuffix() {
+        return dltSuffix;
+    }
+
+    // Retry topics are suffixed with their index, starting at 0
+    public String firstRetryTopic(String mainTopic) {
+        return mainTopic + retrySuffix + "-0";
+    }
+
+    public String deadLetterTopic(String mainTopic) {
+        return mainTopic + dltSuffix;
+    }
+
+    public boolean isDeadLetterTopic(String topic) {
+        return topic != null && topic.endsWith(dltSuffix) && topic.length() > dltSuffix.length();
+    }
+
+    public String mainTopic(String deadLetterTopic) {
+        if (!isDeadLetterTopic(deadLetterTopic)) {
+            throw new IllegalArgumentException("Not a dead-letter topic of this service: " + deadLetterTopic);
+        }
+        return deadLetterTopic.substring(0, deadLetterTopic.length() - dltSuffix.length());
+    }
+}
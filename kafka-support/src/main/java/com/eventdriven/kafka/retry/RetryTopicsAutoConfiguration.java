@@ -0,0 +1,91 @@
+package com.eventdriven.kafka.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Gives every {@code @KafkaListener} of a service non-blocking retries: a failed record moves to the
+ * next retry topic with an exponentially growing delay, and after the last attempt to the service's
+ * dead-letter topic, while the main partition carries on with the records behind it.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@ConditionalOnClass(RetryTopicConfiguration.class)
+@ConditionalOnProperty(prefix = "eventdriven.kafka.retry", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(RetryTopicsProperties.class)
+public class RetryTopicsAutoConfiguration {
+
+    @Bean
+    public RetryTopicNaming retryTopicNaming(RetryTopicsProperties properties, Environment environment) {
+        String qualifier = properties.getQualifier();
+        return new RetryTopicNaming(qualifier != null ? qualifier : environment.getProperty("spring.application.name"));
+    }
+
+    @Bean(DeadLetterRecorder.BEAN_NAME)
+    public DeadLetterRecorder deadLetterRecorder(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DeadLetterRecorder(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnSingleCandidate(KafkaTemplate.class)
+    public RetryTopicConfiguration retryTopicConfiguration(KafkaTemplate<?, ?> kafkaTemplate,
+                                                           RetryTopicsProperties properties,
+                                                           RetryTopicNaming naming) {
+        RetryTopicConfigurationBuilder builder = RetryTopicConfigurationBuilder.newInstance()
+                .maxAttempts(properties.getAttempts())
+                .exponentialBackoff(properties.getInitialDelay().toMillis(), properties.getMultiplier(),
+                        properties.getMaxDelay().toMillis())
+                .retryTopicSuffix(naming.retrySuffix())
+                .dltSuffix(naming.dltSuffix())
+                .suffixTopicsWithIndexValues()
+                .autoCreateTopicsWith(properties.getPartitions(), properties.getReplicationFactor())
+                .dltHandlerMethod(DeadLetterRecorder.BEAN_NAME, DeadLetterRecorder.METHOD_NAME)
+                // The recorder only reports; a record it cannot handle must not circle back into the DLT
+                .dltProcessingFailureStrategy(DltStrategy.FAIL_ON_ERROR);
+        if (!properties.getNotRetryOn().isEmpty()) {
+            builder.notRetryOn(properties.getNotRetryOn());
+        }
+        return builder.create(kafkaTemplate);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(DispatcherServlet.class)
+    @ConditionalOnBean({ConsumerFactory.class, ProducerFactory.class})
+    @ConditionalOnProperty(prefix = "eventdriven.kafka.retry.admin", name = "enabled", matchIfMissing = true)
+    static class DeadLetterAdminConfiguration {
+
+        @Bean
+        public DeadLetterAdmin deadLetterAdmin(ConsumerFactory<?, ?> consumerFactory,
+                                               ProducerFactory<?, ?> producerFactory,
+                                               RetryTopicNaming naming,
+                                               RetryTopicsProperties properties,
+                                               Environment environment) {
+            String groupId = environment.getProperty("spring.application.name", "service") + "-dlt-redrive";
+            return new DeadLetterAdmin(consumerFactory, producerFactory, naming, properties, groupId);
+        }
+
+        @Bean
+        public DeadLetterController deadLetterController(DeadLetterAdmin deadLetterAdmin) {
+            return new DeadLetterController(deadLetterAdmin);
+        }
+    }
+}
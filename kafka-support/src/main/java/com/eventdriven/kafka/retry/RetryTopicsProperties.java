@@ -0,0 +1,46 @@
+package com.eventdriven.kafka.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "eventdriven.kafka.retry")
+public class RetryTopicsProperties {
+
+    private boolean enabled = true;
+
+    // Part of every retry and dead-letter topic name; defaults to spring.application.name
+    private String qualifier;
+
+    // Deliveries in total, the first one on the main topic included
+    private int attempts = 4;
+
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    private double multiplier = 5;
+
+    private Duration maxDelay = Duration.ofMinutes(1);
+
+    private int partitions = 3;
+
+    private short replicationFactor = -1;
+
+    // Sent straight to the dead-letter topic, in addition to the framework's conversion errors
+    private List<Class<? extends Throwable>> notRetryOn = new ArrayList<>();
+
+    private Admin admin = new Admin();
+
+    @Data
+    public static class Admin {
+
+        private boolean enabled = true;
+
+        private int maxRecords = 500;
+
+        private Duration pollTimeout = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventdriven.kafka.saga;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timing carried by a saga's events: when the order was placed, and when each service along the way
+ * published its event. Travels as Kafka headers, {@value #ORIGIN_HEADER} once and
+ * {@value #HOP_HEADER} once per hop, as readable text such as {@code payment-service@1718000000123}.
+ */
+public record SagaContext(long origin, List<Hop> hops) {
+
+    public static final String ORIGIN_HEADER = "saga-origin";
+    public static final String HOP_HEADER = "saga-hop";
+
+    public static SagaContext start(long origin) {
+        return new SagaContext(origin, List.of());
+    }
+
+    /**
+     * The context of a consumed record, or null if it was not published as part of a saga.
+     */
+    public static SagaContext from(Headers headers) {
+        Header origin = headers.lastHeader(ORIGIN_HEADER);
+        Long originMillis = origin == null ? null : parseLong(text(origin));
+        if (originMillis == null) {
+            return null;
+        }
+        List<Hop> hops = new ArrayList<>();
+        for (Header header : headers.headers(HOP_HEADER)) {
+            Hop hop = Hop.parse(text(header));
+            if (hop != null) {
+                hops.add(hop);
+            }
+        }
+        return new SagaContext(originMillis, List.copyOf(hops));
+    }
+
+    public SagaContext then(String service, long sentAt) {
+        List<Hop> next = new ArrayList<>(hops);
+        next.add(new Hop(service, sentAt));
+        return new SagaContext(origin, List.copyOf(next));
+    }
+
+    public Hop lastHop() {
+        return hops.isEmpty() ? null : hops.get(hops.size() - 1);
+    }
+
+    public void writeTo(Headers headers) {
+        headers.remove(ORIGIN_HEADER);
+        headers.remove(HOP_HEADER);
+        headers.add(ORIGIN_HEADER, Long.toString(origin).getBytes(StandardCharsets.UTF_8));
+        for (Hop hop : hops) {
+            headers.add(HOP_HEADER, hop.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public record Hop(String service, long sentAt) {
+
+        static Hop parse(String value) {
+            int at = value == null ? -1 : value.lastIndexOf('@');
+            Long sentAt = at < 0 ? null : parseLong(value.substring(at + 1));
+            return sentAt == null ? null : new Hop(value.substring(0, at), sentAt);
+        }
+
+        @Override
+        public String toString() {
+            return service + "@" + sentAt;
+        }
+    }
+
+    private static String text(Header header) {
+        return header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value == null ? null : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
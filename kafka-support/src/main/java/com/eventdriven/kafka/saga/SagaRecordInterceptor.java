@@ -0,0 +1,114 @@
+package com.eventdriven.kafka.saga;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every record the service's listeners consume: how long it waited between being published
+ * and being picked up, and how long the listener took. Retry and dead-letter deliveries are left out
+ * of both, since their wait is the backoff. Also keeps a per-topic consumer lag gauge from the lag
+ * the consumer already knows locally.
+ */
+public class SagaRecordInterceptor implements RecordInterceptor<Object, Object> {
+
+    private static final String RETRY_ATTEMPTS_HEADER = "retry_topic-attempts";
+    // Partitions this instance stopped reading stop counting once their last reading is this old
+    private static final long LAG_STALE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final SagaTracing tracing;
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+    private final Map<TopicPartition, Lag> lags = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> lagGauges = new ConcurrentHashMap<>();
+
+    public SagaRecordInterceptor(SagaTracing tracing, MeterRegistry meterRegistry) {
+        this.tracing = tracing;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+                                                    Consumer<Object, Object> consumer) {
+        long now = System.currentTimeMillis();
+        SagaContext context = SagaContext.from(record.headers());
+        tracing.enter(context);
+        startedAt.set(System.nanoTime());
+        if (isFirstDelivery(record)) {
+            SagaContext.Hop last = context == null ? null : context.lastHop();
+            long sentAt = last != null ? last.sentAt() : record.timestamp();
+            tracing.histogram("saga.hop.queue", "topic", record.topic())
+                    .record(Math.max(0, now - sentAt), TimeUnit.MILLISECONDS);
+        }
+        recordLag(record, consumer, now);
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        recordProcessing(record, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception, Consumer<Object, Object> consumer) {
+        recordProcessing(record, "failure");
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        tracing.exit();
+        startedAt.remove();
+    }
+
+    long lag(String groupId, String topic) {
+        long staleBefore = System.currentTimeMillis() - LAG_STALE_MILLIS;
+        return lags.entrySet().stream()
+                .filter(e -> e.getKey().topic().equals(topic) && e.getValue().groupId.equals(groupId))
+                .filter(e -> e.getValue().readAt >= staleBefore)
+                .mapToLong(e -> e.getValue().records)
+                .sum();
+    }
+
+    private void recordProcessing(ConsumerRecord<Object, Object> record, String outcome) {
+        Long started = startedAt.get();
+        if (started != null && isFirstDelivery(record)) {
+            tracing.histogram("saga.hop.processing", "topic", record.topic(), "outcome", outcome)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordLag(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer, long now) {
+        if (consumer == null) {
+            return;
+        }
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        OptionalLong lag = consumer.currentLag(partition);
+        if (lag.isEmpty()) {
+            return;
+        }
+        String groupId = consumer.groupMetadata().groupId();
+        lags.put(partition, new Lag(groupId, lag.getAsLong(), now));
+        lagGauges.computeIfAbsent(groupId + "/" + record.topic(), key -> {
+            Gauge.builder("saga.consumer.lag", () -> lag(groupId, record.topic()))
+                    .tag("group", groupId)
+                    .tag("topic", record.topic())
+                    .register(meterRegistry);
+            return Boolean.TRUE;
+        });
+    }
+
+    private static boolean isFirstDelivery(ConsumerRecord<?, ?> record) {
+        return record.headers().lastHeader(RETRY_ATTEMPTS_HEADER) == null;
+    }
+
+    private record Lag(String groupId, long records, long readAt) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.eventdriven.kafka.saga;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stamps saga timing onto outgoing events and records how long sagas take. Services build the records
+ * they publish here: {@link #start} when a saga begins, {@link #next} while handling one of its events,
+ * which {@link SagaRecordInterceptor} makes the current saga of the listener thread. Records are keyed by
+ * the saga's order id, so every event and command of one saga lands on the same partition of its topic.
+ */
+public class SagaTracing {
+
+    private static final ThreadLocal<SagaContext> CURRENT = new ThreadLocal<>();
+
+    private final String service;
+    private final MeterRegistry meterRegistry;
+
+    public SagaTracing(String service, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ProducerRecord<String, Object> start(String topic, String key, Object event, long originMillis) {
+        return record(topic, key, event, SagaContext.start(originMillis));
+    }
+
+    /**
+     * A record that continues the saga being handled on this thread, or starts one if there is none.
+     */
+    public ProducerRecord<String, Object> next(String topic, String key, Object event) {
+        return next(topic, key, event, CURRENT.get());
+    }
+
+    /**
+     * A record that continues the given saga, for work finished off the thread that handled its event.
+     */
+    public ProducerRecord<String, Object> next(String topic, String key, Object event, SagaContext context) {
+        return record(topic, key, event, context != null ? context : SagaContext.start(System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the time from the order being placed to now, for the saga being handled on this thread.
+     */
+    public void completed(String outcome) {
+        completed(outcome, CURRENT.get());
+    }
+
+    public void completed(String outcome, SagaContext context) {
+        if (context != null) {
+            histogram("saga.latency", "outcome", outcome)
+                    .record(Math.max(0, System.currentTimeMillis() - context.origin()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public SagaContext current() {
+        return CURRENT.get();
+    }
+
+    void enter(SagaContext context) {
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    void exit() {
+        CURRENT.remove();
+    }
+
+    Timer histogram(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private ProducerRecord<String, Object> record(String topic, String key, Object event, SagaContext context) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, event);
+        context.then(service, System.currentTimeMillis()).writeTo(record.headers());
+        return record;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eventdriven.kafka.saga;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Saga timing for the service: {@link SagaTracing} to stamp published events, and a record
+ * interceptor that Spring Boot installs on the listener container factory.
+ */
+@AutoConfiguration
+@ConditionalOnClass(RecordInterceptor.class)
+public class SagaTracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SagaTracing sagaTracing(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SagaTracing(environment.getProperty("spring.application.name", "service"),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RecordInterceptor.class)
+    public RecordInterceptor<Object, Object> sagaRecordInterceptor(SagaTracing sagaTracing,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SagaRecordInterceptor(sagaTracing, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,154 @@
+package com.eventdriven.kafka.replay;
+
+import com.eventdriven.events.InventoryReservedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.application.name=test-service",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.consumer.value-deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.kafka.consumer.properties.spring.deserializer.value.delegate.class=com.eventdriven.events.kafka.EventDeserializer",
+        "spring.kafka.producer.value-serializer=com.eventdriven.events.kafka.EventSerializer",
+        "eventdriven.kafka.retry.enabled=false",
+        "eventdriven.kafka.replay.batch-size=10"
+})
+@EmbeddedKafka(partitions = 3, topics = EventReplayerIntegrationTest.TOPIC)
+class EventReplayerIntegrationTest {
+
+    static final String TOPIC = "inventory-reserved-topic";
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private CountingTransactionManager transactionManager;
+
+    @Autowired
+    private EventReplayer replayer;
+
+    @Test
+    void replay_OfWholeTopic_ShouldApplyEveryPartitionInBatchesAndSkipOnlyFailingRecords() throws Exception {
+        for (long id = 1; id <= 60; id++) {
+            kafkaTemplate.send(TOPIC, String.valueOf(id), new InventoryReservedEvent(id)).get();
+        }
+        kafkaTemplate.send(TOPIC, "61", "not an event".getBytes()).get();
+        await().atMost(Duration.ofSeconds(30)).until(() -> listener.live.size() == 60);
+        Instant afterTraffic = Instant.now().plusSeconds(1);
+        listener.failing.add(7L);
+
+        ReplayJob job = replayer.start(new ReplayRequest(List.of(TOPIC), null, null, null, null));
+        await().atMost(Duration.ofSeconds(30)).until(() -> job.state() != ReplayJob.State.RUNNING);
+
+        ReplayJob.Status status = job.status();
+        assertThat(status.state()).isEqualTo(ReplayJob.State.COMPLETED);
+        assertThat(status.total()).isEqualTo(61);
+        assertThat(status.applied()).isEqualTo(59);
+        // The failing event and the unreadable record
+        assertThat(status.failed()).isEqualTo(2);
+        assertThat(status.partitions()).hasSize(3)
+                .allSatisfy(partition -> assertThat(partition.position()).isEqualTo(partition.to()));
+        assertThat(listener.replayed).containsExactlyInAnyOrderElementsOf(
+                LongStream.rangeClosed(1, 60).filter(id -> id != 7).boxed().toList());
+        // The failing event's batch and its own retry were rolled back, every other batch committed once
+        assertThat(transactionManager.rollbacks).hasValue(2);
+        assertThat(transactionManager.commits.get()).isLessThan(20);
+        // Nothing replayed reached the live side, and the live consumer saw no second delivery
+        assertThat(listener.live).hasSize(60);
+
+        ReplayJob later = replayer.start(new ReplayRequest(List.of(TOPIC), null, null, afterTraffic, null));
+        await().atMost(Duration.ofSeconds(30)).until(() -> later.state() != ReplayJob.State.RUNNING);
+        assertThat(later.status().total()).isZero();
+        assertThat(replayer.jobs()).extracting(ReplayJob::id).containsExactly(later.id(), job.id());
+    }
+
+    @Test
+    void start_ForTopicWithoutListener_ShouldBeRejected() {
+        assertThatThrownBy(() -> replayer.start(new ReplayRequest(List.of("payment-failed-topic"), null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No listener");
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    static class TestApplication {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+
+        @Bean
+        CountingTransactionManager transactionManager() {
+            return new CountingTransactionManager();
+        }
+    }
+
+    static class RecordingListener {
+
+        final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        final List<Long> live = new CopyOnWriteArrayList<>();
+        // A set: records of a rolled-back batch are handled again, one transaction each
+        final Set<Long> replayed = ConcurrentHashMap.newKeySet();
+
+        @KafkaListener(topics = TOPIC, groupId = "test-service-group")
+        public void handle(InventoryReservedEvent event) {
+            if (failing.contains(event.getOrderId())) {
+                throw new IllegalStateException("order " + event.getOrderId() + " not found");
+            }
+            (ReplayMode.isActive() ? replayed : live).add(event.getOrderId());
+        }
+    }
+
+    static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
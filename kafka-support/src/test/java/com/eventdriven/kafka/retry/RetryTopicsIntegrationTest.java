@@ -0,0 +1,124 @@
+package com.eventdriven.kafka.retry;
+
+import com.eventdriven.events.PaymentFailedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.application.name=test-service",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.consumer.value-deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.kafka.consumer.properties.spring.deserializer.value.delegate.class=com.eventdriven.events.kafka.EventDeserializer",
+        "spring.kafka.producer.value-serializer=com.eventdriven.events.kafka.EventSerializer",
+        "eventdriven.kafka.retry.attempts=3",
+        "eventdriven.kafka.retry.initial-delay=100ms",
+        "eventdriven.kafka.retry.multiplier=2",
+        "eventdriven.kafka.retry.partitions=1"
+})
+@EmbeddedKafka(partitions = 1, topics = RetryTopicsIntegrationTest.TOPIC)
+class RetryTopicsIntegrationTest {
+
+    static final String TOPIC = "payment-failed-topic";
+    static final String DLT = "payment-failed-topic-test-service-dlt";
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private FailingListener listener;
+
+    @Autowired
+    private ConsumerFactory<?, ?> consumerFactory;
+
+    @Autowired
+    private ProducerFactory<?, ?> producerFactory;
+
+    @Autowired
+    private RetryTopicNaming naming;
+
+    @Autowired
+    private RetryTopicsProperties properties;
+
+    @Test
+    void failingRecord_ShouldNotHoldUpPartitionAndEndInDeadLetterTopicThenRedrive() throws Exception {
+        listener.failing.add(1L);
+
+        kafkaTemplate.send(TOPIC, "1", new PaymentFailedEvent(1L, "declined", false)).get();
+        kafkaTemplate.send(TOPIC, "2", new PaymentFailedEvent(2L, "declined", false)).get();
+        kafkaTemplate.send(TOPIC, "3", "not an event".getBytes()).get();
+
+        // The record behind the failing one is handled without waiting for its retries
+        await().atMost(Duration.ofSeconds(30)).until(() -> listener.handled.contains(2L));
+
+        DeadLetterAdmin admin = new DeadLetterAdmin(consumerFactory, producerFactory, naming, properties, "test-redrive");
+        await().atMost(Duration.ofSeconds(30)).until(() -> admin.inspect(DLT, 10).size() == 2);
+
+        List<DeadLetterEntry> entries = admin.inspect(DLT, 10);
+        DeadLetterEntry failed = entries.stream().filter(e -> "1".equals(e.key())).findFirst().orElseThrow();
+        assertThat(failed.originalTopic()).isEqualTo(TOPIC);
+        assertThat(failed.originalOffset()).isEqualTo(0L);
+        assertThat(failed.message()).contains("order 1 not found");
+        assertThat(failed.value()).contains("orderId=1");
+        // Unreadable records skip the retries and keep their bytes
+        DeadLetterEntry unreadable = entries.stream().filter(e -> "3".equals(e.key())).findFirst().orElseThrow();
+        assertThat(unreadable.exception()).contains("DeserializationException");
+        assertThat(unreadable.value()).isEqualTo("not an event");
+        assertThat(listener.attempts.stream().filter(id -> id == 1L)).hasSize(3);
+        assertThat(admin.topics()).containsExactly(new DeadLetterAdmin.DeadLetterTopic(DLT, TOPIC, 2));
+
+        listener.failing.clear();
+        DeadLetterAdmin.RedriveResult result = admin.redrive(DLT, 10);
+
+        assertThat(result.target()).isEqualTo("payment-failed-topic-test-service-retry-0");
+        assertThat(result.redriven()).isEqualTo(2);
+        await().atMost(Duration.ofSeconds(30)).until(() -> listener.handled.contains(1L));
+        // Still unreadable, so it comes back as the only pending record
+        await().atMost(Duration.ofSeconds(30)).until(() -> admin.inspect(DLT, 10).size() == 1);
+        assertThat(admin.inspect(DLT, 10)).extracting(DeadLetterEntry::key).containsExactly("3");
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    static class TestApplication {
+
+        @Bean
+        FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    static class FailingListener {
+
+        final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        final List<Long> attempts = new CopyOnWriteArrayList<>();
+        final List<Long> handled = new CopyOnWriteArrayList<>();
+
+        @KafkaListener(topics = TOPIC, groupId = "test-service-group")
+        public void handle(PaymentFailedEvent event) {
+            attempts.add(event.getOrderId());
+            if (failing.contains(event.getOrderId())) {
+                throw new IllegalStateException("order " + event.getOrderId() + " not found");
+            }
+            handled.add(event.getOrderId());
+        }
+    }
+}
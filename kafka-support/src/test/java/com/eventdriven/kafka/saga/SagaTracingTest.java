@@ -0,0 +1,88 @@
+package com.eventdriven.kafka.saga;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SagaTracingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SagaTracing orderTracing = new SagaTracing("order-service", meterRegistry);
+    private final SagaTracing paymentTracing = new SagaTracing("payment-service", meterRegistry);
+    private final SagaRecordInterceptor orderInterceptor = new SagaRecordInterceptor(orderTracing, meterRegistry);
+    private final SagaRecordInterceptor paymentInterceptor = new SagaRecordInterceptor(paymentTracing, meterRegistry);
+
+    @Test
+    void next_WhileHandlingSagaEvent_ShouldKeepOriginAndAppendHop() {
+        long origin = System.currentTimeMillis() - 500;
+        ProducerRecord<String, Object> created = orderTracing.start("order-created-topic", "42", "created", origin);
+
+        ConsumerRecord<Object, Object> consumed = consumed("order-created-topic", created);
+        paymentInterceptor.intercept(consumed, null);
+        ProducerRecord<String, Object> succeeded = paymentTracing.next("payment-succeeded-topic", "42", "succeeded");
+        paymentInterceptor.success(consumed, null);
+        paymentInterceptor.afterRecord(consumed, null);
+
+        SagaContext context = SagaContext.from(succeeded.headers());
+        assertThat(context.origin()).isEqualTo(origin);
+        assertThat(context.hops()).extracting(SagaContext.Hop::service)
+                .containsExactly("order-service", "payment-service");
+        assertThat(paymentTracing.current()).isNull();
+        assertThat(meterRegistry.get("saga.hop.queue").tag("topic", "order-created-topic").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("saga.hop.processing").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void completed_WhileHandlingSagaEvent_ShouldRecordLatencySinceOrigin() {
+        long origin = System.currentTimeMillis() - 2_000;
+        ConsumerRecord<Object, Object> reserved =
+                consumed("inventory-reserved-topic", orderTracing.start("inventory-reserved-topic", "42", "reserved", origin));
+
+        orderInterceptor.intercept(reserved, null);
+        orderTracing.completed("CONFIRMED");
+        orderInterceptor.afterRecord(reserved, null);
+        orderTracing.completed("CONFIRMED");
+
+        assertThat(meterRegistry.get("saga.latency").tag("outcome", "CONFIRMED").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("saga.latency").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(2_000);
+    }
+
+    @Test
+    void intercept_OfRetryDelivery_ShouldNotRecordQueueTime() {
+        ConsumerRecord<Object, Object> retried =
+                consumed("order-created-topic-payment-service-retry-0", orderTracing.next("x", "42", "created"));
+        retried.headers().add("retry_topic-attempts", new byte[]{0, 0, 0, 2});
+
+        paymentInterceptor.intercept(retried, null);
+        paymentInterceptor.failure(retried, new IllegalStateException(), null);
+        paymentInterceptor.afterRecord(retried, null);
+
+        assertThat(meterRegistry.find("saga.hop.queue").timer()).isNull();
+        assertThat(meterRegistry.find("saga.hop.processing").timer()).isNull();
+    }
+
+    @Test
+    void from_WithoutOrigin_ShouldBeNull() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(SagaContext.HOP_HEADER, "order-service@1".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(SagaContext.from(headers)).isNull();
+    }
+
+    private static ConsumerRecord<Object, Object> consumed(String topic, ProducerRecord<String, Object> sent) {
+        return new ConsumerRecord<>(topic, 0, 0, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+                -1, -1, sent.key(), sent.value(), new RecordHeaders(sent.headers().toArray()), Optional.empty());
+    }
+}
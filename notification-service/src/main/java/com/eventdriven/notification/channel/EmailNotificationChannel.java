@@ -0,0 +1,52 @@
+package com.eventdriven.notification.channel;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+public class EmailNotificationChannel implements NotificationChannel, AutoCloseable {
+
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpTransportPool transportPool;
+    private final String from;
+
+    public EmailNotificationChannel(JavaMailSenderImpl mailSender, String from, int poolSize) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.transportPool = new SmtpTransportPool(mailSender.getSession(), mailSender.getHost(),
+                mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword(), poolSize);
+    }
+
+    @Override
+    public String getName() {
+        return "email";
+    }
+
+    @Override
+    public void send(Notification notification) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setText(notification.getBody());
+        message.saveChanges();
+
+        Transport transport = transportPool.borrow();
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException | RuntimeException e) {
+            // Connection state is unknown after a failure; never hand it out again
+            transportPool.invalidate(transport);
+            throw e;
+        }
+        transportPool.release(transport);
+    }
+
+    @Override
+    public void close() {
+        transportPool.close();
+    }
+}
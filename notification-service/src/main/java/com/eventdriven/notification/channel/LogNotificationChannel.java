@@ -0,0 +1,23 @@
+package com.eventdriven.notification.channel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class LogNotificationChannel implements NotificationChannel {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void send(Notification notification) {
+        log.info("✉️  Email Sent:");
+        log.info("   To: {}", notification.getRecipient());
+        log.info("   Subject: {}", notification.getSubject());
+        log.info("   Body: {}", notification.getBody());
+        log.info("─────────────────────────────────────────");
+    }
+}
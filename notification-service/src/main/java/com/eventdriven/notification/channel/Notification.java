@@ -1,4 +1,4 @@
-package com.eventdriven.inventory.event;
+package com.eventdriven.notification.channel;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,6 +9,9 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class InventoryReservedEvent {
+public class Notification {
     private Long orderId;
+    private String recipient;
+    private String subject;
+    private String body;
 }
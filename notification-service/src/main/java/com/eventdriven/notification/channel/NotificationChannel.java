@@ -0,0 +1,12 @@
+package com.eventdriven.notification.channel;
+
+/**
+ * Outbound delivery channel. Implementations are called from the channel's own worker pool and may
+ * block; throwing marks the attempt as failed and lets the dispatcher retry.
+ */
+public interface NotificationChannel {
+
+    String getName();
+
+    void send(Notification notification) throws Exception;
+}
@@ -0,0 +1,70 @@
+package com.eventdriven.notification.channel;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps connected SMTP transports between sends so each message skips the TCP/TLS handshake, EHLO and
+ * AUTH round-trips. Transports are created lazily and reconnected if the server dropped them.
+ */
+@Slf4j
+public class SmtpTransportPool implements AutoCloseable {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final BlockingQueue<Transport> idle;
+
+    public SmtpTransportPool(Session session, String host, int port, String username, String password, int maxIdle) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    public Transport borrow() throws MessagingException {
+        Transport transport = idle.poll();
+        if (transport == null) {
+            transport = session.getTransport("smtp");
+        }
+        if (!transport.isConnected()) {
+            transport.connect(host, port, username, password);
+        }
+        return transport;
+    }
+
+    public void release(Transport transport) {
+        if (!idle.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+
+    public void invalidate(Transport transport) {
+        closeQuietly(transport);
+    }
+
+    @Override
+    public void close() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP transport", e);
+        }
+    }
+}
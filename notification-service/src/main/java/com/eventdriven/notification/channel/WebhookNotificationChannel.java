@@ -0,0 +1,52 @@
+package com.eventdriven.notification.channel;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Posts the notification as JSON. The shared {@link HttpClient} keeps connections to the endpoint alive
+ * between sends.
+ */
+public class WebhookNotificationChannel implements NotificationChannel {
+
+    private final String name;
+    private final URI endpoint;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public WebhookNotificationChannel(String name, NotificationProperties.Webhook properties, ObjectMapper objectMapper) {
+        this.name = name;
+        this.endpoint = URI.create(properties.getUrl());
+        this.timeout = properties.getTimeout();
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getTimeout())
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void send(Notification notification) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(notification)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IOException(name + " endpoint returned HTTP " + response.statusCode());
+        }
+    }
+}
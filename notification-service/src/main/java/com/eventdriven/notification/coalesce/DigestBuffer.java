@@ -0,0 +1,95 @@
+package com.eventdriven.notification.coalesce;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import com.eventdriven.notification.service.NotificationService;
+import com.eventdriven.notification.service.OrderUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional per-recipient daily digest of finished orders. Entries live only in memory, so they are
+ * acknowledged as soon as they are buffered; a restart before the digest goes out loses them.
+ */
+@Component
+@Slf4j
+public class DigestBuffer {
+
+    private final NotificationService notificationService;
+    private final boolean enabled;
+    private final int maxRecipients;
+    private final int maxEntriesPerRecipient;
+    private final ConcurrentHashMap<String, List<String>> entries = new ConcurrentHashMap<>();
+
+    private final Counter messagesSaved;
+    private final Counter spilled;
+
+    public DigestBuffer(NotificationService notificationService,
+                        NotificationProperties properties,
+                        MeterRegistry meterRegistry) {
+        NotificationProperties.Digest digest = properties.getDigest();
+        this.notificationService = notificationService;
+        this.enabled = digest.isEnabled();
+        this.maxRecipients = digest.getMaxRecipients();
+        this.maxEntriesPerRecipient = digest.getMaxEntriesPerRecipient();
+
+        this.messagesSaved = Counter.builder("notification.digest.saved").register(meterRegistry);
+        this.spilled = Counter.builder("notification.digest.spilled").register(meterRegistry);
+        Gauge.builder("notification.digest.recipients", entries, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Void> add(String recipient, Long orderId, List<OrderUpdate> updates) {
+        if (entries.size() >= maxRecipients && !entries.containsKey(recipient)) {
+            spilled.increment();
+            return notificationService.sendOrderSummary(orderId, recipient, updates);
+        }
+
+        OrderUpdate latest = updates.stream().max(Comparator.comparing(OrderUpdate::getType)).orElseThrow();
+        String entry = "Order #" + orderId + ": " + notificationService.subject(latest)
+                + (latest.getReason() != null ? " (" + latest.getReason() + ")" : "");
+
+        AtomicReference<List<String>> full = new AtomicReference<>();
+        entries.compute(recipient, (key, list) -> {
+            List<String> target = list != null ? list : new ArrayList<>();
+            target.add(entry);
+            if (target.size() >= maxEntriesPerRecipient) {
+                full.set(target);
+                return null;
+            }
+            return target;
+        });
+        if (full.get() != null) {
+            sendDigest(recipient, full.get());
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Scheduled(cron = "${notification.digest.cron:0 0 8 * * *}")
+    public void sendDigests() {
+        for (String recipient : entries.keySet()) {
+            List<String> pending = entries.remove(recipient);
+            if (pending != null) {
+                sendDigest(recipient, pending);
+            }
+        }
+    }
+
+    private void sendDigest(String recipient, List<String> pending) {
+        messagesSaved.increment(pending.size() - 1);
+        notificationService.sendDigest(recipient, pending);
+    }
+}
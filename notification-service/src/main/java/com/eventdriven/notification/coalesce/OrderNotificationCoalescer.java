@@ -0,0 +1,169 @@
+package com.eventdriven.notification.coalesce;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import com.eventdriven.notification.service.NotificationService;
+import com.eventdriven.notification.service.OrderUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the updates of one order for a short window and sends them as a single message carrying the
+ * order's final state. The future returned for each update completes once the combined message has been
+ * dispatched, and fails if the dispatcher gave up on it.
+ */
+@Component
+@Slf4j
+public class OrderNotificationCoalescer {
+
+    private final NotificationService notificationService;
+    private final DigestBuffer digestBuffer;
+    private final long windowMillis;
+    private final int maxPendingOrders;
+    private final ConcurrentHashMap<Long, PendingOrder> pending = new ConcurrentHashMap<>();
+
+    private final Counter eventsIn;
+    private final Counter messagesOut;
+    private final Counter messagesSaved;
+    private final Counter spilled;
+
+    public OrderNotificationCoalescer(NotificationService notificationService,
+                                      DigestBuffer digestBuffer,
+                                      NotificationProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.digestBuffer = digestBuffer;
+        this.windowMillis = properties.getCoalesce().getWindow().toMillis();
+        this.maxPendingOrders = properties.getCoalesce().getMaxPendingOrders();
+
+        this.eventsIn = Counter.builder("notification.coalesce.events").register(meterRegistry);
+        this.messagesOut = Counter.builder("notification.coalesce.messages").register(meterRegistry);
+        this.messagesSaved = Counter.builder("notification.coalesce.saved").register(meterRegistry);
+        this.spilled = Counter.builder("notification.coalesce.spilled").register(meterRegistry);
+        Gauge.builder("notification.coalesce.pending", pending, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> submit(Long orderId, String userId, OrderUpdate update) {
+        eventsIn.increment();
+        if (windowMillis <= 0 || (pending.size() >= maxPendingOrders && !pending.containsKey(orderId))) {
+            if (windowMillis > 0) {
+                spilled.increment();
+            }
+            messagesOut.increment();
+            String recipient = userId != null ? userId : NotificationService.DEFAULT_RECIPIENT;
+            return notificationService.send(orderId, recipient, update);
+        }
+
+        long now = System.currentTimeMillis();
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        boolean[] complete = new boolean[1];
+        pending.compute(orderId, (id, existing) -> {
+            PendingOrder target = existing != null ? existing : new PendingOrder(now);
+            target.add(userId, update, handled);
+            // Decided under the map's lock; the order can be flushed and its lists read as soon as it returns
+            complete[0] = target.isComplete();
+            return target;
+        });
+        // Everything expected has arrived; no reason to wait out the window
+        if (complete[0]) {
+            flush(orderId, true);
+        }
+        return handled;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.coalesce.flush-interval:200}")
+    public void flushDue() {
+        for (Long orderId : pending.keySet()) {
+            flush(orderId, false);
+        }
+    }
+
+    private void flush(Long orderId, boolean force) {
+        long dueBefore = System.currentTimeMillis() - windowMillis;
+        PendingOrder[] removed = new PendingOrder[1];
+        pending.computeIfPresent(orderId, (id, order) -> {
+            if (!force && order.firstSeen > dueBefore) {
+                return order;
+            }
+            removed[0] = order;
+            return null;
+        });
+        PendingOrder order = removed[0];
+        if (order == null) {
+            return;
+        }
+
+        messagesOut.increment();
+        messagesSaved.increment(order.updates.size() - 1);
+        String recipient = order.userId != null ? order.userId : NotificationService.DEFAULT_RECIPIENT;
+
+        CompletableFuture<Void> handled;
+        if (digestBuffer.isEnabled() && order.isTerminal()) {
+            handled = digestBuffer.add(recipient, orderId, order.updates);
+        } else if (order.updates.size() == 1) {
+            handled = notificationService.send(orderId, recipient, order.updates.get(0));
+        } else {
+            handled = notificationService.sendOrderSummary(orderId, recipient, order.updates);
+        }
+        handled.whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Failed to hand off notification for Order #{}", orderId, error);
+                order.futures.forEach(future -> future.completeExceptionally(error));
+                return;
+            }
+            order.futures.forEach(future -> future.complete(null));
+        });
+    }
+
+    private static class PendingOrder {
+        private final long firstSeen;
+        private final List<OrderUpdate> updates = new ArrayList<>(4);
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>(4);
+        private String userId;
+
+        PendingOrder(long firstSeen) {
+            this.firstSeen = firstSeen;
+        }
+
+        void add(String userId, OrderUpdate update, CompletableFuture<Void> handled) {
+            if (userId != null) {
+                this.userId = userId;
+            }
+            updates.add(update);
+            futures.add(handled);
+        }
+
+        boolean isTerminal() {
+            for (OrderUpdate update : updates) {
+                if (update.getType().isTerminal()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isComplete() {
+            boolean created = has(OrderUpdate.Type.CREATED);
+            boolean paid = has(OrderUpdate.Type.PAYMENT_SUCCEEDED);
+            return created && (has(OrderUpdate.Type.PAYMENT_FAILED)
+                    || (paid && (has(OrderUpdate.Type.INVENTORY_RESERVED) || has(OrderUpdate.Type.INVENTORY_UNAVAILABLE))));
+        }
+
+        private boolean has(OrderUpdate.Type type) {
+            for (OrderUpdate update : updates) {
+                if (update.getType() == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.eventdriven.notification.config;
+
+import com.eventdriven.notification.channel.EmailNotificationChannel;
+import com.eventdriven.notification.channel.WebhookNotificationChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+@Configuration
+public class NotificationChannelConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("'${notification.channels:log}'.contains('email')")
+    public EmailNotificationChannel emailNotificationChannel(JavaMailSenderImpl mailSender,
+                                                             NotificationProperties properties) {
+        return new EmailNotificationChannel(mailSender, properties.getEmail().getFrom(),
+                properties.getDispatcher().poolFor("email").getWorkers());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "notification.webhook", name = "url")
+    public WebhookNotificationChannel webhookNotificationChannel(NotificationProperties properties,
+                                                                 ObjectMapper objectMapper) {
+        return new WebhookNotificationChannel("webhook", properties.getWebhook(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "notification.sms", name = "url")
+    public WebhookNotificationChannel smsNotificationChannel(NotificationProperties properties,
+                                                             ObjectMapper objectMapper) {
+        // SMS providers are driven through their HTTP APIs
+        return new WebhookNotificationChannel("sms", properties.getSms(), objectMapper);
+    }
+}
@@ -0,0 +1,117 @@
+package com.eventdriven.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "notification")
+@Data
+public class NotificationProperties {
+
+    /**
+     * Channels every notification is delivered through, by {@code NotificationChannel#getName()}.
+     */
+    private List<String> channels = new ArrayList<>(List.of("log"));
+
+    private Dispatcher dispatcher = new Dispatcher();
+    private Email email = new Email();
+    private Webhook webhook = new Webhook();
+    private Webhook sms = new Webhook();
+    private Coalesce coalesce = new Coalesce();
+    private Digest digest = new Digest();
+    private Outbox outbox = new Outbox();
+    private Recipients recipients = new Recipients();
+    private Templates templates = new Templates();
+    private Dedupe dedupe = new Dedupe();
+
+    @Data
+    public static class Dispatcher {
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofMillis(500);
+        private Pool defaults = new Pool();
+        /** Per-channel overrides of {@link #defaults}. */
+        private Map<String, Pool> pools = new HashMap<>();
+
+        public Pool poolFor(String channel) {
+            return pools.getOrDefault(channel, defaults);
+        }
+    }
+
+    @Data
+    public static class Pool {
+        private int workers = 2;
+        private int queueCapacity = 1000;
+    }
+
+    @Data
+    public static class Coalesce {
+        /** How long updates for one order are collected before a combined message goes out; 0 disables. */
+        private Duration window = Duration.ofSeconds(3);
+        /** Orders buffered at once; updates for further orders are sent on their own. */
+        private int maxPendingOrders = 10_000;
+    }
+
+    @Data
+    public static class Digest {
+        private boolean enabled = false;
+        private String cron = "0 0 8 * * *";
+        private int maxRecipients = 50_000;
+        /** Entries held per recipient; the digest for that recipient is sent early once reached. */
+        private int maxEntriesPerRecipient = 50;
+    }
+
+    @Data
+    public static class Outbox {
+        private boolean enabled = true;
+        private String directory = "outbox";
+        private int segmentSize = 64 * 1024 * 1024;
+        private long checkpointInterval = 1000;
+        private long parkedRetryInterval = 60_000;
+    }
+
+    @Data
+    public static class Recipients {
+        private String file = "recipients.mv";
+        private int hotSetSize = 100_000;
+        // How long a finished order's recipient is kept for late or redelivered events
+        private Duration completedTtl = Duration.ofHours(24);
+        // Upper bound for orders that never reach a terminal state
+        private Duration maxAge = Duration.ofDays(30);
+        private boolean rebuildOnEmpty = true;
+        private long pruneInterval = 600_000;
+    }
+
+    @Data
+    public static class Templates {
+        // Optional directory whose notifications.properties overrides the bundled templates and is hot-reloaded
+        private String directory;
+        private long reloadInterval = 5000;
+    }
+
+    @Data
+    public static class Dedupe {
+        private boolean enabled = true;
+        // Events are remembered for between one and two windows
+        private Duration window = Duration.ofMinutes(10);
+        private long expectedEventsPerWindow = 1_000_000;
+        private double falsePositiveRate = 0.0001;
+    }
+
+    @Data
+    public static class Email {
+        private String from = "noreply@eventdriven.com";
+    }
+
+    @Data
+    public static class Webhook {
+        private String url;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
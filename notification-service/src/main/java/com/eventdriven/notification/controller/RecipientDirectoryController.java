@@ -0,0 +1,38 @@
+package com.eventdriven.notification.controller;
+
+import com.eventdriven.notification.recipient.RecipientDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Admin only: kept off /api/notifications/**, which the gateway routes for every signed-in user
+@RestController
+@RequestMapping("/admin/recipients")
+@RequiredArgsConstructor
+public class RecipientDirectoryController {
+
+    private final RecipientDirectory recipientDirectory;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(Map.of(
+                "orders", recipientDirectory.size(),
+                "rebuilding", recipientDirectory.isRebuilding()));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        recipientDirectory.startRebuild();
+        return ResponseEntity.accepted().body(Map.of(
+                "orders", recipientDirectory.size(),
+                "rebuilding", true));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,86 @@
+package com.eventdriven.notification.dedupe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe blocked Bloom filter over 64-bit keys: every probe for a key falls in the same
+ * 512-bit block (one cache line), so a lookup costs a single memory miss. Blocking raises the
+ * false-positive rate slightly over a classic filter, which the sizing compensates for with 25% more bits.
+ */
+class BloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * 64;
+
+    private final AtomicLongArray words;
+    private final int blockMask;
+    private final int hashes;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bits = (long) (expectedInsertions * bitsPerKey * 1.25);
+        long blocks = Long.highestOneBit(Math.max(1, bits / BITS_PER_BLOCK - 1)) << 1;
+        if (blocks * WORDS_PER_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedInsertions + " insertions");
+        }
+        this.words = new AtomicLongArray((int) (blocks * WORDS_PER_BLOCK));
+        this.blockMask = (int) blocks - 1;
+        this.hashes = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        int base = ((int) hash & blockMask) * WORDS_PER_BLOCK;
+        long probe = hash | 1;
+        for (int i = 0; i < hashes; i++) {
+            // Successive products by an odd constant give well-spread top bits for each probe
+            probe *= 0x9E3779B97F4A7C15L;
+            int bit = (int) (probe >>> 55);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void put(long key) {
+        long hash = mix(key);
+        int base = ((int) hash & blockMask) * WORDS_PER_BLOCK;
+        long probe = hash | 1;
+        for (int i = 0; i < hashes; i++) {
+            // Successive products by an odd constant give well-spread top bits for each probe
+            probe *= 0x9E3779B97F4A7C15L;
+            int bit = (int) (probe >>> 55);
+            int index = base + (bit >>> 6);
+            long flag = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+            } while ((word & flag) == 0 && !words.compareAndSet(index, word, word | flag));
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    long sizeInBytes() {
+        return words.length() * 8L;
+    }
+
+    int getHashes() {
+        return hashes;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
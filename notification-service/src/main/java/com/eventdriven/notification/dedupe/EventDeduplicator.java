@@ -0,0 +1,90 @@
+package com.eventdriven.notification.dedupe;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which (topic, orderId) events have already been handed off, for between one and two
+ * windows, in two rotating Bloom filters of fixed size. An event is marked only after its hand-off
+ * succeeds, so a redelivery of something that was never handled is not suppressed; a false positive
+ * (bounded by the configured rate) drops a notification the customer would otherwise have received.
+ */
+@Component
+@Slf4j
+public class EventDeduplicator {
+
+    private final boolean enabled;
+    private final long expectedPerWindow;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Counter> suppressed = new ConcurrentHashMap<>();
+    private final AtomicLong insertions = new AtomicLong();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public EventDeduplicator(NotificationProperties properties, MeterRegistry meterRegistry) {
+        NotificationProperties.Dedupe config = properties.getDedupe();
+        this.enabled = config.isEnabled();
+        this.expectedPerWindow = config.getExpectedEventsPerWindow();
+        this.meterRegistry = meterRegistry;
+        this.current = new BloomFilter(expectedPerWindow, config.getFalsePositiveRate());
+        this.previous = new BloomFilter(expectedPerWindow, config.getFalsePositiveRate());
+        log.info("Event dedupe using 2 x {} KB filters with {} hashes",
+                current.sizeInBytes() / 1024, current.getHashes());
+    }
+
+    /**
+     * Returns true, and counts a suppressed duplicate, if this event was already handled recently.
+     */
+    public boolean isDuplicate(String topic, Long orderId) {
+        if (!enabled || orderId == null) {
+            return false;
+        }
+        long key = key(topic, orderId);
+        if (current.mightContain(key) || previous.mightContain(key)) {
+            suppressed.computeIfAbsent(topic, t -> Counter.builder("notification.dedupe.suppressed")
+                    .tag("topic", t)
+                    .register(meterRegistry)).increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void markHandled(String topic, Long orderId) {
+        if (!enabled || orderId == null) {
+            return;
+        }
+        current.put(key(topic, orderId));
+        // Keep the false-positive rate at its configured bound even when traffic exceeds the estimate
+        if (insertions.incrementAndGet() > expectedPerWindow) {
+            rotateIfFull();
+        }
+    }
+
+    private synchronized void rotateIfFull() {
+        // Threads that raced past the limit together find the count already reset by the first one
+        if (insertions.get() > expectedPerWindow) {
+            rotate();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@notificationProperties.dedupe.window.toMillis()}")
+    public synchronized void rotate() {
+        BloomFilter recycled = previous;
+        recycled.clear();
+        previous = current;
+        current = recycled;
+        insertions.set(0);
+    }
+
+    private static long key(String topic, long orderId) {
+        return topic.hashCode() * 0x9E3779B97F4A7C15L ^ orderId;
+    }
+}
@@ -0,0 +1,154 @@
+package com.eventdriven.notification.dispatch;
+
+import com.eventdriven.notification.channel.Notification;
+import com.eventdriven.notification.channel.NotificationChannel;
+import com.eventdriven.notification.config.NotificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands notifications off to a bounded worker pool per channel so a slow provider never blocks the
+ * Kafka listener threads. When a channel's queue is full the caller waits for space instead of dropping
+ * the notification, which pushes back on consumption.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final Map<String, ChannelWorkers> workers = new LinkedHashMap<>();
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    public NotificationDispatcher(List<NotificationChannel> channels,
+                                  NotificationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        Map<String, NotificationChannel> byName = new HashMap<>();
+        for (NotificationChannel channel : channels) {
+            byName.put(channel.getName(), channel);
+        }
+        for (String name : properties.getChannels()) {
+            NotificationChannel channel = byName.get(name);
+            if (channel == null) {
+                throw new IllegalStateException("Notification channel '" + name + "' is enabled but not configured");
+            }
+            workers.put(name, new ChannelWorkers(channel, properties.getDispatcher().poolFor(name), meterRegistry));
+        }
+        this.maxAttempts = properties.getDispatcher().getMaxAttempts();
+        this.retryBackoffMillis = properties.getDispatcher().getRetryBackoff().toMillis();
+        log.info("Notification channels enabled: {}", workers.keySet());
+    }
+
+    /**
+     * Queues the notification on every enabled channel. The returned future completes once every channel
+     * has delivered it, or exceptionally if any channel gave up after {@code maxAttempts}.
+     */
+    public CompletableFuture<Void> dispatch(Notification notification) {
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(workers.size());
+        for (ChannelWorkers channelWorkers : workers.values()) {
+            deliveries.add(channelWorkers.submit(notification));
+        }
+        return CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0]));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ChannelWorkers channelWorkers : workers.values()) {
+            channelWorkers.executor.shutdown();
+        }
+        for (ChannelWorkers channelWorkers : workers.values()) {
+            if (!channelWorkers.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Channel {} did not drain before shutdown", channelWorkers.channel.getName());
+            }
+        }
+    }
+
+    private class ChannelWorkers {
+
+        private final NotificationChannel channel;
+        private final ThreadPoolExecutor executor;
+        private final Counter sent;
+        private final Counter failed;
+
+        ChannelWorkers(NotificationChannel channel, NotificationProperties.Pool pool, MeterRegistry meterRegistry) {
+            this.channel = channel;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(pool.getWorkers(), pool.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+                    r -> new Thread(r, "notify-" + channel.getName() + "-" + threadCount.incrementAndGet()),
+                    (task, exec) -> {
+                        if (exec.isShutdown()) {
+                            throw new RejectedExecutionException("Dispatcher is shutting down");
+                        }
+                        try {
+                            exec.getQueue().put(task);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+                        }
+                    });
+
+            this.sent = Counter.builder("notification.dispatch.sent").tag("channel", channel.getName())
+                    .register(meterRegistry);
+            this.failed = Counter.builder("notification.dispatch.failed").tag("channel", channel.getName())
+                    .register(meterRegistry);
+            Gauge.builder("notification.dispatch.queued", executor, e -> e.getQueue().size())
+                    .tag("channel", channel.getName())
+                    .register(meterRegistry);
+        }
+
+        CompletableFuture<Void> submit(Notification notification) {
+            CompletableFuture<Void> delivered = new CompletableFuture<>();
+            executor.execute(() -> deliver(notification, delivered));
+            return delivered;
+        }
+
+        private void deliver(Notification notification, CompletableFuture<Void> delivered) {
+            Exception lastFailure = null;
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    channel.send(notification);
+                    sent.increment();
+                    delivered.complete(null);
+                    return;
+                } catch (Exception e) {
+                    lastFailure = e;
+                    log.warn("Attempt {}/{} to send notification for order {} via {} failed: {}",
+                            attempt, maxAttempts, notification.getOrderId(), channel.getName(), e.getMessage());
+                    if (attempt < maxAttempts && !sleep(retryBackoffMillis * attempt)) {
+                        break;
+                    }
+                }
+            }
+            failed.increment();
+            log.error("Giving up on notification for order {} via {}", notification.getOrderId(), channel.getName());
+            delivered.completeExceptionally(new IllegalStateException("Channel " + channel.getName()
+                    + " gave up on notification for order " + notification.getOrderId(), lastFailure));
+        }
+
+        private boolean sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -1,14 +0,0 @@
-package com.eventdriven.notification.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class InventoryReservedEvent {
-    private Long orderId;
-}
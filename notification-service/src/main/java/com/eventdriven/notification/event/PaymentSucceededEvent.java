@@ -1,15 +0,0 @@
-package com.eventdriven.notification.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class PaymentSucceededEvent {
-    private Long orderId;
-    private String paymentId;
-}
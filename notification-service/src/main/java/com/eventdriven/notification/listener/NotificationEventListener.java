@@ -1,46 +1,97 @@
 package com.eventdriven.notification.listener;
 
-import com.eventdriven.notification.event.*;
-import com.eventdriven.notification.service.NotificationService;
+import com.eventdriven.events.*;
+import com.eventdriven.notification.dedupe.EventDeduplicator;
+import com.eventdriven.notification.outbox.NotificationOutbox;
+import com.eventdriven.notification.outbox.OutboxEntry;
+import com.eventdriven.notification.recipient.RecipientDirectory;
+import com.eventdriven.notification.service.OrderUpdate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+/**
+ * Offsets are acknowledged once the event's update is durable in the {@link NotificationOutbox}, which
+ * coalesces and delivers it from there; the container runs with async acks so out-of-order completions
+ * still commit contiguously. Redelivered events that were already handled are acknowledged without
+ * notifying again.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationEventListener {
 
-    private final NotificationService notificationService;
+    private static final String ORDER_CREATED_TOPIC = "order-created-topic";
+    private static final String PAYMENT_SUCCEEDED_TOPIC = "payment-succeeded-topic";
+    private static final String PAYMENT_FAILED_TOPIC = "payment-failed-topic";
+    private static final String INVENTORY_RESERVED_TOPIC = "inventory-reserved-topic";
+    private static final String INVENTORY_UNAVAILABLE_TOPIC = "inventory-unavailable-topic";
 
-    @KafkaListener(topics = "order-created-topic", groupId = "notification-service-group")
-    public void handleOrderCreated(OrderCreatedEvent event) {
+    private final NotificationOutbox notificationOutbox;
+    private final RecipientDirectory recipientDirectory;
+    private final EventDeduplicator deduplicator;
+
+    @KafkaListener(topics = ORDER_CREATED_TOPIC, groupId = "notification-service-group")
+    public void handleOrderCreated(OrderCreatedEvent event, Acknowledgment ack) {
         log.info("Received OrderCreatedEvent for order: {}", event.getOrderId());
-        notificationService.sendOrderCreatedNotification(event.getOrderId(), event.getUserId());
+        recipientDirectory.record(event.getOrderId(), event.getUserId());
+        submit(ORDER_CREATED_TOPIC, event.getOrderId(), event.getUserId(),
+                OrderUpdate.of(OrderUpdate.Type.CREATED), ack);
     }
 
-    @KafkaListener(topics = "payment-succeeded-topic", groupId = "notification-service-group")
-    public void handlePaymentSucceeded(PaymentSucceededEvent event) {
+    @KafkaListener(topics = PAYMENT_SUCCEEDED_TOPIC, groupId = "notification-service-group")
+    public void handlePaymentSucceeded(PaymentSucceededEvent event, Acknowledgment ack) {
         log.info("Received PaymentSucceededEvent for order: {}", event.getOrderId());
-        notificationService.sendPaymentSuccessNotification(event.getOrderId());
+        submit(PAYMENT_SUCCEEDED_TOPIC, event.getOrderId(), recipientDirectory.resolve(event.getOrderId()),
+                OrderUpdate.of(OrderUpdate.Type.PAYMENT_SUCCEEDED), ack);
     }
 
-    @KafkaListener(topics = "payment-failed-topic", groupId = "notification-service-group")
-    public void handlePaymentFailed(PaymentFailedEvent event) {
+    @KafkaListener(topics = PAYMENT_FAILED_TOPIC, groupId = "notification-service-group")
+    public void handlePaymentFailed(PaymentFailedEvent event, Acknowledgment ack) {
         log.info("Received PaymentFailedEvent for order: {}", event.getOrderId());
-        notificationService.sendPaymentFailedNotification(event.getOrderId(), event.getReason());
+        submit(PAYMENT_FAILED_TOPIC, event.getOrderId(), recipientDirectory.resolve(event.getOrderId()),
+                new OrderUpdate(OrderUpdate.Type.PAYMENT_FAILED, event.getReason()), ack);
+        recipientDirectory.markCompleted(event.getOrderId());
     }
 
-    @KafkaListener(topics = "inventory-reserved-topic", groupId = "notification-service-group")
-    public void handleInventoryReserved(InventoryReservedEvent event) {
+    @KafkaListener(topics = INVENTORY_RESERVED_TOPIC, groupId = "notification-service-group")
+    public void handleInventoryReserved(InventoryReservedEvent event, Acknowledgment ack) {
         log.info("Received InventoryReservedEvent for order: {}", event.getOrderId());
-        notificationService.sendInventoryReservedNotification(event.getOrderId());
+        submit(INVENTORY_RESERVED_TOPIC, event.getOrderId(), recipientDirectory.resolve(event.getOrderId()),
+                OrderUpdate.of(OrderUpdate.Type.INVENTORY_RESERVED), ack);
+        recipientDirectory.markCompleted(event.getOrderId());
     }
 
-    @KafkaListener(topics = "inventory-unavailable-topic", groupId = "notification-service-group")
-    public void handleInventoryUnavailable(InventoryUnavailableEvent event) {
+    @KafkaListener(topics = INVENTORY_UNAVAILABLE_TOPIC, groupId = "notification-service-group")
+    public void handleInventoryUnavailable(InventoryUnavailableEvent event, Acknowledgment ack) {
         log.info("Received InventoryUnavailableEvent for order: {}", event.getOrderId());
-        notificationService.sendInventoryUnavailableNotification(event.getOrderId(), event.getReason());
+        submit(INVENTORY_UNAVAILABLE_TOPIC, event.getOrderId(), recipientDirectory.resolve(event.getOrderId()),
+                new OrderUpdate(OrderUpdate.Type.INVENTORY_UNAVAILABLE, event.getReason()), ack);
+        recipientDirectory.markCompleted(event.getOrderId());
+    }
+
+    private void submit(String topic, Long orderId, String userId, OrderUpdate update, Acknowledgment ack) {
+        if (deduplicator.isDuplicate(topic, orderId)) {
+            log.info("Skipping duplicate {} event for order: {}", update.getType(), orderId);
+            ack.acknowledge();
+            return;
+        }
+        OutboxEntry entry = OutboxEntry.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .type(update.getType())
+                .reason(update.getReason())
+                .build();
+        notificationOutbox.enqueue(entry).whenComplete((result, error) -> {
+            if (error != null) {
+                // Leave the offset uncommitted so the event is redelivered
+                log.error("Failed to buffer {} notification for order {}", update.getType(), orderId, error);
+                return;
+            }
+            deduplicator.markHandled(topic, orderId);
+            ack.acknowledge();
+        });
     }
 }
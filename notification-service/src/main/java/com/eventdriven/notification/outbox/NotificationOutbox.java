@@ -0,0 +1,495 @@
+package com.eventdriven.notification.outbox;
+
+import com.eventdriven.notification.coalesce.OrderNotificationCoalescer;
+import com.eventdriven.notification.config.NotificationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Durable local queue in front of the {@link OrderNotificationCoalescer}. {@link #enqueue} appends the
+ * order update to a memory-mapped segment and completes once a group commit has forced it to disk, so
+ * the Kafka offset can be committed without waiting out the coalesce window or delivery. A drainer
+ * thread replays everything past the delivery checkpoint into the coalescer, including after a restart;
+ * fully delivered segments are deleted. Delivery is at-least-once. An update whose notification the
+ * dispatcher gives up on is parked in a side directory, so it no longer holds back the checkpoint, and
+ * is redriven periodically.
+ */
+@Component
+@Slf4j
+public class NotificationOutbox {
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String PARKED_DIRECTORY = "parked";
+    private static final String PARKED_SUFFIX = ".json";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Path parkedDirectory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+    private final Function<OutboxEntry, CompletableFuture<Void>> sink;
+
+    private final Object lock = new Object();
+    private final ConcurrentSkipListMap<Long, OutboxSegment> segments = new ConcurrentSkipListMap<>();
+    private OutboxSegment active;
+    private long nextSeq;
+    private List<CompletableFuture<Void>> pendingFlush = new ArrayList<>();
+    private volatile long durableSeq;
+    private volatile boolean running;
+
+    private final Set<Path> redriving = ConcurrentHashMap.newKeySet();
+
+    private final TreeSet<Long> completedAhead = new TreeSet<>();
+    private volatile long checkpoint;
+    private long persistedCheckpoint;
+
+    private Thread flusher;
+    private Thread drainer;
+
+    private final Counter enqueued;
+    private final Counter drained;
+    private final Counter parked;
+    private final Counter redriven;
+    private final Counter skipped;
+    private final DistributionSummary groupCommitSize;
+
+    @Autowired
+    public NotificationOutbox(NotificationProperties properties,
+                              ObjectMapper objectMapper,
+                              OrderNotificationCoalescer coalescer,
+                              MeterRegistry meterRegistry) {
+        this(properties.getOutbox(), objectMapper,
+                entry -> coalescer.submit(entry.getOrderId(), entry.getUserId(), entry.toUpdate()), meterRegistry);
+    }
+
+    NotificationOutbox(NotificationProperties.Outbox properties,
+                       ObjectMapper objectMapper,
+                       Function<OutboxEntry, CompletableFuture<Void>> sink,
+                       MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.directory = Paths.get(properties.getDirectory());
+        this.parkedDirectory = directory.resolve(PARKED_DIRECTORY);
+        this.segmentSize = properties.getSegmentSize();
+        this.objectMapper = objectMapper;
+        this.sink = sink;
+
+        this.enqueued = Counter.builder("notification.outbox.enqueued").register(meterRegistry);
+        this.drained = Counter.builder("notification.outbox.drained").register(meterRegistry);
+        this.parked = Counter.builder("notification.outbox.parked").register(meterRegistry);
+        this.redriven = Counter.builder("notification.outbox.redriven").register(meterRegistry);
+        this.skipped = Counter.builder("notification.outbox.skipped").register(meterRegistry);
+        this.groupCommitSize = DistributionSummary.builder("notification.outbox.group.commit.size")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.backlog", this, outbox -> outbox.durableSeq - outbox.checkpoint)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(parkedDirectory);
+        checkpoint = readCheckpoint();
+        persistedCheckpoint = checkpoint;
+        recover();
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "outbox-flusher");
+        drainer = new Thread(this::drainLoop, "outbox-drainer");
+        flusher.start();
+        drainer.start();
+    }
+
+    /**
+     * Appends the update and returns a future that completes once it is on disk. With the outbox
+     * disabled the update goes straight to the coalescer and the future completes once it is dispatched.
+     */
+    public CompletableFuture<Void> enqueue(OutboxEntry entry) {
+        if (!enabled) {
+            return sink.apply(entry);
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Notification outbox is closed"));
+            }
+            try {
+                if (!active.hasRoom(payload.length)) {
+                    roll(payload.length);
+                }
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            active.append(nextSeq++, payload);
+            pendingFlush.add(durable);
+            lock.notifyAll();
+        }
+        enqueued.increment();
+        return durable;
+    }
+
+    private void roll(int payloadLength) throws IOException {
+        if (active.isEmpty()) {
+            throw new IllegalArgumentException("Outbox entry of " + payloadLength + " bytes exceeds outbox segment size");
+        }
+        active.seal();
+        active = OutboxSegment.create(directory, nextSeq, segmentSize);
+        segments.put(active.getBaseSeq(), active);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<CompletableFuture<Void>> batch;
+            OutboxSegment segment;
+            int end;
+            long lastSeq;
+            synchronized (lock) {
+                while (pendingFlush.isEmpty() && running) {
+                    if (!await()) {
+                        return;
+                    }
+                }
+                if (pendingFlush.isEmpty()) {
+                    return;
+                }
+                batch = pendingFlush;
+                pendingFlush = new ArrayList<>();
+                segment = active;
+                end = active.getWritePosition();
+                lastSeq = nextSeq - 1;
+            }
+
+            try {
+                // One force covers every append that arrived while the previous one was running
+                segment.flushTo(end);
+            } catch (UncheckedIOException e) {
+                log.error("Failed to flush notification outbox", e);
+                batch.forEach(future -> future.completeExceptionally(e));
+                continue;
+            }
+            synchronized (lock) {
+                durableSeq = lastSeq;
+                lock.notifyAll();
+            }
+            groupCommitSize.record(batch.size());
+            batch.forEach(future -> future.complete(null));
+        }
+    }
+
+    /**
+     * Reads records only up to the durable mark. The flusher raises it under {@code lock} after the
+     * appends it covers, so every record up to it is fully visible here; the mapped buffer itself gives
+     * no such guarantee. Records in a segment run contiguously from its base seq, so the seq of the next
+     * record is known without reading it.
+     */
+    private void drainLoop() {
+        long nextToDrain = checkpoint + 1;
+        Map.Entry<Long, OutboxSegment> start = segments.floorEntry(nextToDrain);
+        OutboxSegment segment = start != null ? start.getValue() : segments.firstEntry().getValue();
+        int position = 0;
+        long seqAtPosition = segment.getBaseSeq();
+
+        while (true) {
+            long durable;
+            synchronized (lock) {
+                while (durableSeq < nextToDrain && running) {
+                    if (!await()) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                durable = durableSeq;
+            }
+
+            if (seqAtPosition > nextToDrain) {
+                // Records lost between the previous segment and this one
+                skip(nextToDrain, seqAtPosition - 1);
+                nextToDrain = seqAtPosition;
+                continue;
+            }
+            // seqAtPosition <= nextToDrain <= durable, so the record here, if any, is fully visible
+            if (!segment.hasRecordAt(position)) {
+                Map.Entry<Long, OutboxSegment> next = segments.higherEntry(segment.getBaseSeq());
+                if (next == null) {
+                    // Nothing left to read up to the durable mark; stay on this segment for later appends
+                    skip(nextToDrain, durable);
+                    nextToDrain = durable + 1;
+                    continue;
+                }
+                segment = next.getValue();
+                position = 0;
+                seqAtPosition = segment.getBaseSeq();
+                continue;
+            }
+
+            long seq = seqAtPosition++;
+            byte[] payload = segment.readPayload(position);
+            position += segment.recordSize(position);
+            if (seq < nextToDrain) {
+                // Delivered before the last restart
+                continue;
+            }
+            nextToDrain = seq + 1;
+            deliver(seq, payload);
+        }
+    }
+
+    /**
+     * Records that were lost, e.g. dropped while recovering a corrupt segment, are counted as delivered
+     * so they never hold back the checkpoint or compaction.
+     */
+    private void skip(long from, long to) {
+        log.error("Outbox records {}..{} are durable but could not be located; skipping them", from, to);
+        skipped.increment(to - from + 1);
+        for (long seq = from; seq <= to; seq++) {
+            markDelivered(seq);
+        }
+    }
+
+    private void deliver(long seq, byte[] payload) {
+        OutboxEntry entry;
+        try {
+            entry = objectMapper.readValue(payload, OutboxEntry.class);
+        } catch (IOException e) {
+            log.error("Dropping unreadable outbox record {}", seq, e);
+            markDelivered(seq);
+            return;
+        }
+        sink.apply(entry).whenComplete((result, error) -> {
+            if (error != null) {
+                park(seq, payload, error);
+                return;
+            }
+            drained.increment();
+            markDelivered(seq);
+        });
+    }
+
+    private void park(long seq, byte[] payload, Throwable error) {
+        Path temp = parkedDirectory.resolve(seq + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(payload));
+            channel.force(true);
+            Files.move(temp, parkedDirectory.resolve(seq + PARKED_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The checkpoint stays behind this record, so it is replayed from the segment after a restart
+            log.error("Failed to park undeliverable outbox record {}", seq, e);
+            return;
+        }
+        parked.increment();
+        log.error("Parked undeliverable outbox record {} for redrive", seq, error);
+        markDelivered(seq);
+    }
+
+    /**
+     * Retries every parked update; each one is deleted once its notification has been dispatched.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.parked-retry-interval:60000}")
+    public void redriveParked() {
+        if (!enabled || !running) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(parkedDirectory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(PARKED_SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            log.warn("Failed to list parked outbox records", e);
+            return;
+        }
+        for (Path file : files) {
+            if (!redriving.add(file)) {
+                // Previous attempt still in flight
+                continue;
+            }
+            OutboxEntry entry;
+            try {
+                entry = objectMapper.readValue(Files.readAllBytes(file), OutboxEntry.class);
+            } catch (IOException e) {
+                log.error("Parked outbox record {} is unreadable; leaving it for inspection", file, e);
+                continue;
+            }
+            sink.apply(entry).whenComplete((result, error) -> {
+                try {
+                    if (error != null) {
+                        log.warn("Redrive of parked outbox record {} failed: {}", file, error.getMessage());
+                        return;
+                    }
+                    Files.deleteIfExists(file);
+                    redriven.increment();
+                } catch (IOException e) {
+                    log.warn("Failed to delete redriven outbox record {}", file, e);
+                } finally {
+                    redriving.remove(file);
+                }
+            });
+        }
+    }
+
+    private void markDelivered(long seq) {
+        synchronized (completedAhead) {
+            if (seq != checkpoint + 1) {
+                completedAhead.add(seq);
+                return;
+            }
+            long contiguous = seq;
+            while (completedAhead.remove(contiguous + 1)) {
+                contiguous++;
+            }
+            checkpoint = contiguous;
+        }
+    }
+
+    /**
+     * Persists the delivery checkpoint and deletes sealed segments that have been fully delivered.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.checkpoint-interval:1000}")
+    public void checkpointAndCompact() {
+        if (!enabled || !running) {
+            return;
+        }
+        long current = checkpoint;
+        try {
+            if (current != persistedCheckpoint) {
+                writeCheckpoint(current);
+                persistedCheckpoint = current;
+            }
+            Iterator<OutboxSegment> it = segments.values().iterator();
+            while (it.hasNext()) {
+                OutboxSegment segment = it.next();
+                if (!segment.isSealed() || segment.getLastSeq() > persistedCheckpoint) {
+                    break;
+                }
+                it.remove();
+                segment.delete();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to checkpoint notification outbox", e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(OutboxSegment::isSegmentFile).sorted().toList();
+        }
+        for (Path file : files) {
+            OutboxSegment segment = OutboxSegment.recover(file);
+            if (active != null) {
+                active.seal();
+            }
+            segments.put(segment.getBaseSeq(), segment);
+            active = segment;
+        }
+
+        if (active == null) {
+            active = OutboxSegment.create(directory, checkpoint + 1, segmentSize);
+            segments.put(active.getBaseSeq(), active);
+        }
+        nextSeq = active.getLastSeq() + 1;
+        durableSeq = nextSeq - 1;
+
+        int pending = (int) Math.max(0, durableSeq - checkpoint);
+        log.info("Notification outbox recovered {} segments, {} updates pending delivery",
+                segments.size(), pending);
+        deleteDeliveredSegments();
+    }
+
+    private void deleteDeliveredSegments() throws IOException {
+        Iterator<OutboxSegment> it = segments.values().iterator();
+        while (it.hasNext()) {
+            OutboxSegment segment = it.next();
+            if (segment == active || segment.getLastSeq() > checkpoint) {
+                break;
+            }
+            it.remove();
+            segment.delete();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeCheckpoint(long value) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(value), StandardCharsets.US_ASCII);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean await() {
+        try {
+            lock.wait();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        flusher.join();
+        drainer.join();
+        try {
+            writeCheckpoint(checkpoint);
+        } catch (IOException e) {
+            log.warn("Failed to write final outbox checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.eventdriven.notification.outbox;
+
+import com.eventdriven.notification.service.OrderUpdate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order update as persisted in the {@link NotificationOutbox}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEntry {
+    private Long orderId;
+    private String userId;
+    private OrderUpdate.Type type;
+    private String reason;
+
+    public OrderUpdate toUpdate() {
+        return new OrderUpdate(type, reason);
+    }
+}
@@ -0,0 +1,171 @@
+package com.eventdriven.notification.outbox;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size, memory-mapped, append-only file of records laid out as
+ * {@code [int length][int crc32c][long seq][payload]}. A zero length marks the end of written data;
+ * the file is pre-sized so unwritten space reads as zeros.
+ */
+class OutboxSegment {
+
+    static final int HEADER_SIZE = 16;
+    private static final String SUFFIX = ".seg";
+
+    private final Path path;
+    private final long baseSeq;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private int writePosition;
+    private int flushedPosition;
+    private long lastSeq;
+    private volatile boolean sealed;
+
+    private OutboxSegment(Path path, long baseSeq, int capacity) throws IOException {
+        this.path = path;
+        this.baseSeq = baseSeq;
+        this.capacity = capacity;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        this.lastSeq = baseSeq - 1;
+    }
+
+    static OutboxSegment create(Path directory, long baseSeq, int capacity) throws IOException {
+        return new OutboxSegment(directory.resolve(String.format("%020d%s", baseSeq, SUFFIX)), baseSeq, capacity);
+    }
+
+    /**
+     * Maps an existing segment and positions it after its last intact record. Anything after a torn or
+     * corrupt record is zeroed so it can never be mistaken for data later.
+     */
+    static OutboxSegment recover(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long baseSeq = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        OutboxSegment segment = new OutboxSegment(path, baseSeq, (int) Files.size(path));
+
+        int position = 0;
+        long expectedSeq = baseSeq;
+        while (segment.isValidRecord(position, expectedSeq)) {
+            position += HEADER_SIZE + segment.buffer.getInt(position);
+            expectedSeq++;
+        }
+        segment.writePosition = position;
+        segment.flushedPosition = position;
+        segment.lastSeq = expectedSeq - 1;
+        if (position + HEADER_SIZE <= segment.capacity && segment.buffer.getInt(position) != 0) {
+            for (int i = position; i < segment.capacity; i++) {
+                segment.buffer.put(i, (byte) 0);
+            }
+            segment.buffer.force();
+        }
+        return segment;
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    boolean hasRoom(int payloadLength) {
+        // Always leave room for the zero terminator header
+        return writePosition + HEADER_SIZE + payloadLength + HEADER_SIZE <= capacity;
+    }
+
+    void append(long seq, byte[] payload) {
+        int position = writePosition;
+        buffer.putLong(position + 8, seq);
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + 4, checksum(seq, payload));
+        // Length last, for recovery: a torn record has no length. Live readers rely on the outbox lock
+        buffer.putInt(position, payload.length);
+        writePosition = position + HEADER_SIZE + payload.length;
+        lastSeq = seq;
+    }
+
+    /**
+     * Forces everything up to {@code end} to disk.
+     */
+    synchronized void flushTo(int end) {
+        if (end > flushedPosition) {
+            buffer.force(flushedPosition, end - flushedPosition);
+            flushedPosition = end;
+        }
+    }
+
+    boolean isValidRecord(int position, long expectedSeq) {
+        if (position + HEADER_SIZE > capacity) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_SIZE + length > capacity) {
+            return false;
+        }
+        long seq = buffer.getLong(position + 8);
+        if (seq != expectedSeq) {
+            return false;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_SIZE, payload);
+        return buffer.getInt(position + 4) == checksum(seq, payload);
+    }
+
+    boolean hasRecordAt(int position) {
+        return position + HEADER_SIZE <= capacity && buffer.getInt(position) > 0;
+    }
+
+    int recordSize(int position) {
+        return HEADER_SIZE + buffer.getInt(position);
+    }
+
+    byte[] readPayload(int position) {
+        byte[] payload = new byte[buffer.getInt(position)];
+        buffer.get(position + HEADER_SIZE, payload);
+        return payload;
+    }
+
+    private static int checksum(long seq, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (seq >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    void seal() {
+        flushTo(writePosition);
+        sealed = true;
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isEmpty() {
+        return lastSeq < baseSeq;
+    }
+
+    long getBaseSeq() {
+        return baseSeq;
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,245 @@
+package com.eventdriven.notification.recipient;
+
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.notification.config.NotificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local orderId → userId projection of {@code order-created-topic}, so events that carry only an order id
+ * can be addressed without calling order-service. Entries live in an embedded MVStore file with a bounded
+ * LRU of recently used orders in front of it; finished orders are pruned after a TTL. The store can be
+ * rebuilt by re-reading the topic from the beginning.
+ */
+@Component
+@Slf4j
+public class RecipientDirectory {
+
+    static final String TOPIC = "order-created-topic";
+
+    private final String file;
+    private final int hotSetSize;
+    private final long completedTtlMillis;
+    private final long maxAgeMillis;
+    private final boolean rebuildOnEmpty;
+    private final ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory;
+
+    private MVStore store;
+    private MVMap<Long, String> recipients;
+    // Epoch millis after which an entry may be pruned
+    private MVMap<Long, Long> expiries;
+    private Map<Long, String> hotSet;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter pruned;
+
+    public RecipientDirectory(NotificationProperties properties,
+                              ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory,
+                              MeterRegistry meterRegistry) {
+        NotificationProperties.Recipients config = properties.getRecipients();
+        this.file = config.getFile();
+        this.hotSetSize = config.getHotSetSize();
+        this.completedTtlMillis = config.getCompletedTtl().toMillis();
+        this.maxAgeMillis = config.getMaxAge().toMillis();
+        this.rebuildOnEmpty = config.isRebuildOnEmpty();
+        this.consumerFactory = consumerFactory;
+
+        this.hits = Counter.builder("notification.recipients.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("notification.recipients.lookups").tag("result", "miss").register(meterRegistry);
+        this.pruned = Counter.builder("notification.recipients.pruned").register(meterRegistry);
+        Gauge.builder("notification.recipients.size", this, RecipientDirectory::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        store = new MVStore.Builder().fileName(file).open();
+        store.setAutoCommitDelay(1000);
+        recipients = store.openMap("recipients");
+        expiries = store.openMap("expiries");
+        hotSet = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > hotSetSize;
+            }
+        });
+        log.info("Recipient directory opened with {} orders", recipients.size());
+
+        if (recipients.isEmpty() && rebuildOnEmpty && consumerFactory.getIfAvailable() != null) {
+            startRebuild();
+        }
+    }
+
+    public void record(Long orderId, String userId) {
+        if (orderId == null || userId == null) {
+            return;
+        }
+        recipients.put(orderId, userId);
+        expiries.putIfAbsent(orderId, System.currentTimeMillis() + maxAgeMillis);
+        hotSet.put(orderId, userId);
+    }
+
+    /**
+     * Returns the order's user id, or {@code null} if the order is unknown to this service.
+     */
+    public String resolve(Long orderId) {
+        if (orderId == null) {
+            return null;
+        }
+        String userId = hotSet.get(orderId);
+        if (userId == null) {
+            userId = recipients.get(orderId);
+            if (userId == null) {
+                misses.increment();
+                return null;
+            }
+            hotSet.put(orderId, userId);
+        }
+        hits.increment();
+        return userId;
+    }
+
+    /**
+     * Shortens the retention of a finished order to the completed-order TTL.
+     */
+    public void markCompleted(Long orderId) {
+        if (orderId != null && recipients.containsKey(orderId)) {
+            expiries.put(orderId, System.currentTimeMillis() + completedTtlMillis);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.recipients.prune-interval:600000}")
+    public void prune() {
+        prune(System.currentTimeMillis());
+    }
+
+    int prune(long now) {
+        int removed = 0;
+        for (Map.Entry<Long, Long> entry : expiries.entrySet()) {
+            if (entry.getValue() <= now) {
+                recipients.remove(entry.getKey());
+                expiries.remove(entry.getKey());
+                hotSet.remove(entry.getKey());
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            pruned.increment(removed);
+            log.info("Pruned {} expired recipients", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Runs {@link #rebuild()} on a background thread; progress is visible through {@link #isRebuilding()}.
+     */
+    public void startRebuild() {
+        if (consumerFactory.getIfAvailable() == null) {
+            throw new IllegalStateException("No Kafka consumer factory available");
+        }
+        if (rebuilding.get()) {
+            throw new IllegalStateException("Recipient rebuild already in progress");
+        }
+        Thread rebuild = new Thread(this::rebuildQuietly, "recipient-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Re-reads {@code order-created-topic} from the earliest retained offset into the store.
+     *
+     * @return the number of orders recorded
+     */
+    public long rebuild() {
+        ConsumerFactory<Object, Object> factory = consumerFactory.getIfAvailable();
+        if (factory == null) {
+            throw new IllegalStateException("No Kafka consumer factory available");
+        }
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        try (Consumer<Object, Object> consumer =
+                     factory.createConsumer("notification-recipient-rebuild", "recipient-rebuild", null, overrides)) {
+            return rebuildFrom(consumer);
+        }
+    }
+
+    long rebuildFrom(Consumer<?, ?> consumer) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Recipient rebuild already in progress");
+        }
+        try {
+            List<TopicPartition> partitions = consumer.partitionsFor(TOPIC).stream()
+                    .map(PartitionInfo::partition)
+                    .map(partition -> new TopicPartition(TOPIC, partition))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long recorded = 0;
+            while (!caughtUp(consumer, endOffsets)) {
+                for (ConsumerRecord<?, ?> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (record.value() instanceof OrderCreatedEvent event) {
+                        record(event.getOrderId(), event.getUserId());
+                        recorded++;
+                    }
+                }
+            }
+            store.commit();
+            log.info("Rebuilt recipient directory from {}: {} orders", TOPIC, recorded);
+            return recorded;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Recipient directory rebuild failed", e);
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    public int size() {
+        return recipients.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        store.close();
+    }
+}
@@ -1,51 +1,92 @@
 package com.eventdriven.notification.service;
 
+import com.eventdriven.notification.channel.Notification;
+import com.eventdriven.notification.dispatch.NotificationDispatcher;
+import com.eventdriven.notification.template.NotificationTemplates;
+import com.eventdriven.notification.template.TemplateModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
-    public void sendOrderCreatedNotification(Long orderId, String userId) {
-        log.info("📧 Sending 'Order Created' notification for Order #{} to User: {}", orderId, userId);
-        // In production: integrate with email service (SendGrid, AWS SES, etc.)
-        // or SMS service (Twilio, AWS SNS, etc.)
-        simulateEmailSending(userId, "Order Created", 
-            String.format("Your order #%d has been created and is being processed.", orderId));
+    public static final String DEFAULT_RECIPIENT = "customer@example.com";
+
+    private static final Map<OrderUpdate.Type, String> SUBJECT_KEYS = templateKeys(".subject");
+    private static final Map<OrderUpdate.Type, String> BODY_KEYS = templateKeys(".body");
+
+    private final NotificationDispatcher dispatcher;
+    private final NotificationTemplates templates;
+
+    public CompletableFuture<Void> send(Long orderId, String recipient, OrderUpdate update) {
+        log.info("📧 Sending '{}' notification for Order #{} to {}", subject(update), orderId, recipient);
+        return dispatch(orderId, recipient, subject(update), body(orderId, update));
+    }
+
+    /**
+     * One message for several updates of the same order, titled with the order's latest state.
+     */
+    public CompletableFuture<Void> sendOrderSummary(Long orderId, String recipient, List<OrderUpdate> updates) {
+        List<OrderUpdate> ordered = updates.stream()
+                .sorted(Comparator.comparing(OrderUpdate::getType))
+                .toList();
+        OrderUpdate latest = ordered.get(ordered.size() - 1);
+        log.info("📧 Sending '{}' summary of {} updates for Order #{} to {}",
+                subject(latest), ordered.size(), orderId, recipient);
+
+        StringBuilder body = new StringBuilder();
+        for (OrderUpdate update : ordered) {
+            body.append(body(orderId, update)).append('\n');
+        }
+        return dispatch(orderId, recipient, subject(latest), body.toString().trim());
     }
 
-    public void sendPaymentSuccessNotification(Long orderId) {
-        log.info("📧 Sending 'Payment Success' notification for Order #{}", orderId);
-        simulateEmailSending("customer@example.com", "Payment Successful", 
-            String.format("Payment for your order #%d was successful!", orderId));
+    public CompletableFuture<Void> sendDigest(String recipient, List<String> entries) {
+        log.info("📧 Sending daily digest of {} orders to {}", entries.size(), recipient);
+        TemplateModel model = new TemplateModel();
+        StringBuilder body = new StringBuilder(templates.render("DIGEST.body", model))
+                .append('\n');
+        for (String entry : entries) {
+            body.append("\n• ").append(entry);
+        }
+        return dispatch(null, recipient, templates.render("DIGEST.subject", model),
+                body.toString());
     }
 
-    public void sendPaymentFailedNotification(Long orderId, String reason) {
-        log.error("📧 Sending 'Payment Failed' notification for Order #{}: {}", orderId, reason);
-        simulateEmailSending("customer@example.com", "Payment Failed", 
-            String.format("Payment for your order #%d failed. Reason: %s", orderId, reason));
+    public String subject(OrderUpdate update) {
+        return templates.render(SUBJECT_KEYS.get(update.getType()), new TemplateModel());
     }
 
-    public void sendInventoryReservedNotification(Long orderId) {
-        log.info("📧 Sending 'Order Confirmed' notification for Order #{}", orderId);
-        simulateEmailSending("customer@example.com", "Order Confirmed", 
-            String.format("Your order #%d has been confirmed and will be shipped soon!", orderId));
+    private String body(Long orderId, OrderUpdate update) {
+        TemplateModel model = new TemplateModel()
+                .setOrderId(orderId)
+                .setReason(update.getReason());
+        return templates.render(BODY_KEYS.get(update.getType()), model);
     }
 
-    public void sendInventoryUnavailableNotification(Long orderId, String reason) {
-        log.error("📧 Sending 'Order Failed' notification for Order #{}: {}", orderId, reason);
-        simulateEmailSending("customer@example.com", "Order Failed", 
-            String.format("Your order #%d could not be fulfilled. Reason: %s", orderId, reason));
+    private static Map<OrderUpdate.Type, String> templateKeys(String suffix) {
+        Map<OrderUpdate.Type, String> keys = new EnumMap<>(OrderUpdate.Type.class);
+        for (OrderUpdate.Type type : OrderUpdate.Type.values()) {
+            keys.put(type, type.name() + suffix);
+        }
+        return keys;
     }
 
-    private void simulateEmailSending(String recipient, String subject, String body) {
-        log.info("✉️  Email Sent:");
-        log.info("   To: {}", recipient);
-        log.info("   Subject: {}", subject);
-        log.info("   Body: {}", body);
-        log.info("─────────────────────────────────────────");
+    private CompletableFuture<Void> dispatch(Long orderId, String recipient, String subject, String body) {
+        return dispatcher.dispatch(Notification.builder()
+                .orderId(orderId)
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .build());
     }
 }
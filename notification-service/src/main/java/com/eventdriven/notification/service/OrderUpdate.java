@@ -0,0 +1,37 @@
+package com.eventdriven.notification.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderUpdate {
+
+    /**
+     * Declared in saga order; terminal types end the order's notification lifecycle.
+     */
+    public enum Type {
+        CREATED(false),
+        PAYMENT_SUCCEEDED(false),
+        PAYMENT_FAILED(true),
+        INVENTORY_RESERVED(true),
+        INVENTORY_UNAVAILABLE(true);
+
+        private final boolean terminal;
+
+        Type(boolean terminal) {
+            this.terminal = terminal;
+        }
+
+        public boolean isTerminal() {
+            return terminal;
+        }
+    }
+
+    private final Type type;
+    private final String reason;
+
+    public static OrderUpdate of(Type type) {
+        return new OrderUpdate(type, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.eventdriven.notification.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed into alternating literal and variable parts, so rendering is a straight walk that
+ * appends into the caller's buffer.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // Each part is either a String literal or a TemplateVariable
+    private final Object[] parts;
+
+    private CompiledTemplate(Object[] parts) {
+        this.parts = parts;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<Object> parts = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                parts.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at index " + open + " in: " + source);
+            }
+            if (open > position) {
+                parts.add(source.substring(position, open));
+            }
+            parts.add(TemplateVariable.forPlaceholder(source.substring(open + OPEN.length(), close).trim()));
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(parts.toArray());
+    }
+
+    public void render(TemplateModel model, StringBuilder out) {
+        for (Object part : parts) {
+            if (part instanceof String literal) {
+                out.append(literal);
+            } else {
+                model.append((TemplateVariable) part, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.eventdriven.notification.template;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Compiled notification templates, loaded from {@code classpath:templates/notifications.properties} and
+ * optionally overridden key by key from a directory that is polled for changes. A reload compiles a
+ * complete new set and swaps it in; if anything fails to load or compile the previous set stays active.
+ */
+@Component
+@Slf4j
+public class NotificationTemplates {
+
+    private static final String CLASSPATH_PATTERN = "classpath*:templates/notifications.properties";
+    private static final String FILE_NAME = "notifications.properties";
+    private static final int MAX_RETAINED_BUFFER = 8 * 1024;
+
+    private final Path directory;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private volatile Map<String, CompiledTemplate> templates;
+    private volatile long directoryVersion;
+
+    public NotificationTemplates(NotificationProperties properties) throws IOException {
+        NotificationProperties.Templates config = properties.getTemplates();
+        this.directory = StringUtils.hasText(config.getDirectory()) ? Paths.get(config.getDirectory()) : null;
+        this.directoryVersion = directoryVersion();
+        this.templates = load();
+    }
+
+    public String render(String key, TemplateModel model) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        get(key).render(model, buffer);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    public CompiledTemplate get(String key) {
+        CompiledTemplate template = templates.get(key);
+        if (template == null) {
+            throw new IllegalArgumentException("No notification template for key: " + key);
+        }
+        return template;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.templates.reload-interval:5000}")
+    public void reloadIfChanged() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            long version = directoryVersion();
+            if (version == directoryVersion) {
+                return;
+            }
+            templates = load();
+            directoryVersion = version;
+            log.info("Reloaded notification templates from {}", directory);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Keeping previous notification templates; reload from {} failed", directory, e);
+        }
+    }
+
+    private Map<String, CompiledTemplate> load() throws IOException {
+        Properties source = new Properties();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(CLASSPATH_PATTERN)) {
+            try (InputStream in = resource.getInputStream()) {
+                merge(source, in);
+            }
+        }
+        for (Path file : directoryFiles()) {
+            try (InputStream in = Files.newInputStream(file)) {
+                merge(source, in);
+            }
+        }
+        if (source.isEmpty()) {
+            throw new IllegalStateException("No notification templates found");
+        }
+
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        for (String key : source.stringPropertyNames()) {
+            compiled.put(key, CompiledTemplate.compile(source.getProperty(key)));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private static void merge(Properties source, InputStream in) throws IOException {
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            source.load(reader);
+        }
+    }
+
+    private List<Path> directoryFiles() throws IOException {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().equals(FILE_NAME)).toList();
+        }
+    }
+
+    private long directoryVersion() throws IOException {
+        long version = 0;
+        for (Path file : directoryFiles()) {
+            version = 31 * version + Files.getLastModifiedTime(file).toMillis() + file.hashCode();
+        }
+        return version;
+    }
+}
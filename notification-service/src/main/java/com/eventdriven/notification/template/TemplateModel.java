@@ -0,0 +1,21 @@
+package com.eventdriven.notification.template;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Values available to a template. Instances are meant to be reused by one thread at a time.
+ */
+@Data
+@Accessors(chain = true)
+public class TemplateModel {
+    private long orderId;
+    private String reason;
+
+    void append(TemplateVariable variable, StringBuilder out) {
+        switch (variable) {
+            case ORDER_ID -> out.append(orderId);
+            case REASON -> out.append(reason != null ? reason : "");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.eventdriven.notification.template;
+
+/**
+ * Placeholders a template may reference as {@code {{name}}}; bound once at compile time.
+ */
+public enum TemplateVariable {
+    ORDER_ID("orderId"),
+    REASON("reason");
+
+    private final String placeholder;
+
+    TemplateVariable(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    static TemplateVariable forPlaceholder(String name) {
+        for (TemplateVariable variable : values()) {
+            if (variable.placeholder.equals(name)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template variable: {{" + name + "}}");
+    }
+}
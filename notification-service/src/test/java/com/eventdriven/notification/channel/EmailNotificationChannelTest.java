@@ -0,0 +1,162 @@
+package com.eventdriven.notification.channel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailNotificationChannelTest {
+
+    private StubSmtpServer smtpServer;
+    private EmailNotificationChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new StubSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        channel = new EmailNotificationChannel(mailSender, "noreply@eventdriven.com", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        channel.close();
+        smtpServer.close();
+    }
+
+    @Test
+    void send_ShouldDeliverMessage() throws Exception {
+        channel.send(notification(1L));
+
+        assertThat(smtpServer.messages).hasSize(1);
+        assertThat(smtpServer.messages.get(0))
+                .contains("Subject: Order Confirmed")
+                .contains("Your order #1 has been confirmed");
+    }
+
+    @Test
+    void send_ShouldReusePooledConnection() throws Exception {
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            channel.send(notification(orderId));
+        }
+
+        assertThat(smtpServer.messages).hasSize(5);
+        assertThat(smtpServer.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void send_AfterServerDroppedConnection_ShouldReconnect() throws Exception {
+        channel.send(notification(1L));
+        smtpServer.dropConnections();
+
+        channel.send(notification(2L));
+
+        assertThat(smtpServer.messages).hasSize(2);
+        assertThat(smtpServer.connections.get()).isEqualTo(2);
+    }
+
+    private static Notification notification(Long orderId) {
+        return Notification.builder()
+                .orderId(orderId)
+                .recipient("customer@example.com")
+                .subject("Order Confirmed")
+                .body("Your order #" + orderId + " has been confirmed")
+                .build();
+    }
+
+    /**
+     * Minimal in-process SMTP server that accepts everything and records message data.
+     */
+    private static class StubSmtpServer implements AutoCloseable {
+
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+        private final ServerSocket serverSocket;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        StubSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            executor.execute(this::acceptLoop);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void dropConnections() throws IOException {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    sockets.add(socket);
+                    executor.execute(() -> handle(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 stub ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // connection dropped
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            dropConnections();
+            executor.shutdownNow();
+        }
+    }
+}
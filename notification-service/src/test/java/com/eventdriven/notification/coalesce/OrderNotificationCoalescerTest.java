@@ -0,0 +1,144 @@
+package com.eventdriven.notification.coalesce;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import com.eventdriven.notification.service.NotificationService;
+import com.eventdriven.notification.service.OrderUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNotificationCoalescerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private NotificationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger acks = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.getCoalesce().setWindow(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(notificationService.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(notificationService.sendOrderSummary(any(), any(), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(notificationService.subject(any())).thenReturn("Payment Failed");
+    }
+
+    private OrderNotificationCoalescer coalescer() {
+        DigestBuffer digestBuffer = new DigestBuffer(notificationService, properties, meterRegistry);
+        return new OrderNotificationCoalescer(notificationService, digestBuffer, properties, meterRegistry);
+    }
+
+    @Test
+    void submit_CompleteSaga_ShouldSendOneSummaryAndAckAllEvents() {
+        OrderNotificationCoalescer coalescer = coalescer();
+
+        coalescer.submit(1L, null, OrderUpdate.of(OrderUpdate.Type.PAYMENT_SUCCEEDED)).thenRun(acks::incrementAndGet);
+        coalescer.submit(1L, "user123", OrderUpdate.of(OrderUpdate.Type.CREATED)).thenRun(acks::incrementAndGet);
+        assertThat(acks.get()).isZero();
+        coalescer.submit(1L, null, OrderUpdate.of(OrderUpdate.Type.INVENTORY_RESERVED)).thenRun(acks::incrementAndGet);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderUpdate>> updates = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendOrderSummary(eq(1L), eq("user123"), updates.capture());
+        assertThat(updates.getValue()).hasSize(3);
+        assertThat(acks.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("notification.coalesce.saved").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void flushDue_ShouldSendIncompleteOrderAfterWindow() {
+        properties.getCoalesce().setWindow(Duration.ofMillis(1));
+        OrderNotificationCoalescer coalescer = coalescer();
+
+        coalescer.submit(2L, "user123", OrderUpdate.of(OrderUpdate.Type.CREATED)).thenRun(acks::incrementAndGet);
+        sleep(5);
+        coalescer.flushDue();
+
+        verify(notificationService).send(eq(2L), eq("user123"), any(OrderUpdate.class));
+        assertThat(acks.get()).isEqualTo(1);
+    }
+
+    @Test
+    void flushDue_WhenDispatchFails_ShouldFailEveryUpdate() {
+        properties.getCoalesce().setWindow(Duration.ofMillis(1));
+        when(notificationService.sendOrderSummary(any(), any(), anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("provider down")));
+        OrderNotificationCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> created = coalescer.submit(3L, "user123", OrderUpdate.of(OrderUpdate.Type.CREATED));
+        CompletableFuture<Void> paid = coalescer.submit(3L, null, OrderUpdate.of(OrderUpdate.Type.PAYMENT_SUCCEEDED));
+        sleep(5);
+        coalescer.flushDue();
+
+        assertThat(created).isCompletedExceptionally();
+        assertThat(paid).isCompletedExceptionally();
+    }
+
+    @Test
+    void submit_WhenBufferFull_ShouldSpillUncoalesced() {
+        properties.getCoalesce().setMaxPendingOrders(1);
+        OrderNotificationCoalescer coalescer = coalescer();
+
+        coalescer.submit(1L, "user123", OrderUpdate.of(OrderUpdate.Type.CREATED)).thenRun(acks::incrementAndGet);
+        coalescer.submit(2L, "user456", OrderUpdate.of(OrderUpdate.Type.CREATED)).thenRun(acks::incrementAndGet);
+
+        verify(notificationService).send(eq(2L), eq("user456"), any(OrderUpdate.class));
+        verify(notificationService, never()).send(eq(1L), any(), any());
+        assertThat(meterRegistry.get("notification.coalesce.spilled").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_WithDigestEnabled_ShouldBufferFinishedOrderUntilDigest() {
+        properties.getDigest().setEnabled(true);
+        DigestBuffer digestBuffer = new DigestBuffer(notificationService, properties, meterRegistry);
+        OrderNotificationCoalescer coalescer =
+                new OrderNotificationCoalescer(notificationService, digestBuffer, properties, meterRegistry);
+
+        for (long orderId = 1; orderId <= 2; orderId++) {
+            coalescer.submit(orderId, "user123", OrderUpdate.of(OrderUpdate.Type.CREATED))
+                    .thenRun(acks::incrementAndGet);
+            coalescer.submit(orderId, null, new OrderUpdate(OrderUpdate.Type.PAYMENT_FAILED, "Insufficient funds"))
+                    .thenRun(acks::incrementAndGet);
+        }
+        verify(notificationService, never()).sendOrderSummary(any(), any(), anyList());
+        assertThat(acks.get()).isEqualTo(4);
+
+        digestBuffer.sendDigests();
+
+        verify(notificationService).sendDigest(eq("user123"), eq(List.of(
+                "Order #1: Payment Failed (Insufficient funds)",
+                "Order #2: Payment Failed (Insufficient funds)")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.eventdriven.notification.dedupe;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDeduplicatorTest {
+
+    private NotificationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.getDedupe().setExpectedEventsPerWindow(10_000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void isDuplicate_AfterMarkHandled_ShouldSuppressSameTopicAndOrderOnly() {
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry);
+
+        assertThat(deduplicator.isDuplicate("payment-failed-topic", 1L)).isFalse();
+        deduplicator.markHandled("payment-failed-topic", 1L);
+
+        assertThat(deduplicator.isDuplicate("payment-failed-topic", 1L)).isTrue();
+        assertThat(deduplicator.isDuplicate("payment-failed-topic", 2L)).isFalse();
+        assertThat(deduplicator.isDuplicate("inventory-reserved-topic", 1L)).isFalse();
+        assertThat(meterRegistry.counter("notification.dedupe.suppressed", "topic", "payment-failed-topic").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rotate_ShouldForgetEventsAfterTwoWindows() {
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry);
+        deduplicator.markHandled("order-created-topic", 1L);
+
+        deduplicator.rotate();
+        assertThat(deduplicator.isDuplicate("order-created-topic", 1L)).isTrue();
+
+        deduplicator.rotate();
+        assertThat(deduplicator.isDuplicate("order-created-topic", 1L)).isFalse();
+    }
+
+    @Test
+    void markHandled_WhenThreadsOverflowTogether_ShouldRotateOnce() throws Exception {
+        properties.getDedupe().setExpectedEventsPerWindow(1_000);
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry);
+        for (long orderId = 0; orderId < 1_000; orderId++) {
+            deduplicator.markHandled("order-created-topic", orderId);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> marks = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            long orderId = 10_000 + thread;
+            marks.add(executor.submit(() -> {
+                start.await();
+                deduplicator.markHandled("order-created-topic", orderId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> mark : marks) {
+            mark.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // The window before the overflow survives as the previous filter
+        assertThat(deduplicator.isDuplicate("order-created-topic", 0L)).isTrue();
+        assertThat(deduplicator.isDuplicate("order-created-topic", 999L)).isTrue();
+    }
+
+    @Test
+    void isDuplicate_AtExpectedLoad_ShouldStayNearConfiguredFalsePositiveRate() {
+        properties.getDedupe().setFalsePositiveRate(0.001);
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry);
+        for (long orderId = 0; orderId < 10_000; orderId++) {
+            deduplicator.markHandled("order-created-topic", orderId);
+        }
+
+        int falsePositives = 0;
+        for (long orderId = 10_000; orderId < 110_000; orderId++) {
+            if (deduplicator.isDuplicate("order-created-topic", orderId)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    void isDuplicate_WhenDisabled_ShouldNeverSuppress() {
+        properties.getDedupe().setEnabled(false);
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry);
+        deduplicator.markHandled("order-created-topic", 1L);
+
+        assertThat(deduplicator.isDuplicate("order-created-topic", 1L)).isFalse();
+    }
+}
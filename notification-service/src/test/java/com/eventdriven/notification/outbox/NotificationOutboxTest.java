@@ -0,0 +1,231 @@
+package com.eventdriven.notification.outbox;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import com.eventdriven.notification.service.OrderUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class NotificationOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void enqueue_ShouldCompleteOnceDurableAndDeliverInOrder() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox outbox = open(4096, recording(delivered));
+
+        for (long i = 1; i <= 50; i++) {
+            outbox.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 50);
+        assertThat(delivered).isSortedAccordingTo(Long::compare).startsWith(1L).endsWith(50L);
+        outbox.close();
+    }
+
+    @Test
+    void enqueue_FromConcurrentWriters_ShouldDeliverEveryRecordExactlyOnce() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox outbox = open(4096, recording(delivered));
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+
+        List<Future<?>> done = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            long first = writer * 500L + 1;
+            done.add(writers.submit(() -> {
+                List<CompletableFuture<Void>> durable = new ArrayList<>();
+                for (long i = first; i < first + 500; i++) {
+                    durable.add(outbox.enqueue(entry(i)));
+                }
+                CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).join();
+            }));
+        }
+        for (Future<?> writer : done) {
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        writers.shutdown();
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> delivered.size() >= 2000);
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(delivered).hasSize(2000).doesNotHaveDuplicates()
+                .containsAll(LongStream.rangeClosed(1, 2000).boxed().toList());
+        outbox.close();
+    }
+
+    @Test
+    void start_ShouldReplayUndeliveredNotificationsAfterRestart() throws Exception {
+        NotificationOutbox crashed = open(64 * 1024, n -> new CompletableFuture<>());
+        for (long i = 1; i <= 10; i++) {
+            crashed.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+        crashed.close();
+
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox restarted = open(64 * 1024, recording(delivered));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 10);
+        restarted.close();
+
+        List<Long> again = new CopyOnWriteArrayList<>();
+        NotificationOutbox third = open(64 * 1024, recording(again));
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(again).isEmpty();
+        third.close();
+    }
+
+    @Test
+    void start_ShouldDiscardTornTailAndKeepEarlierRecords() throws Exception {
+        NotificationOutbox crashed = open(64 * 1024, n -> new CompletableFuture<>());
+        for (long i = 1; i <= 3; i++) {
+            crashed.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+        crashed.close();
+
+        Path segment = segmentFiles().get(0);
+        int secondRecord;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            secondRecord = OutboxSegment.HEADER_SIZE + file.readInt();
+            // Corrupt the payload of the second record as if the write never completed
+            file.seek(secondRecord + OutboxSegment.HEADER_SIZE + 2);
+            file.write(0x7f);
+        }
+
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox restarted = open(64 * 1024, recording(delivered));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 1);
+
+        restarted.enqueue(entry(4)).get(5, TimeUnit.SECONDS);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 2);
+        assertThat(delivered).containsExactly(1L, 4L);
+        restarted.close();
+    }
+
+    @Test
+    void start_WithCorruptSealedSegment_ShouldSkipLostRecordsAndKeepCheckpointMoving() throws Exception {
+        NotificationOutbox crashed = open(512, n -> new CompletableFuture<>());
+        for (long i = 1; i <= 20; i++) {
+            crashed.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+        crashed.close();
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            int secondRecord = OutboxSegment.HEADER_SIZE + file.readInt();
+            file.seek(secondRecord + OutboxSegment.HEADER_SIZE + 2);
+            file.write(0x7f);
+        }
+
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox restarted = open(512, recording(delivered));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.contains(20L));
+        assertThat(delivered).startsWith(1L).doesNotContain(2L);
+
+        restarted.checkpointAndCompact();
+
+        assertThat(Files.readString(directory.resolve("checkpoint"))).isEqualTo("20");
+        assertThat(segmentFiles()).hasSize(1);
+        restarted.close();
+    }
+
+    @Test
+    void checkpointAndCompact_ShouldDeleteFullyDeliveredSegments() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        NotificationOutbox outbox = open(512, recording(delivered));
+
+        for (long i = 1; i <= 40; i++) {
+            outbox.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 40);
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+
+        outbox.checkpointAndCompact();
+
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(Files.readString(directory.resolve("checkpoint"))).isEqualTo("40");
+        outbox.close();
+    }
+
+    @Test
+    void redriveParked_ShouldKeepUndeliverableNotificationWithoutBlockingCheckpoint() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        NotificationOutbox outbox = open(64 * 1024, entry -> {
+            if (failing.get() && entry.getOrderId() == 2L) {
+                return CompletableFuture.failedFuture(new IllegalStateException("provider down"));
+            }
+            delivered.add(entry.getOrderId());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        for (long i = 1; i <= 3; i++) {
+            outbox.enqueue(entry(i)).get(5, TimeUnit.SECONDS);
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> Files.exists(directory.resolve("parked/2.json")));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.size() == 2);
+        outbox.checkpointAndCompact();
+        assertThat(Files.readString(directory.resolve("checkpoint"))).isEqualTo("3");
+
+        failing.set(false);
+        outbox.redriveParked();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !Files.exists(directory.resolve("parked/2.json")));
+        assertThat(delivered).containsExactly(1L, 3L, 2L);
+        outbox.close();
+    }
+
+    private NotificationOutbox open(int segmentSize, Function<OutboxEntry, CompletableFuture<Void>> sink)
+            throws Exception {
+        NotificationProperties.Outbox properties = new NotificationProperties.Outbox();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(segmentSize);
+        NotificationOutbox outbox = new NotificationOutbox(properties, objectMapper, sink, new SimpleMeterRegistry());
+        outbox.start();
+        return outbox;
+    }
+
+    private static Function<OutboxEntry, CompletableFuture<Void>> recording(List<Long> delivered) {
+        return entry -> {
+            delivered.add(entry.getOrderId());
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    private static OutboxEntry entry(long orderId) {
+        return OutboxEntry.builder()
+                .orderId(orderId)
+                .userId("user-" + orderId)
+                .type(OrderUpdate.Type.PAYMENT_FAILED)
+                .reason("Card declined for order #" + orderId)
+                .build();
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(OutboxSegment::isSegmentFile).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eventdriven.notification.recipient;
+
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.notification.config.NotificationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RecipientDirectoryTest {
+
+    @TempDir
+    Path directory;
+
+    private RecipientDirectory recipientDirectory;
+
+    @AfterEach
+    void tearDown() {
+        recipientDirectory.close();
+    }
+
+    @Test
+    void resolve_AfterRecord_ShouldReturnUserIdAcrossRestarts() {
+        recipientDirectory = open();
+        recipientDirectory.record(1L, "user123");
+
+        assertThat(recipientDirectory.resolve(1L)).isEqualTo("user123");
+        assertThat(recipientDirectory.resolve(2L)).isNull();
+
+        recipientDirectory.close();
+        recipientDirectory = open();
+
+        assertThat(recipientDirectory.resolve(1L)).isEqualTo("user123");
+    }
+
+    @Test
+    void prune_ShouldDropCompletedOrdersAfterTtlOnly() {
+        recipientDirectory = open();
+        recipientDirectory.record(1L, "finished");
+        recipientDirectory.record(2L, "in-flight");
+        recipientDirectory.markCompleted(1L);
+
+        long afterTtl = System.currentTimeMillis() + Duration.ofHours(2).toMillis();
+        assertThat(recipientDirectory.prune(afterTtl)).isEqualTo(1);
+
+        assertThat(recipientDirectory.resolve(1L)).isNull();
+        assertThat(recipientDirectory.resolve(2L)).isEqualTo("in-flight");
+    }
+
+    @Test
+    void rebuildFrom_ShouldReplayOrderCreatedTopic() {
+        recipientDirectory = open();
+        TopicPartition partition = new TopicPartition(RecipientDirectory.TOPIC, 0);
+        MockConsumer<String, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(RecipientDirectory.TOPIC,
+                List.of(new PartitionInfo(RecipientDirectory.TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 3L));
+        consumer.schedulePollTask(() -> {
+            for (long orderId = 1; orderId <= 3; orderId++) {
+                consumer.addRecord(new ConsumerRecord<>(RecipientDirectory.TOPIC, 0, orderId - 1, null,
+                        new OrderCreatedEvent(orderId, "user" + orderId, BigDecimal.TEN, List.of())));
+            }
+        });
+
+        assertThat(recipientDirectory.rebuildFrom(consumer)).isEqualTo(3);
+        assertThat(recipientDirectory.resolve(3L)).isEqualTo("user3");
+        assertThat(recipientDirectory.size()).isEqualTo(3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecipientDirectory open() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getRecipients().setFile(directory.resolve("recipients.mv").toString());
+        properties.getRecipients().setHotSetSize(1);
+        properties.getRecipients().setCompletedTtl(Duration.ofHours(1));
+        properties.getRecipients().setRebuildOnEmpty(false);
+        RecipientDirectory opened = new RecipientDirectory(properties, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        opened.open();
+        return opened;
+    }
+}
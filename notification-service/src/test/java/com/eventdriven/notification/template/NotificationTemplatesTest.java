@@ -0,0 +1,90 @@
+package com.eventdriven.notification.template;
+
+import com.eventdriven.notification.config.NotificationProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationTemplatesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compile_ShouldRenderLiteralsAndVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("Order #{{orderId}} failed: {{ reason }}.");
+        StringBuilder out = new StringBuilder();
+
+        template.render(new TemplateModel().setOrderId(42).setReason("Card declined"), out);
+
+        assertThat(out).hasToString("Order #42 failed: Card declined.");
+    }
+
+    @Test
+    void compile_WithUnknownOrUnclosedPlaceholder_ShouldFail() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("Hello {{name}}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledTemplate.compile("Order #{{orderId"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void render_ShouldUseBundledTemplatesWithDirectoryOverrides() throws Exception {
+        Files.writeString(directory.resolve("notifications.properties"),
+                "PAYMENT_FAILED.subject=Payment declined\n");
+        NotificationTemplates templates = new NotificationTemplates(properties());
+
+        assertThat(templates.render("PAYMENT_FAILED.body",
+                new TemplateModel().setOrderId(7).setReason("Insufficient funds")))
+                .isEqualTo("Payment for your order #7 failed. Reason: Insufficient funds");
+        assertThat(templates.render("PAYMENT_FAILED.subject", new TemplateModel()))
+                .isEqualTo("Payment declined");
+        assertThat(templates.render("CREATED.subject", new TemplateModel()))
+                .isEqualTo("Order Created");
+    }
+
+    @Test
+    void reloadIfChanged_ShouldSwapInEditedTemplatesAndKeepPreviousOnError() throws Exception {
+        Path file = directory.resolve("notifications.properties");
+        Files.writeString(file, "CREATED.subject=Thanks for order #{{orderId}}\n");
+        NotificationTemplates templates = new NotificationTemplates(properties());
+        assertThat(templates.render("CREATED.subject", new TemplateModel().setOrderId(1)))
+                .isEqualTo("Thanks for order #1");
+
+        Files.writeString(file, "CREATED.subject=We got order #{{orderId}}\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        templates.reloadIfChanged();
+        assertThat(templates.render("CREATED.subject", new TemplateModel().setOrderId(1)))
+                .isEqualTo("We got order #1");
+
+        Files.writeString(file, "CREATED.subject=Broken {{customer}}\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+        templates.reloadIfChanged();
+        assertThat(templates.render("CREATED.subject", new TemplateModel().setOrderId(1)))
+                .isEqualTo("We got order #1");
+
+        Files.writeString(file, "CREATED.subject=Malformed \\uZZZZ escape\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 30_000));
+        templates.reloadIfChanged();
+        assertThat(templates.render("CREATED.subject", new TemplateModel().setOrderId(1)))
+                .isEqualTo("We got order #1");
+
+        Files.writeString(file, "CREATED.subject=Order #{{orderId}} is in\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 40_000));
+        templates.reloadIfChanged();
+        assertThat(templates.render("CREATED.subject", new TemplateModel().setOrderId(1)))
+                .isEqualTo("Order #1 is in");
+    }
+
+    private NotificationProperties properties() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getTemplates().setDirectory(directory.toString());
+        return properties;
+    }
+}
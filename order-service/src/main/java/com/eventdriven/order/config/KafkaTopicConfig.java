@@ -1,18 +1,67 @@
 package com.eventdriven.order.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+import java.util.stream.Stream;
 
 @Configuration
 public class KafkaTopicConfig {
 
+    // Every topic of the saga listener has as many partitions, so the range assignor hands partition N of
+    // each to the same instance, and an order's events, keyed by its id, all go to one owner
+    static final int SAGA_PARTITIONS = 3;
+
     @Bean
     public NewTopic orderCreatedTopic() {
         return TopicBuilder.name("order-created-topic")
-                .partitions(3)
+                .partitions(SAGA_PARTITIONS)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic reserveInventoryTopic() {
+        return TopicBuilder.name("reserve-inventory-topic")
+                .partitions(SAGA_PARTITIONS)
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic refundPaymentTopic() {
+        return TopicBuilder.name("refund-payment-topic")
+                .partitions(SAGA_PARTITIONS)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics sagaEventTopics() {
+        return new KafkaAdmin.NewTopics(Stream.of("payment-succeeded-topic", "payment-failed-topic",
+                        "inventory-reserved-topic", "inventory-unavailable-topic", "payment-refunded-topic")
+                .map(name -> TopicBuilder.name(name)
+                        .partitions(SAGA_PARTITIONS)
+                        .replicas(1)
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    public NewTopic orderStateTopic(OrderStateProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .replicas(properties.getReplicas())
+                .compact()
+                // Roll segments often so the cleaner can compact everything but the newest hour
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG,
+                        String.valueOf(properties.getTombstoneRetention().toMillis()))
+                .build();
+    }
 }
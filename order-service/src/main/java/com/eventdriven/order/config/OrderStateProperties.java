@@ -0,0 +1,43 @@
+package com.eventdriven.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.state")
+@Data
+public class OrderStateProperties {
+
+    /**
+     * Log-compacted topic holding each order's latest state, keyed by order id.
+     */
+    private String topic = "order-state-topic";
+    private int partitions = 3;
+    private int replicas = 1;
+
+    /**
+     * How long tombstones of archived orders stay readable, so a consumer bootstrapping from the
+     * topic within this window still learns to drop them.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(1);
+
+    /**
+     * State changes are sent in batches: the producer waits up to {@code linger} for a batch of up to
+     * {@code batchSize} bytes, compressed as a whole.
+     */
+    private Duration linger = Duration.ofMillis(20);
+    private int batchSize = 65536;
+    private String compression = "lz4";
+
+    /**
+     * Confirmed, failed and cancelled orders untouched for this long are archived and removed from
+     * the topic.
+     */
+    private boolean archiveEnabled = true;
+    private Duration archiveAfter = Duration.ofDays(30);
+    private Duration archiveInterval = Duration.ofHours(1);
+    private int archiveBatchSize = 1000;
+}
@@ -0,0 +1,28 @@
+package com.eventdriven.order.config;
+
+import com.eventdriven.order.stream.OrderStatusStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class OrderStreamConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "order.stream", name = "redis-fanout", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer orderStatusListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      OrderStatusStream orderStatusStream,
+                                                                      OrderStreamProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> orderStatusStream.onBroadcast(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getRedisChannel()));
+        return container;
+    }
+}
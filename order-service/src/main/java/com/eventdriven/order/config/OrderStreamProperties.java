@@ -0,0 +1,42 @@
+package com.eventdriven.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.stream")
+@Data
+public class OrderStreamProperties {
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Connections are closed after this long and the client reconnects with Last-Event-ID, which
+     * spreads long-lived streams across instances as they come and go.
+     */
+    private Duration connectionTtl = Duration.ofMinutes(30);
+
+    /**
+     * Status changes kept per user for clients resuming after a reconnect.
+     */
+    private int replayBufferSize = 32;
+    private Duration replayRetention = Duration.ofMinutes(5);
+
+    /**
+     * Broadcast status changes to every instance over Redis pub/sub, since the instance that consumes
+     * an order's event is rarely the one holding its user's stream.
+     */
+    private boolean redisFanout = true;
+    private String redisChannel = "order-status";
+
+    /**
+     * Threads writing to connections, so a slow client never blocks the Redis listener or heartbeat.
+     * A connection with more than {@code maxPendingEvents} unsent events is considered stalled and closed.
+     */
+    private int sendThreads = 4;
+    private int sendQueueCapacity = 10_000;
+    private int maxPendingEvents = 64;
+}
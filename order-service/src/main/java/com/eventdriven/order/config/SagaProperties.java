@@ -0,0 +1,42 @@
+package com.eventdriven.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.saga")
+@Data
+public class SagaProperties {
+
+    /**
+     * Saga log entries written per transaction. Entries queue up while a write is running and all go
+     * into the next one, up to this many.
+     */
+    private int logBatchSize = 500;
+
+    /**
+     * Entries waiting for a write before the saga listener is held back.
+     */
+    private int logCapacity = 10000;
+
+    /**
+     * Pause before a failed write is tried again. Entries are never dropped, and events are only
+     * acknowledged once their entry is written.
+     */
+    private Duration logRetryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Pause before a saga command that failed to send is sent again. Its step is already logged, so the
+     * command is retried until it goes out, and its event acknowledged then.
+     */
+    private Duration commandRetryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Entries of ended sagas are deleted this long after the saga ended.
+     */
+    private Duration logRetention = Duration.ofDays(7);
+    private Duration pruneInterval = Duration.ofHours(1);
+}
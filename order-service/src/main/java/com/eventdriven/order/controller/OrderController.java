@@ -3,12 +3,17 @@ package com.eventdriven.order.controller;
 import com.eventdriven.order.dto.CreateOrderRequest;
 import com.eventdriven.order.dto.OrderResponse;
 import com.eventdriven.order.service.OrderService;
+import com.eventdriven.order.stream.OrderStatusStream;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderStatusStream orderStatusStream;
 
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
@@ -26,16 +32,49 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Answered with 304 by MVC, before the body is written, when If-None-Match carries the ETag
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderResponse> getOrder(@PathVariable Long orderId) {
         OrderResponse response = orderService.getOrderById(orderId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag(response)).body(response);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserOrders(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderStatusStream.subscribe(userId, lastEventId);
     }
 
     @GetMapping("/user")
     public ResponseEntity<List<OrderResponse>> getUserOrders(
             @RequestHeader("X-User-Id") String userId) {
         List<OrderResponse> responses = orderService.getOrdersByUserId(userId);
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok().eTag(etag(responses)).body(responses);
+    }
+
+    /**
+     * An order changes only through updates that bump {@code updatedAt}, so id and timestamp identify
+     * one representation of it.
+     */
+    static String etag(OrderResponse order) {
+        return "\"" + order.getId() + "-" + version(order) + "\"";
+    }
+
+    static String etag(List<OrderResponse> orders) {
+        long hash = 1125899906842597L;
+        for (OrderResponse order : orders) {
+            hash = 31 * hash + order.getId();
+            hash = 31 * hash + version(order);
+        }
+        return "\"" + orders.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long version(OrderResponse order) {
+        LocalDateTime updatedAt = order.getUpdatedAt();
+        if (updatedAt == null) {
+            return 0;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
     }
 }
@@ -7,5 +7,7 @@ public enum OrderStatus {
     INVENTORY_RESERVED,
     CONFIRMED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    // Finished long ago; kept for history but no longer on the order state topic
+    ARCHIVED
 }
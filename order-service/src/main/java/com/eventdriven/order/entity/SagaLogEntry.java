@@ -0,0 +1,47 @@
+package com.eventdriven.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One step taken by an order's saga, appended to the saga log before the step's commands are sent.
+ * The last entry of an order is its saga's state.
+ */
+@Entity
+@Table(name = "saga_log", indexes = @Index(name = "idx_saga_log_order_id", columnList = "orderId"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaLogEntry {
+
+    // Sequence ids come in blocks, so Hibernate can batch a flush's inserts; identity ids cannot be
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saga_log_seq")
+    @SequenceGenerator(name = "saga_log_seq", sequenceName = "saga_log_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SagaStep step;
+
+    // The event that moved the saga to this step
+    @Column(nullable = false)
+    private String event;
+
+    private String paymentId;
+
+    // When the order was placed, for saga latency after a restart
+    private Long sagaOrigin;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
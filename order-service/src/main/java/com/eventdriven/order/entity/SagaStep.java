@@ -0,0 +1,40 @@
+package com.eventdriven.order.entity;
+
+/**
+ * Where an order's saga stands. Each step implies the order status shown to clients.
+ */
+public enum SagaStep {
+    AWAITING_PAYMENT(OrderStatus.PENDING),
+    AWAITING_INVENTORY(OrderStatus.PAYMENT_CONFIRMED),
+    COMPLETED(OrderStatus.CONFIRMED),
+    FAILED(OrderStatus.FAILED),
+    // Paid for but cannot be fulfilled; the payment is being refunded
+    COMPENSATING(OrderStatus.FAILED),
+    COMPENSATED(OrderStatus.FAILED);
+
+    private final OrderStatus orderStatus;
+
+    SagaStep(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == COMPENSATED;
+    }
+
+    /**
+     * The step an order with this status is at, for orders whose saga is not in the saga log.
+     */
+    public static SagaStep of(OrderStatus status) {
+        return switch (status) {
+            case PENDING, PAYMENT_PROCESSING -> AWAITING_PAYMENT;
+            case PAYMENT_CONFIRMED, INVENTORY_RESERVED -> AWAITING_INVENTORY;
+            case CONFIRMED -> COMPLETED;
+            case FAILED, CANCELLED, ARCHIVED -> FAILED;
+        };
+    }
+}
@@ -1,15 +0,0 @@
-package com.eventdriven.order.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class PaymentFailedEvent {
-    private Long orderId;
-    private String reason;
-}
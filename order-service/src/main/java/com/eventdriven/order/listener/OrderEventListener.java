@@ -1,41 +1,49 @@
 package com.eventdriven.order.listener;
 
-import com.eventdriven.order.entity.OrderStatus;
-import com.eventdriven.order.event.*;
-import com.eventdriven.order.service.OrderService;
+import com.eventdriven.events.*;
+import com.eventdriven.order.saga.SagaOrchestrator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+/**
+ * Every saga event goes through one listener, so the orchestrator sees an order's events in the
+ * order they are consumed. Events are acknowledged by the orchestrator once their step is logged.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventListener {
 
-    private final OrderService orderService;
+    private final SagaOrchestrator sagaOrchestrator;
 
-    @KafkaListener(topics = "payment-succeeded-topic", groupId = "order-service-group")
-    public void handlePaymentSucceeded(PaymentSucceededEvent event) {
-        log.info("Received PaymentSucceededEvent for order: {}", event.getOrderId());
-        orderService.updateOrderStatus(event.getOrderId(), OrderStatus.PAYMENT_CONFIRMED);
-    }
-
-    @KafkaListener(topics = "payment-failed-topic", groupId = "order-service-group")
-    public void handlePaymentFailed(PaymentFailedEvent event) {
-        log.info("Received PaymentFailedEvent for order: {}", event.getOrderId());
-        orderService.updateOrderStatus(event.getOrderId(), OrderStatus.FAILED);
-    }
-
-    @KafkaListener(topics = "inventory-reserved-topic", groupId = "order-service-group")
-    public void handleInventoryReserved(InventoryReservedEvent event) {
-        log.info("Received InventoryReservedEvent for order: {}", event.getOrderId());
-        orderService.updateOrderStatus(event.getOrderId(), OrderStatus.CONFIRMED);
-    }
-
-    @KafkaListener(topics = "inventory-unavailable-topic", groupId = "order-service-group")
-    public void handleInventoryUnavailable(InventoryUnavailableEvent event) {
-        log.info("Received InventoryUnavailableEvent for order: {}", event.getOrderId());
-        orderService.updateOrderStatus(event.getOrderId(), OrderStatus.FAILED);
+    @KafkaListener(topics = {"order-created-topic", "payment-succeeded-topic", "payment-failed-topic",
+            "inventory-reserved-topic", "inventory-unavailable-topic", "payment-refunded-topic"},
+            groupId = "order-service-group")
+    public void handleSagaEvent(Object event, Acknowledgment ack) {
+        if (event instanceof OrderCreatedEvent created) {
+            log.info("Received OrderCreatedEvent for order: {}", created.getOrderId());
+            sagaOrchestrator.onOrderCreated(created, ack);
+        } else if (event instanceof PaymentSucceededEvent succeeded) {
+            log.info("Received PaymentSucceededEvent for order: {}", succeeded.getOrderId());
+            sagaOrchestrator.onPaymentSucceeded(succeeded, ack);
+        } else if (event instanceof PaymentFailedEvent failed) {
+            log.info("Received PaymentFailedEvent for order: {}", failed.getOrderId());
+            sagaOrchestrator.onPaymentFailed(failed, ack);
+        } else if (event instanceof InventoryReservedEvent reserved) {
+            log.info("Received InventoryReservedEvent for order: {}", reserved.getOrderId());
+            sagaOrchestrator.onInventoryReserved(reserved, ack);
+        } else if (event instanceof InventoryUnavailableEvent unavailable) {
+            log.info("Received InventoryUnavailableEvent for order: {}", unavailable.getOrderId());
+            sagaOrchestrator.onInventoryUnavailable(unavailable, ack);
+        } else if (event instanceof PaymentRefundedEvent refunded) {
+            log.info("Received PaymentRefundedEvent for order: {}", refunded.getOrderId());
+            sagaOrchestrator.onPaymentRefunded(refunded, ack);
+        } else {
+            log.warn("Ignoring unexpected {}", event.getClass().getSimpleName());
+            ack.acknowledge();
+        }
     }
 }
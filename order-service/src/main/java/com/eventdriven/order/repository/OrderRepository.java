@@ -2,13 +2,18 @@ package com.eventdriven.order.repository;
 
 import com.eventdriven.order.entity.Order;
 import com.eventdriven.order.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(String userId);
     List<Order> findByStatus(OrderStatus status);
+    List<Order> findByStatusInAndUpdatedAtBefore(Collection<OrderStatus> statuses, LocalDateTime cutoff,
+                                                 Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.eventdriven.order.repository;
+
+import com.eventdriven.order.entity.SagaLogEntry;
+import com.eventdriven.order.entity.SagaStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SagaLogRepository extends JpaRepository<SagaLogEntry, Long> {
+
+    @Query("select e from SagaLogEntry e where e.id in "
+            + "(select max(l.id) from SagaLogEntry l group by l.orderId) and e.step not in :terminal")
+    List<SagaLogEntry> findLatestOfOpenSagas(@Param("terminal") Collection<SagaStep> terminal);
+
+    Optional<SagaLogEntry> findFirstByOrderIdOrderByIdDesc(Long orderId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from SagaLogEntry e where e.orderId in "
+            + "(select t.orderId from SagaLogEntry t where t.step in :terminal and t.createdAt < :cutoff)")
+    int deleteEndedBefore(@Param("terminal") Collection<SagaStep> terminal, @Param("cutoff") LocalDateTime cutoff);
+}
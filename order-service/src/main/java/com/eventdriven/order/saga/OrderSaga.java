@@ -0,0 +1,48 @@
+package com.eventdriven.order.saga;
+
+import com.eventdriven.kafka.saga.SagaContext;
+import com.eventdriven.order.entity.SagaLogEntry;
+import com.eventdriven.order.entity.SagaStep;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory state of one order's saga, owned by the {@link SagaOrchestrator}.
+ */
+@Getter
+@Setter
+class OrderSaga {
+
+    private final Long orderId;
+    private SagaStep step;
+    private String paymentId;
+    private SagaContext context;
+
+    /**
+     * Taken from the saga log or the order rather than moved here by this instance, so the command of
+     * its current step may not have gone out.
+     */
+    private boolean recovered;
+
+    /**
+     * Steps taken here whose log entry is not written yet. While there are any, this copy is ahead of
+     * the log.
+     */
+    private final AtomicInteger unlogged = new AtomicInteger();
+
+    OrderSaga(Long orderId, SagaStep step, SagaContext context, boolean recovered) {
+        this.orderId = orderId;
+        this.step = step;
+        this.context = context;
+        this.recovered = recovered;
+    }
+
+    static OrderSaga recovered(SagaLogEntry entry) {
+        OrderSaga saga = new OrderSaga(entry.getOrderId(), entry.getStep(),
+                entry.getSagaOrigin() == null ? null : SagaContext.start(entry.getSagaOrigin()), true);
+        saga.setPaymentId(entry.getPaymentId());
+        return saga;
+    }
+}
@@ -0,0 +1,210 @@
+package com.eventdriven.order.saga;
+
+import com.eventdriven.kafka.replay.ReplayMode;
+import com.eventdriven.order.config.SagaProperties;
+import com.eventdriven.order.entity.OrderStatus;
+import com.eventdriven.order.entity.SagaLogEntry;
+import com.eventdriven.order.repository.SagaLogRepository;
+import com.eventdriven.order.service.OrderService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write-ahead log of saga steps in the {@code saga_log} table. {@link #append} queues an entry and
+ * returns a future that completes once it is committed. A flusher thread writes whatever has queued
+ * up in one transaction, together with the order statuses the entries imply, so the log and the
+ * orders never disagree and a busy saga listener costs one commit per batch rather than per event.
+ */
+@Component
+@Slf4j
+public class SagaLog {
+
+    private final SagaLogRepository repository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int capacity;
+    private final long retryBackoffMillis;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final Timer flushTimer;
+    private final DistributionSummary groupCommitSize;
+
+    public SagaLog(SagaLogRepository repository,
+                   OrderService orderService,
+                   PlatformTransactionManager transactionManager,
+                   SagaProperties properties,
+                   MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.orderService = orderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.getLogBatchSize();
+        this.capacity = properties.getLogCapacity();
+        this.retryBackoffMillis = properties.getLogRetryBackoff().toMillis();
+
+        this.flushTimer = Timer.builder("saga.log.flush").register(meterRegistry);
+        this.groupCommitSize = DistributionSummary.builder("saga.log.group.commit.size").register(meterRegistry);
+        Gauge.builder("saga.log.pending", this, SagaLog::pendingCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "saga-log-flusher");
+        flusher.start();
+    }
+
+    /**
+     * Queues the entry and returns a future that completes once it and its order status are committed.
+     */
+    public CompletableFuture<Void> append(SagaLogEntry entry) {
+        if (ReplayMode.isActive()) {
+            // A replay already runs each batch of events in one transaction; write in it
+            write(List.of(entry));
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (lock) {
+            // Holds the listener back while the database falls behind
+            while (pending.size() >= capacity && running) {
+                if (!await()) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("Interrupted appending to saga log"));
+                }
+            }
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Saga log is closed"));
+            }
+            pending.add(new Pending(entry, durable));
+            lock.notifyAll();
+        }
+        return durable;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (lock) {
+                while (pending.isEmpty() && running) {
+                    if (!await()) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+            }
+            flushPending();
+        }
+    }
+
+    /**
+     * Writes up to a batch of queued entries in one transaction. Returns false if nothing was queued.
+     */
+    boolean flushPending() {
+        List<Pending> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return false;
+            }
+            if (pending.size() <= batchSize) {
+                batch = pending;
+                pending = new ArrayList<>();
+            } else {
+                batch = new ArrayList<>(pending.subList(0, batchSize));
+                pending.subList(0, batchSize).clear();
+            }
+            lock.notifyAll();
+        }
+
+        List<SagaLogEntry> entries = batch.stream().map(Pending::entry).toList();
+        while (true) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(entries)));
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Saga log closed with {} entries unwritten; their events will be redelivered",
+                            batch.size(), e);
+                    batch.forEach(p -> p.durable().completeExceptionally(e));
+                    return true;
+                }
+                log.error("Failed to write {} saga log entries, retrying", batch.size(), e);
+                if (!sleep(retryBackoffMillis)) {
+                    batch.forEach(p -> p.durable().completeExceptionally(e));
+                    return true;
+                }
+            }
+        }
+        groupCommitSize.record(batch.size());
+        batch.forEach(p -> p.durable().complete(null));
+        return true;
+    }
+
+    private void write(List<SagaLogEntry> entries) {
+        repository.saveAll(entries);
+        // An order's last entry in the batch decides its status
+        Map<Long, OrderStatus> statuses = new LinkedHashMap<>();
+        entries.forEach(entry -> statuses.put(entry.getOrderId(), entry.getStep().getOrderStatus()));
+        orderService.updateOrderStatuses(statuses);
+    }
+
+    private int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private boolean await() {
+        try {
+            lock.wait();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes what is still queued; listeners have stopped by now.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (flusher != null) {
+            flusher.join();
+        }
+    }
+
+    private record Pending(SagaLogEntry entry, CompletableFuture<Void> durable) {
+    }
+}
@@ -0,0 +1,396 @@
+package com.eventdriven.order.saga;
+
+import com.eventdriven.events.*;
+import com.eventdriven.kafka.replay.ReplayMode;
+import com.eventdriven.kafka.saga.SagaContext;
+import com.eventdriven.kafka.saga.SagaTracing;
+import com.eventdriven.order.config.SagaProperties;
+import com.eventdriven.order.entity.Order;
+import com.eventdriven.order.entity.OrderStatus;
+import com.eventdriven.order.entity.SagaLogEntry;
+import com.eventdriven.order.entity.SagaStep;
+import com.eventdriven.order.repository.OrderRepository;
+import com.eventdriven.order.repository.SagaLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Drives each order through payment and inventory. A saga starts when the order's OrderCreatedEvent
+ * comes back to this service; payment-service takes the same event as its cue to charge. A paid order
+ * gets a {@link ReserveInventoryCommand}, and a paid order that cannot be fulfilled gets a
+ * {@link RefundPaymentCommand} as its compensation. Sagas only move forward: an event that does not
+ * fit the saga's step, such as a duplicate or a late arrival, is acknowledged and ignored.
+ * <p>
+ * Saga state lives in memory. Each step is appended to the {@link SagaLog}. The step's command is sent
+ * and its event acknowledged once the entry is committed. A step the log refuses is rolled back and its
+ * event thrown back to the retry topics; a command that fails to send is sent again until it goes out.
+ * Open sagas are read back from the log on startup. Orders the log does not know, such as those placed
+ * before the orchestrator, are picked up at the step their status implies.
+ * <p>
+ * Saga events and commands are keyed by order id, and the saga listener takes its topics with the
+ * range assignor, so one instance owns all of an order's events while the group is stable. Ownership
+ * still moves on a rebalance, and retried events are consumed apart from the main topics, so an event
+ * that does not fit the step held here is checked against the saga log before it is ignored.
+ */
+@Component
+@Slf4j
+public class SagaOrchestrator {
+
+    static final String RESERVE_INVENTORY_TOPIC = "reserve-inventory-topic";
+    static final String REFUND_PAYMENT_TOPIC = "refund-payment-topic";
+
+    private static final Set<SagaStep> ENDED = EnumSet.of(SagaStep.COMPLETED, SagaStep.FAILED, SagaStep.COMPENSATED);
+
+    private final SagaLog sagaLog;
+    private final SagaLogRepository sagaLogRepository;
+    private final OrderRepository orderRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SagaTracing sagaTracing;
+    private final SagaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, OrderSaga> sagas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saga-retries");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter commandRetries;
+
+    public SagaOrchestrator(SagaLog sagaLog,
+                            SagaLogRepository sagaLogRepository,
+                            OrderRepository orderRepository,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            SagaTracing sagaTracing,
+                            SagaProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.sagaLog = sagaLog;
+        this.sagaLogRepository = sagaLogRepository;
+        this.orderRepository = orderRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.sagaTracing = sagaTracing;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.commandRetries = Counter.builder("saga.command.retries")
+                .register(meterRegistry);
+
+        for (SagaStep step : SagaStep.values()) {
+            if (!step.isTerminal()) {
+                Gauge.builder("saga.inflight", this, orchestrator -> orchestrator.inFlight(step))
+                        .tag("step", step.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<SagaLogEntry> open = sagaLogRepository.findLatestOfOpenSagas(ENDED);
+        open.forEach(entry -> sagas.put(entry.getOrderId(), OrderSaga.recovered(entry)));
+        log.info("Recovered {} open sagas from the saga log", open.size());
+    }
+
+    public void onOrderCreated(OrderCreatedEvent event, Acknowledgment ack) {
+        Long orderId = event.getOrderId();
+        OrderSaga known = sagas.get(orderId);
+        if (known != null) {
+            ignore(event, orderId, known.getStep(), ack);
+            return;
+        }
+        OrderSaga saga = adopt(orderId);
+        if (saga == null || saga.getStep() != SagaStep.AWAITING_PAYMENT || sagas.putIfAbsent(orderId, saga) != null) {
+            ignore(event, orderId, saga == null ? null : saga.getStep(), ack);
+            return;
+        }
+        synchronized (saga) {
+            step(saga, event, null, SagaStep.AWAITING_PAYMENT, null, ack);
+        }
+    }
+
+    public void onPaymentSucceeded(PaymentSucceededEvent event, Acknowledgment ack) {
+        ReserveInventoryCommand command = ReserveInventoryCommand.builder()
+                .orderId(event.getOrderId())
+                .items(event.getItems())
+                .build();
+        advance(event.getOrderId(), event, SagaStep.AWAITING_PAYMENT, SagaStep.AWAITING_INVENTORY,
+                saga -> saga.setPaymentId(event.getPaymentId()),
+                context -> send(RESERVE_INVENTORY_TOPIC, event.getOrderId(), command, context), ack);
+    }
+
+    public void onPaymentFailed(PaymentFailedEvent event, Acknowledgment ack) {
+        advance(event.getOrderId(), event, SagaStep.AWAITING_PAYMENT, SagaStep.FAILED, saga -> { }, null, ack);
+    }
+
+    public void onInventoryReserved(InventoryReservedEvent event, Acknowledgment ack) {
+        advance(event.getOrderId(), event, SagaStep.AWAITING_INVENTORY, SagaStep.COMPLETED, saga -> { }, null, ack);
+    }
+
+    public void onInventoryUnavailable(InventoryUnavailableEvent event, Acknowledgment ack) {
+        RefundPaymentCommand command = RefundPaymentCommand.builder()
+                .orderId(event.getOrderId())
+                .reason(event.getReason())
+                .build();
+        advance(event.getOrderId(), event, SagaStep.AWAITING_INVENTORY, SagaStep.COMPENSATING, saga -> { },
+                context -> send(REFUND_PAYMENT_TOPIC, event.getOrderId(), command, context), ack);
+    }
+
+    public void onPaymentRefunded(PaymentRefundedEvent event, Acknowledgment ack) {
+        advance(event.getOrderId(), event, SagaStep.COMPENSATING, SagaStep.COMPENSATED, saga -> { }, null, ack);
+    }
+
+    /**
+     * Deletes the log entries of sagas that ended longer ago than the retention.
+     */
+    @Scheduled(fixedDelayString = "#{@sagaProperties.pruneInterval.toMillis()}",
+            initialDelayString = "#{@sagaProperties.pruneInterval.toMillis()}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getLogRetention());
+        int deleted = sagaLogRepository.deleteEndedBefore(ENDED, cutoff);
+        if (deleted > 0) {
+            log.info("Pruned {} saga log entries of sagas ended before {}", deleted, cutoff);
+        }
+    }
+
+    long inFlight(SagaStep step) {
+        return sagas.values().stream().filter(saga -> saga.getStep() == step).count();
+    }
+
+    private void advance(Long orderId, Object event, SagaStep from, SagaStep to, Consumer<OrderSaga> update,
+                         Function<SagaContext, CompletableFuture<?>> command, Acknowledgment ack) {
+        OrderSaga saga = sagas.get(orderId);
+        if (saga == null) {
+            // Loaded outside the map, so its database reads never hold a bin lock; the first to be put wins
+            OrderSaga adopted = adopt(orderId);
+            if (adopted != null) {
+                OrderSaga existing = sagas.putIfAbsent(orderId, adopted);
+                saga = existing != null ? existing : adopted;
+            }
+        }
+        if (saga == null) {
+            ignore(event, orderId, null, ack);
+            return;
+        }
+        synchronized (saga) {
+            if (saga.getStep() != from && saga.getStep() != to && !refresh(saga)) {
+                sagas.remove(orderId, saga);
+                ignore(event, orderId, null, ack);
+                return;
+            }
+            if (saga.getStep() == to && saga.isRecovered()) {
+                // Redelivered after a restart or rebalance: the step is logged, but its command may never have gone out
+                count(event, "redelivered");
+                saga.setRecovered(false);
+                sendThenAck(command, saga.getContext(), ack);
+                return;
+            }
+            if (saga.getStep() != from) {
+                ignore(event, orderId, saga.getStep(), ack);
+                return;
+            }
+            update.accept(saga);
+            step(saga, event, from, to, command, ack);
+        }
+    }
+
+    private void step(OrderSaga saga, Object event, SagaStep from, SagaStep to,
+                      Function<SagaContext, CompletableFuture<?>> command, Acknowledgment ack) {
+        SagaContext current = sagaTracing.current();
+        if (current != null) {
+            saga.setContext(current);
+        }
+        SagaContext context = saga.getContext();
+        saga.setStep(to);
+        saga.setRecovered(false);
+        saga.getUnlogged().incrementAndGet();
+        count(event, "applied");
+        Counter.builder("saga.transitions")
+                .tag("from", from == null ? "NONE" : from.name())
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+
+        CompletableFuture<Void> logged = sagaLog.append(entry(saga, event));
+        try {
+            logged.getNow(null);
+        } catch (CompletionException e) {
+            // Refused on the listener thread: undo the step and let the event go through the retry topics
+            saga.getUnlogged().decrementAndGet();
+            rollBack(saga, from, to);
+            throw new IllegalStateException("Saga step " + to + " of order " + saga.getOrderId() + " not logged",
+                    e.getCause());
+        }
+        logged.whenComplete((written, error) -> {
+            saga.getUnlogged().decrementAndGet();
+            if (error != null) {
+                // Lost as the log closed; the event stays unacknowledged and is redelivered after the restart
+                log.error("Saga step {} of order {} not logged; rolled back, its event will be redelivered",
+                        to, saga.getOrderId(), error);
+                later(() -> {
+                    synchronized (saga) {
+                        rollBack(saga, from, to);
+                    }
+                }, 0);
+                return;
+            }
+            if (to.isTerminal()) {
+                sagas.remove(saga.getOrderId(), saga);
+            }
+            recordCompletion(from, to, context);
+            sendThenAck(command, context, ack);
+        });
+    }
+
+    /**
+     * Catches the saga up with the log before an event is rejected as out of step: since this instance
+     * last saw it, the saga may have been moved by the instance that owned its events before a
+     * rebalance. A saga with steps still to be logged here is ahead of the log and kept as it is.
+     * False if the saga has ended.
+     */
+    private boolean refresh(OrderSaga saga) {
+        if (saga.getUnlogged().get() > 0) {
+            return true;
+        }
+        OrderSaga latest = adopt(saga.getOrderId());
+        if (latest == null) {
+            return false;
+        }
+        if (latest.getStep() != saga.getStep()) {
+            saga.setStep(latest.getStep());
+            if (latest.getPaymentId() != null) {
+                saga.setPaymentId(latest.getPaymentId());
+            }
+            saga.setRecovered(true);
+        }
+        return true;
+    }
+
+    /**
+     * The saga as last logged, by this instance or another, or else at the step the order's status
+     * implies; null once it has ended.
+     */
+    private OrderSaga adopt(Long orderId) {
+        OrderSaga saga = sagaLogRepository.findFirstByOrderIdOrderByIdDesc(orderId)
+                .map(OrderSaga::recovered)
+                .orElseGet(() -> {
+                    Order order = orderRepository.findById(orderId)
+                            .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
+                    return new OrderSaga(orderId, SagaStep.of(order.getStatus()), sagaTracing.current(), true);
+                });
+        return saga.getStep().isTerminal() ? null : saga;
+    }
+
+    /**
+     * Puts a saga back to the step before an unlogged one, unless a later step has been taken since.
+     */
+    private void rollBack(OrderSaga saga, SagaStep from, SagaStep to) {
+        if (saga.getStep() != to) {
+            return;
+        }
+        if (from == null) {
+            sagas.remove(saga.getOrderId(), saga);
+        } else {
+            saga.setStep(from);
+        }
+    }
+
+    /**
+     * Sends the step's command, then acknowledges its event. The step is logged by now, so a failed send
+     * is tried again until it goes out; the event stays unacknowledged meanwhile.
+     */
+    private void sendThenAck(Function<SagaContext, CompletableFuture<?>> command, SagaContext context,
+                             Acknowledgment ack) {
+        if (command == null || ReplayMode.isActive()) {
+            ack.acknowledge();
+            return;
+        }
+        CompletableFuture<?> sent;
+        try {
+            sent = command.apply(context);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((result, error) -> {
+            if (error == null) {
+                ack.acknowledge();
+                return;
+            }
+            commandRetries.increment();
+            log.error("Failed to send saga command, retrying in {}", properties.getCommandRetryBackoff(), error);
+            later(() -> sendThenAck(command, context, ack), properties.getCommandRetryBackoff().toMillis());
+        });
+    }
+
+    private void later(Runnable task, long delayMillis) {
+        try {
+            retries.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Shutting down; an unacknowledged saga event will be redelivered after the restart");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+    }
+
+    private CompletableFuture<?> send(String topic, Long orderId, Object command, SagaContext context) {
+        return kafkaTemplate.send(sagaTracing.next(topic, String.valueOf(orderId), command, context));
+    }
+
+    private void recordCompletion(SagaStep from, SagaStep to, SagaContext context) {
+        OrderStatus status = to.getOrderStatus();
+        boolean decided = status == OrderStatus.CONFIRMED || status == OrderStatus.FAILED;
+        if (decided && (from == null || from.getOrderStatus() != status) && !ReplayMode.isActive()) {
+            sagaTracing.completed(status.name(), context);
+        }
+    }
+
+    private void ignore(Object event, Long orderId, SagaStep step, Acknowledgment ack) {
+        count(event, "ignored");
+        log.info("Ignoring {} for order {} at step {}", event.getClass().getSimpleName(), orderId,
+                step == null ? "ended" : step);
+        ack.acknowledge();
+    }
+
+    private void count(Object event, String outcome) {
+        Counter.builder("saga.events")
+                .tag("event", event.getClass().getSimpleName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static SagaLogEntry entry(OrderSaga saga, Object event) {
+        return SagaLogEntry.builder()
+                .orderId(saga.getOrderId())
+                .step(saga.getStep())
+                .event(event.getClass().getSimpleName())
+                .paymentId(saga.getPaymentId())
+                .sagaOrigin(saga.getContext() == null ? null : saga.getContext().origin())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
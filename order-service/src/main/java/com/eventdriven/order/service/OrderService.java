@@ -1,22 +1,32 @@
 package com.eventdriven.order.service;
 
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.events.OrderItemEvent;
+import com.eventdriven.kafka.replay.ReplayMode;
+import com.eventdriven.kafka.saga.SagaTracing;
 import com.eventdriven.order.dto.*;
 import com.eventdriven.order.entity.Order;
 import com.eventdriven.order.entity.OrderItem;
 import com.eventdriven.order.entity.OrderStatus;
-import com.eventdriven.order.event.OrderCreatedEvent;
-import com.eventdriven.order.event.OrderItemEvent;
 import com.eventdriven.order.repository.OrderRepository;
+import com.eventdriven.order.state.OrderStatePublisher;
+import com.eventdriven.order.stream.OrderStatusStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,12 +34,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
 
+    private static final Set<OrderStatus> ARCHIVABLE =
+            EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.FAILED, OrderStatus.CANCELLED);
+
     private final OrderRepository orderRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderStatusStream orderStatusStream;
+    private final SagaTracing sagaTracing;
+    private final OrderStatePublisher orderStatePublisher;
 
     @Transactional
     @CacheEvict(value = "orders", key = "#userId")
     public OrderResponse createOrder(CreateOrderRequest request, String userId) {
+        long placedAt = System.currentTimeMillis();
         log.info("Creating order for user: {}", userId);
 
         Order order = Order.builder()
@@ -60,9 +77,12 @@ public class OrderService {
         log.info("Order created with ID: {}", savedOrder.getId());
 
         // Publish OrderCreatedEvent to Kafka
-        publishOrderCreatedEvent(savedOrder);
+        publishOrderCreatedEvent(savedOrder, placedAt);
 
-        return mapToOrderResponse(savedOrder);
+        OrderResponse response = mapToOrderResponse(savedOrder);
+        orderStatusStream.publish(response);
+        orderStatePublisher.publish(savedOrder);
+        return response;
     }
 
     @Cacheable(value = "orders", key = "#orderId")
@@ -82,16 +102,62 @@ public class OrderService {
     }
 
     @Transactional
-    @CacheEvict(value = "orders", allEntries = true)
+    @CacheEvict(value = "orders", allEntries = true, condition = "!T(com.eventdriven.kafka.replay.ReplayMode).isActive()")
     public void updateOrderStatus(Long orderId, OrderStatus status) {
         log.info("Updating order {} status to {}", orderId, status);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
+        applyStatus(order, status);
+    }
+
+    /**
+     * Applies the statuses of many orders in one transaction and one cache eviction. Orders that no
+     * longer exist are skipped.
+     */
+    @Transactional
+    @CacheEvict(value = "orders", allEntries = true, condition = "!T(com.eventdriven.kafka.replay.ReplayMode).isActive()")
+    public void updateOrderStatuses(Map<Long, OrderStatus> statuses) {
+        for (Order order : orderRepository.findAllById(statuses.keySet())) {
+            OrderStatus status = statuses.get(order.getId());
+            if (order.getStatus() != status) {
+                log.info("Updating order {} status to {}", order.getId(), status);
+                applyStatus(order, status);
+            }
+        }
+    }
+
+    /**
+     * Archives up to {@code limit} finished orders last updated before {@code cutoff}, removing them from
+     * the order state topic. Returns how many were archived.
+     */
+    @Transactional
+    @CacheEvict(value = "orders", allEntries = true)
+    public int archiveOrders(LocalDateTime cutoff, int limit) {
+        List<Order> orders = orderRepository.findByStatusInAndUpdatedAtBefore(ARCHIVABLE, cutoff,
+                PageRequest.of(0, limit, Sort.by("updatedAt")));
+        orders.forEach(order -> order.setStatus(OrderStatus.ARCHIVED));
+        orderRepository.saveAll(orders);
+        orders.forEach(order -> orderStatePublisher.tombstone(order.getId()));
+        return orders.size();
+    }
+
+    private void applyStatus(Order order, OrderStatus status) {
+        boolean changed = order.getStatus() != status;
         order.setStatus(status);
-        orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (ReplayMode.isActive()) {
+            // Rebuilding state from history; clients already saw these changes
+            return;
+        }
+        orderStatusStream.publish(mapToOrderResponse(savedOrder));
+        if (status == OrderStatus.ARCHIVED) {
+            orderStatePublisher.tombstone(order.getId());
+        } else if (changed) {
+            orderStatePublisher.publish(savedOrder);
+        }
     }
 
-    private void publishOrderCreatedEvent(Order order) {
+    private void publishOrderCreatedEvent(Order order, long placedAt) {
         List<OrderItemEvent> itemEvents = order.getItems().stream()
                 .map(item -> OrderItemEvent.builder()
                         .productId(item.getProductId())
@@ -108,7 +174,9 @@ public class OrderService {
                 .items(itemEvents)
                 .build();
 
-        kafkaTemplate.send("order-created-topic", event);
+        // The saga's clock starts when the request came in
+        kafkaTemplate.send(sagaTracing.start("order-created-topic",
+                String.valueOf(order.getId()), event, placedAt));
         log.info("Published OrderCreatedEvent for order: {}", order.getId());
     }
 
@@ -0,0 +1,39 @@
+package com.eventdriven.order.state;
+
+import com.eventdriven.order.config.OrderStateProperties;
+import com.eventdriven.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archives finished orders in batches, which also removes them from the order state topic.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.state", name = "archive-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    private final OrderService orderService;
+    private final OrderStateProperties properties;
+
+    @Scheduled(fixedDelayString = "#{@orderStateProperties.archiveInterval.toMillis()}",
+            initialDelayString = "#{@orderStateProperties.archiveInterval.toMillis()}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getArchiveAfter());
+        int total = 0;
+        int archived;
+        do {
+            archived = orderService.archiveOrders(cutoff, properties.getArchiveBatchSize());
+            total += archived;
+        } while (archived == properties.getArchiveBatchSize());
+        if (total > 0) {
+            log.info("Archived {} orders finished before {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventdriven.order.state;
+
+import com.eventdriven.events.OrderStateEvent;
+import com.eventdriven.order.config.OrderStateProperties;
+import com.eventdriven.order.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes each order's latest state to the compacted order state topic, keyed by order id, and a
+ * tombstone when the order is archived. Compaction keeps the last record per key, so reading the
+ * topic from the start gives every live order's current state without replaying the saga topics.
+ * <p>
+ * Uses a producer of its own, tuned for throughput with lingering, compressed batches, rather than the
+ * saga's template: state records are many and small, and nobody waits on a single one.
+ */
+@Component
+@Slf4j
+public class OrderStatePublisher implements DisposableBean {
+
+    private final OrderStateProperties properties;
+    private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public OrderStatePublisher(OrderStateProperties properties, KafkaProperties kafkaProperties) {
+        this.properties = properties;
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(null);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, (int) properties.getLinger().toMillis());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompression());
+        // Retries must not reorder an order's states, or compaction could keep a stale one
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(config);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.kafkaTemplate.setObservationEnabled(true);
+    }
+
+    OrderStatePublisher(OrderStateProperties properties, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.properties = properties;
+        this.producerFactory = null;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void publish(Order order) {
+        // Built once committed, so updatedAt is the one the flush wrote
+        afterCommit(order.getId(), () -> toState(order));
+    }
+
+    public void tombstone(Long orderId) {
+        afterCommit(orderId, () -> null);
+    }
+
+    @Override
+    public void destroy() {
+        if (producerFactory != null) {
+            producerFactory.destroy();
+        }
+    }
+
+    // A rolled-back change must not become an order's state
+    private void afterCommit(Long orderId, Supplier<OrderStateEvent> state) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(orderId, state.get());
+                }
+            });
+        } else {
+            send(orderId, state.get());
+        }
+    }
+
+    private static OrderStateEvent toState(Order order) {
+        return OrderStateEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus().name())
+                .totalAmount(order.getTotalAmount())
+                .updatedAt(order.getUpdatedAt() == null ? null
+                        : order.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
+    }
+
+    private void send(Long orderId, OrderStateEvent state) {
+        kafkaTemplate.send(properties.getTopic(), String.valueOf(orderId), state)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish state of order {}", orderId, e);
+                    }
+                });
+    }
+}
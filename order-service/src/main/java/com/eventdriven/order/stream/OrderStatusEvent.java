@@ -0,0 +1,17 @@
+package com.eventdriven.order.stream;
+
+import com.eventdriven.order.dto.OrderResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+    private long id;
+    private String userId;
+    private OrderResponse order;
+}
@@ -0,0 +1,378 @@
+package com.eventdriven.order.stream;
+
+import com.eventdriven.order.config.OrderStreamProperties;
+import com.eventdriven.order.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order status changes to the open streams of the order's user. Each user has a channel
+ * holding their connections and the last few events, so a client reconnecting with
+ * {@code Last-Event-ID} gets what it missed, or a {@code resync} event when the gap is no longer
+ * covered. Idle connections cost an emitter and a list slot; no thread is held per connection.
+ * Events are queued per connection under the channel lock and written by a small pool, so a client
+ * whose socket stalls only fills its own queue and is closed once that overflows.
+ */
+@Component
+@Slf4j
+public class OrderStatusStream {
+
+    static final String ORDER_EVENT = "order";
+    static final String RESYNC_EVENT = "resync";
+
+    private final OrderStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final Map<String, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter resyncs;
+    private final Counter stalled;
+    private final Executor sender;
+
+    public OrderStatusStream(OrderStreamProperties properties,
+                             ObjectMapper objectMapper,
+                             ObjectProvider<StringRedisTemplate> redisTemplate,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.sent = meterRegistry.counter("order.stream.events", "outcome", "sent");
+        this.failed = meterRegistry.counter("order.stream.events", "outcome", "failed");
+        this.resyncs = meterRegistry.counter("order.stream.resyncs");
+        this.stalled = meterRegistry.counter("order.stream.stalled");
+        Gauge.builder("order.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+        this.sender = newSender();
+    }
+
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = newEmitter(properties.getConnectionTtl().toMillis());
+        Long resumeAfter = parseEventId(lastEventId);
+
+        withChannel(userId, lastId.get(), channel -> {
+            if (resumeAfter != null) {
+                if (resumeAfter < channel.horizon) {
+                    resyncs.increment();
+                    send(emitter, SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    for (OrderStatusEvent event : channel.events) {
+                        if (event.getId() > resumeAfter) {
+                            send(emitter, toSse(event));
+                        }
+                    }
+                }
+            }
+            // Not yet handed to MVC, so sends are buffered and cannot fail or block here
+            channel.subscribers.add(new Subscriber(userId, emitter));
+            channel.lastActivity = System.currentTimeMillis();
+            connections.incrementAndGet();
+        });
+
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Announces the order's current state to its user's streams once the surrounding transaction, if
+     * any, has committed.
+     */
+    public void publish(OrderResponse order) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(order);
+                }
+            });
+        } else {
+            broadcast(order);
+        }
+    }
+
+    /**
+     * Receives an event broadcast by any instance, including this one.
+     */
+    public void onBroadcast(String message) {
+        try {
+            deliver(objectMapper.readValue(message, OrderStatusEvent.class));
+        } catch (Exception e) {
+            log.warn("Dropping unreadable order status broadcast: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@orderStreamProperties.heartbeatInterval.toMillis()}")
+    public void heartbeat() {
+        long staleBefore = System.currentTimeMillis() - properties.getReplayRetention().toMillis();
+        List<Subscriber> dead = new ArrayList<>();
+        channels.forEach((userId, channel) -> {
+            synchronized (channel) {
+                sendAll(channel, () -> SseEmitter.event().comment("heartbeat"), dead);
+                if (channel.subscribers.isEmpty() && channel.lastActivity < staleBefore) {
+                    channel.closed = true;
+                    channels.remove(userId, channel);
+                }
+            }
+        });
+        dead.forEach(this::close);
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    Executor newSender() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(properties.getSendThreads(), properties.getSendThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getSendQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "order-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    void deliver(OrderStatusEvent event) {
+        lastId.accumulateAndGet(event.getId(), Math::max);
+        // A channel first opened by this event knows nothing older
+        List<Subscriber> dead = new ArrayList<>();
+        withChannel(event.getUserId(), event.getId() - 1, channel -> {
+            if (channel.events.size() >= properties.getReplayBufferSize()) {
+                channel.horizon = channel.events.removeFirst().getId();
+            }
+            channel.events.addLast(event);
+            channel.lastActivity = System.currentTimeMillis();
+            sendAll(channel, () -> toSse(event), dead);
+        });
+        dead.forEach(this::close);
+    }
+
+    /**
+     * Queues the event for every subscriber; nothing is written while the channel lock is held, since a
+     * write blocks for as long as the client's socket does. Builders are consumed by sending, so each
+     * subscriber gets its own. Subscribers whose queue overflowed are removed and returned for closing.
+     */
+    private void sendAll(UserChannel channel, Supplier<SseEmitter.SseEventBuilder> event, List<Subscriber> dead) {
+        for (Iterator<Subscriber> it = channel.subscribers.iterator(); it.hasNext(); ) {
+            Subscriber subscriber = it.next();
+            if (!subscriber.offer(event.get())) {
+                it.remove();
+                connections.decrementAndGet();
+                dead.add(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Completing an emitter runs its callbacks, which take the channel lock, and waits out any write in
+     * progress, so it happens on the sender pool.
+     */
+    private void close(Subscriber subscriber) {
+        try {
+            sender.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException e) {
+            // Pool saturated; the emitter's own timeout completes it
+            log.debug("Could not close stalled order stream of {}", subscriber.userId);
+        }
+    }
+
+    private void broadcast(OrderResponse order) {
+        OrderStatusEvent event = new OrderStatusEvent(nextId(), order.getUserId(), order);
+        StringRedisTemplate redis = properties.isRedisFanout() ? redisTemplate.getIfAvailable() : null;
+        if (redis != null) {
+            try {
+                redis.convertAndSend(properties.getRedisChannel(), objectMapper.writeValueAsString(event));
+                return;
+            } catch (Exception e) {
+                log.warn("Could not broadcast status of order {}, notifying local streams only: {}",
+                        order.getId(), e.getMessage());
+            }
+        }
+        deliver(event);
+    }
+
+    // Roughly time-ordered across instances, strictly increasing within one
+    private long nextId() {
+        long now = System.currentTimeMillis() * 1000;
+        return lastId.updateAndGet(previous -> Math.max(previous + 1, now));
+    }
+
+    private void unsubscribe(String userId, SseEmitter emitter) {
+        UserChannel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            if (channel.subscribers.removeIf(subscriber -> subscriber.emitter == emitter)) {
+                connections.decrementAndGet();
+                channel.lastActivity = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void withChannel(String userId, long horizon, Consumer<UserChannel> action) {
+        while (true) {
+            UserChannel channel = channels.computeIfAbsent(userId, k -> new UserChannel(horizon));
+            synchronized (channel) {
+                // Lost a race with the heartbeat retiring this channel; take the fresh one
+                if (!channel.closed) {
+                    action.accept(channel);
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            sent.increment();
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            return false;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(OrderStatusEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.getId()))
+                .name(ORDER_EVENT)
+                .data(event.getOrder(), MediaType.APPLICATION_JSON);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Not one of ours; the client cannot know what it missed
+            return -1L;
+        }
+    }
+
+    /**
+     * One connection's unsent events, written in order by at most one sender thread at a time.
+     */
+    private final class Subscriber {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean dead;
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Returns false if the connection is gone or has fallen too far behind to keep.
+         */
+        boolean offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (dead) {
+                    return false;
+                }
+                if (pending.size() >= properties.getMaxPendingEvents()) {
+                    stalled.increment();
+                    dead = true;
+                    pending.clear();
+                    return false;
+                }
+                pending.addLast(event);
+                if (draining) {
+                    return true;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this::drain);
+                return true;
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    dead = true;
+                    pending.clear();
+                }
+                return false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = dead ? null : pending.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (!send(emitter, next)) {
+                    synchronized (this) {
+                        dead = true;
+                        pending.clear();
+                        draining = false;
+                    }
+                    unsubscribe(userId, emitter);
+                    emitter.complete();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class UserChannel {
+        private final List<Subscriber> subscribers = new ArrayList<>(1);
+        private final ArrayDeque<OrderStatusEvent> events = new ArrayDeque<>();
+        // Events with ids up to here may have happened but are no longer buffered
+        private long horizon;
+        private long lastActivity = System.currentTimeMillis();
+        private boolean closed;
+
+        private UserChannel(long horizon) {
+            this.horizon = horizon;
+        }
+    }
+}
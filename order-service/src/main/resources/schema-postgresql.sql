@@ -0,0 +1,7 @@
+-- Hibernate creates orders.status with a check constraint listing the OrderStatus values of the day,
+-- and ddl-auto: update never widens it. Recreate it with every current value; NOT VALID skips
+-- rescanning existing rows, which all satisfied the narrower constraint.
+ALTER TABLE orders DROP CONSTRAINT IF EXISTS orders_status_check;
+ALTER TABLE orders ADD CONSTRAINT orders_status_check CHECK (status IN (
+    'PENDING', 'PAYMENT_PROCESSING', 'PAYMENT_CONFIRMED', 'INVENTORY_RESERVED', 'CONFIRMED', 'FAILED',
+    'CANCELLED', 'ARCHIVED')) NOT VALID;
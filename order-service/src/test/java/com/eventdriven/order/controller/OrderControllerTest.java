@@ -5,6 +5,7 @@ import com.eventdriven.order.dto.OrderItemRequest;
 import com.eventdriven.order.dto.OrderResponse;
 import com.eventdriven.order.entity.OrderStatus;
 import com.eventdriven.order.service.OrderService;
+import com.eventdriven.order.stream.OrderStatusStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderStatusStream orderStatusStream;
+
     private CreateOrderRequest validRequest;
     private OrderResponse orderResponse;
 
@@ -119,6 +123,36 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.userId").value("user123"));
     }
 
+    @Test
+    void getOrder_WithMatchingIfNoneMatch_ShouldReturn304WithoutBody() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(orderResponse);
+        String etag = mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getOrder_AfterUpdate_ShouldChangeETag() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(orderResponse);
+        String etag = mockMvc.perform(get("/api/orders/1"))
+                .andReturn().getResponse().getHeader("ETag");
+        orderResponse.setUpdatedAt(orderResponse.getUpdatedAt().plusNanos(1_000));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
     @Test
     void getUserOrders_WithValidUserId_ShouldReturn200() throws Exception {
         // Arrange
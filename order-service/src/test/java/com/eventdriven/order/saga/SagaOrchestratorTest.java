@@ -0,0 +1,288 @@
+package com.eventdriven.order.saga;
+
+import com.eventdriven.events.*;
+import com.eventdriven.kafka.saga.SagaTracing;
+import com.eventdriven.order.config.SagaProperties;
+import com.eventdriven.order.entity.Order;
+import com.eventdriven.order.entity.OrderStatus;
+import com.eventdriven.order.entity.SagaLogEntry;
+import com.eventdriven.order.entity.SagaStep;
+import com.eventdriven.order.repository.OrderRepository;
+import com.eventdriven.order.repository.SagaLogRepository;
+import com.eventdriven.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SagaOrchestratorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SagaLogRepository sagaLogRepository = mock(SagaLogRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderService orderService = mock(OrderService.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private final Order order = Order.builder()
+            .id(1L)
+            .userId("user123")
+            .status(OrderStatus.PENDING)
+            .totalAmount(BigDecimal.TEN)
+            .build();
+
+    private SagaLog sagaLog;
+    private SagaOrchestrator orchestrator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        // The orders table follows the saga log, as it does in the real transaction
+        doAnswer(invocation -> {
+            Map<Long, OrderStatus> statuses = invocation.getArgument(0);
+            if (statuses.containsKey(1L)) {
+                order.setStatus(statuses.get(1L));
+            }
+            return null;
+        }).when(orderService).updateOrderStatuses(any());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        SagaProperties properties = new SagaProperties();
+        properties.setCommandRetryBackoff(Duration.ofMillis(10));
+        sagaLog = new SagaLog(sagaLogRepository, orderService, mock(PlatformTransactionManager.class),
+                properties, meterRegistry);
+        sagaLog.start();
+        orchestrator = new SagaOrchestrator(sagaLog, sagaLogRepository, orderRepository, kafkaTemplate,
+                new SagaTracing("order-service", meterRegistry), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orchestrator.shutdown();
+        sagaLog.close();
+    }
+
+    @Test
+    void onPaymentSucceeded_ForOrderAwaitingPayment_ShouldLogStepThenReserveInventory() {
+        // Act
+        Acknowledgment created = handle(ack -> orchestrator.onOrderCreated(orderCreated(), ack));
+        Acknowledgment paid = handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+
+        // Assert
+        awaitAcknowledged(created, paid);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAYMENT_CONFIRMED);
+        ProducerRecord<String, Object> command = sentCommand();
+        assertThat(command.topic()).isEqualTo(SagaOrchestrator.RESERVE_INVENTORY_TOPIC);
+        assertThat(command.key()).isEqualTo("1");
+        assertThat(((ReserveInventoryCommand) command.value()).getItems()).hasSize(1);
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_INVENTORY)).isEqualTo(1);
+        assertThat(meterRegistry.get("saga.log.group.commit.size").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void onPaymentSucceeded_AfterPaymentFailed_ShouldNotRegressOrder() {
+        // Act
+        Acknowledgment failed = handle(ack -> orchestrator.onPaymentFailed(
+                PaymentFailedEvent.builder().orderId(1L).reason("Declined").build(), ack));
+        awaitAcknowledged(failed);
+        Acknowledgment late = handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+
+        // Assert
+        awaitAcknowledged(late);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_PAYMENT)).isZero();
+        assertThat(meterRegistry.get("saga.events").tag("outcome", "ignored").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onInventoryUnavailable_AfterPayment_ShouldRefundAndCompensate() {
+        // Act
+        handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+        Acknowledgment unavailable = handle(ack -> orchestrator.onInventoryUnavailable(
+                InventoryUnavailableEvent.builder().orderId(1L).reason("Insufficient stock").build(), ack));
+        awaitAcknowledged(unavailable);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(orchestrator.inFlight(SagaStep.COMPENSATING)).isEqualTo(1);
+        Acknowledgment refunded = handle(ack -> orchestrator.onPaymentRefunded(
+                PaymentRefundedEvent.builder().orderId(1L).paymentId("txn-1").build(), ack));
+
+        // Assert
+        awaitAcknowledged(refunded);
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(sent.capture());
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::topic)
+                .containsExactly(SagaOrchestrator.RESERVE_INVENTORY_TOPIC, SagaOrchestrator.REFUND_PAYMENT_TOPIC);
+        assertThat(orchestrator.inFlight(SagaStep.COMPENSATING)).isZero();
+        assertThat(meterRegistry.get("saga.transitions").tag("to", "COMPENSATED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onInventoryReserved_AfterSagaMovedByAnotherInstance_ShouldFollowSagaLog() {
+        // Arrange
+        awaitAcknowledged(handle(ack -> orchestrator.onOrderCreated(orderCreated(), ack)));
+        // Payment handled by the previous owner of the order's partition
+        order.setStatus(OrderStatus.PAYMENT_CONFIRMED);
+        when(sagaLogRepository.findFirstByOrderIdOrderByIdDesc(1L)).thenReturn(Optional.of(SagaLogEntry.builder()
+                .orderId(1L)
+                .step(SagaStep.AWAITING_INVENTORY)
+                .event("PaymentSucceededEvent")
+                .paymentId("txn-1")
+                .createdAt(LocalDateTime.now())
+                .build()));
+
+        // Act
+        Acknowledgment reserved = handle(ack -> orchestrator.onInventoryReserved(
+                InventoryReservedEvent.builder().orderId(1L).build(), ack));
+
+        // Assert
+        awaitAcknowledged(reserved);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_PAYMENT)).isZero();
+        assertThat(meterRegistry.get("saga.transitions").tag("from", "AWAITING_INVENTORY").tag("to", "COMPLETED")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onPaymentSucceeded_WhenCommandSendFails_ShouldSendAgainBeforeAcknowledging() {
+        // Arrange
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        Acknowledgment paid = handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+
+        // Assert
+        awaitAcknowledged(paid);
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertThat(meterRegistry.get("saga.command.retries").counter().count()).isEqualTo(1);
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_INVENTORY)).isEqualTo(1);
+    }
+
+    @Test
+    void onPaymentSucceeded_WhenSagaLogRefusesStep_ShouldRollBackAndThrow() throws InterruptedException {
+        // Arrange
+        awaitAcknowledged(handle(ack -> orchestrator.onOrderCreated(orderCreated(), ack)));
+        sagaLog.close();
+        Acknowledgment paid = mock(Acknowledgment.class);
+
+        // Act & Assert
+        assertThatThrownBy(() -> orchestrator.onPaymentSucceeded(paymentSucceeded(), paid))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not logged");
+        verify(paid, never()).acknowledge();
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_PAYMENT)).isEqualTo(1);
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_INVENTORY)).isZero();
+    }
+
+    @Test
+    void onPaymentSucceeded_WhenAdoptedConcurrently_ShouldApplyOnceOnOneSaga() throws Exception {
+        // Arrange: both loads run at the same time, outside the saga map
+        CyclicBarrier bothLoading = new CyclicBarrier(2);
+        when(orderRepository.findById(1L)).thenAnswer(invocation -> {
+            bothLoading.await(5, TimeUnit.SECONDS);
+            return Optional.of(order);
+        });
+        ExecutorService listeners = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<Acknowledgment> first = listeners.submit(() ->
+                handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack)));
+        Future<Acknowledgment> second = listeners.submit(() ->
+                handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack)));
+        awaitAcknowledged(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        listeners.shutdown();
+
+        // Assert
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_INVENTORY)).isEqualTo(1);
+        assertThat(meterRegistry.get("saga.events").tag("outcome", "applied").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recover_ThenRedeliveredEvent_ShouldResendCommandWithoutLoggingAgain() {
+        // Arrange
+        order.setStatus(OrderStatus.PAYMENT_CONFIRMED);
+        when(sagaLogRepository.findLatestOfOpenSagas(anyCollection())).thenReturn(List.of(SagaLogEntry.builder()
+                .orderId(1L)
+                .step(SagaStep.AWAITING_INVENTORY)
+                .event("PaymentSucceededEvent")
+                .paymentId("txn-1")
+                .sagaOrigin(System.currentTimeMillis() - 1000)
+                .createdAt(LocalDateTime.now())
+                .build()));
+        orchestrator.recover();
+
+        // Act
+        Acknowledgment redelivered = handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+        Acknowledgment duplicate = handle(ack -> orchestrator.onPaymentSucceeded(paymentSucceeded(), ack));
+
+        // Assert
+        awaitAcknowledged(redelivered, duplicate);
+        assertThat(sentCommand().topic()).isEqualTo(SagaOrchestrator.RESERVE_INVENTORY_TOPIC);
+        verify(sagaLogRepository, never()).saveAll(any());
+        assertThat(orchestrator.inFlight(SagaStep.AWAITING_INVENTORY)).isEqualTo(1);
+    }
+
+    private static Acknowledgment handle(java.util.function.Consumer<Acknowledgment> handler) {
+        Acknowledgment ack = mock(Acknowledgment.class);
+        handler.accept(ack);
+        return ack;
+    }
+
+    private static void awaitAcknowledged(Acknowledgment... acks) {
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            for (Acknowledgment ack : acks) {
+                verify(ack).acknowledge();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, Object> sentCommand() {
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        return sent.getValue();
+    }
+
+    private static OrderCreatedEvent orderCreated() {
+        return OrderCreatedEvent.builder().orderId(1L).userId("user123").totalAmount(BigDecimal.TEN).build();
+    }
+
+    private static PaymentSucceededEvent paymentSucceeded() {
+        return PaymentSucceededEvent.builder()
+                .orderId(1L)
+                .paymentId("txn-1")
+                .items(List.of(OrderItemEvent.builder().productId("PROD001").quantity(1).build()))
+                .build();
+    }
+}
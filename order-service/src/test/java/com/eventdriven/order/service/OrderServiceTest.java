@@ -1,29 +1,38 @@
 package com.eventdriven.order.service;
 
+import com.eventdriven.kafka.saga.SagaContext;
+import com.eventdriven.kafka.saga.SagaTracing;
 import com.eventdriven.order.dto.CreateOrderRequest;
 import com.eventdriven.order.dto.OrderItemRequest;
 import com.eventdriven.order.dto.OrderResponse;
 import com.eventdriven.order.entity.Order;
 import com.eventdriven.order.entity.OrderStatus;
 import com.eventdriven.order.repository.OrderRepository;
+import com.eventdriven.order.state.OrderStatePublisher;
+import com.eventdriven.order.stream.OrderStatusStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +44,15 @@ class OrderServiceTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Mock
+    private OrderStatusStream orderStatusStream;
+
+    @Mock
+    private OrderStatePublisher orderStatePublisher;
+
+    @Spy
+    private SagaTracing sagaTracing = new SagaTracing("order-service", new SimpleMeterRegistry());
+
     @InjectMocks
     private OrderService orderService;
 
@@ -77,7 +95,7 @@ class OrderServiceTest {
         assertThat(response.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(999.99));
 
         verify(orderRepository, times(1)).save(any(Order.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), any());
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
     }
 
     @Test
@@ -167,6 +185,22 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).save(any(Order.class));
     }
 
+    @Test
+    void updateOrderStatus_ShouldPublishNewStatusToUserStreams() {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(savedOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
+
+        // Assert
+        ArgumentCaptor<OrderResponse> published = ArgumentCaptor.forClass(OrderResponse.class);
+        verify(orderStatusStream).publish(published.capture());
+        assertThat(published.getValue().getUserId()).isEqualTo("user123");
+        assertThat(published.getValue().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
     @Test
     void updateOrderStatus_WithInvalidId_ShouldThrowException() {
         // Arrange
@@ -187,6 +221,65 @@ class OrderServiceTest {
         orderService.createOrder(validOrderRequest, "user123");
 
         // Assert
-        verify(kafkaTemplate, times(1)).send(eq("order-created-topic"), any());
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("order-created-topic");
+        SagaContext saga = SagaContext.from(sent.getValue().headers());
+        assertThat(saga.hops()).extracting(SagaContext.Hop::service).containsExactly("order-service");
+        assertThat(saga.origin()).isLessThanOrEqualTo(saga.hops().get(0).sentAt());
+    }
+
+    @Test
+    void updateOrderStatus_WithChangedStatus_ShouldPublishOrderState() {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(savedOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        orderService.updateOrderStatus(1L, OrderStatus.PAYMENT_CONFIRMED);
+        orderService.updateOrderStatus(1L, OrderStatus.PAYMENT_CONFIRMED);
+
+        // Assert
+        verify(orderStatePublisher, times(1)).publish(savedOrder);
+    }
+
+    @Test
+    void archiveOrders_ShouldArchiveAndTombstoneFinishedOrders() {
+        // Arrange
+        savedOrder.setStatus(OrderStatus.CONFIRMED);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(orderRepository.findByStatusInAndUpdatedAtBefore(anyCollection(), eq(cutoff), any()))
+                .thenReturn(List.of(savedOrder));
+
+        // Act
+        int archived = orderService.archiveOrders(cutoff, 100);
+
+        // Assert
+        assertThat(archived).isEqualTo(1);
+        assertThat(savedOrder.getStatus()).isEqualTo(OrderStatus.ARCHIVED);
+        verify(orderRepository).saveAll(List.of(savedOrder));
+        verify(orderStatePublisher).tombstone(1L);
+    }
+
+    @Test
+    void updateOrderStatuses_ShouldOnlyPublishChangedOrders() {
+        // Arrange
+        Order unchanged = Order.builder()
+                .id(2L)
+                .userId("user456")
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(BigDecimal.ONE)
+                .build();
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(savedOrder, unchanged));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        orderService.updateOrderStatuses(Map.of(1L, OrderStatus.PAYMENT_CONFIRMED, 2L, OrderStatus.CONFIRMED));
+
+        // Assert
+        assertThat(savedOrder.getStatus()).isEqualTo(OrderStatus.PAYMENT_CONFIRMED);
+        verify(orderRepository, times(1)).save(savedOrder);
+        verify(orderStatePublisher).publish(savedOrder);
+        verify(orderStatePublisher, never()).publish(unchanged);
     }
 }
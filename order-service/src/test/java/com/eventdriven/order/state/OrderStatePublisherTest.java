@@ -0,0 +1,74 @@
+package com.eventdriven.order.state;
+
+import com.eventdriven.events.OrderStateEvent;
+import com.eventdriven.order.config.OrderStateProperties;
+import com.eventdriven.order.entity.Order;
+import com.eventdriven.order.entity.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class OrderStatePublisherTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final OrderStatePublisher publisher = new OrderStatePublisher(new OrderStateProperties(), kafkaTemplate);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_InsideTransaction_ShouldSendLatestStateAfterCommit() {
+        // Arrange
+        when(kafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        Order order = Order.builder()
+                .id(7L)
+                .userId("user123")
+                .status(OrderStatus.PAYMENT_CONFIRMED)
+                .totalAmount(BigDecimal.TEN)
+                .build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        publisher.publish(order);
+        verifyNoInteractions(kafkaTemplate);
+        order.setUpdatedAt(LocalDateTime.now());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("order-state-topic"), eq("7"), sent.capture());
+        OrderStateEvent state = (OrderStateEvent) sent.getValue();
+        assertThat(state.getStatus()).isEqualTo("PAYMENT_CONFIRMED");
+        assertThat(state.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void tombstone_ShouldSendNullValueKeyedByOrderId() {
+        // Arrange
+        when(kafkaTemplate.send(any(String.class), any(String.class), isNull())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        publisher.tombstone(7L);
+
+        // Assert
+        verify(kafkaTemplate).send("order-state-topic", "7", null);
+    }
+}
@@ -0,0 +1,230 @@
+package com.eventdriven.order.stream;
+
+import com.eventdriven.order.config.OrderStreamProperties;
+import com.eventdriven.order.dto.OrderResponse;
+import com.eventdriven.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+class OrderStatusStreamTest {
+
+    private final Map<SseEmitter, List<String>> received = new ConcurrentHashMap<>();
+    private final List<SseEmitter> broken = new ArrayList<>();
+    private final Queue<Runnable> sends = new ConcurrentLinkedQueue<>();
+    private OrderStreamProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusStream stream;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new OrderStreamProperties();
+        properties.setReplayBufferSize(3);
+        properties.setRedisFanout(false);
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new OrderStatusStream(properties, new ObjectMapper(), mock(ObjectProvider.class), meterRegistry) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new CapturingEmitter();
+            }
+
+            @Override
+            Executor newSender() {
+                // Run queued writes when the test reads them, after every channel lock is released
+                return sends::add;
+            }
+        };
+    }
+
+    @Test
+    void publish_ShouldReachEveryStreamOfThatUserOnly() {
+        SseEmitter tab1 = stream.subscribe("alice", null);
+        SseEmitter tab2 = stream.subscribe("alice", null);
+        SseEmitter other = stream.subscribe("bob", null);
+
+        stream.publish(order(1, "alice", OrderStatus.CONFIRMED));
+
+        assertThat(events(tab1)).containsExactly("order:1:CONFIRMED");
+        assertThat(events(tab2)).containsExactly("order:1:CONFIRMED");
+        assertThat(events(other)).isEmpty();
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayOnlyMissedEvents() {
+        SseEmitter first = stream.subscribe("alice", null);
+        stream.publish(order(1, "alice", OrderStatus.PENDING));
+        String lastSeen = ids(first).get(0);
+        stream.publish(order(1, "alice", OrderStatus.PAYMENT_CONFIRMED));
+        stream.publish(order(1, "alice", OrderStatus.CONFIRMED));
+
+        SseEmitter resumed = stream.subscribe("alice", lastSeen);
+
+        assertThat(events(resumed)).containsExactly("order:1:PAYMENT_CONFIRMED", "order:1:CONFIRMED");
+    }
+
+    @Test
+    void subscribe_WhenMissedEventsWereEvicted_ShouldAskClientToResync() {
+        SseEmitter first = stream.subscribe("alice", null);
+        stream.publish(order(1, "alice", OrderStatus.PENDING));
+        String lastSeen = ids(first).get(0);
+        for (int i = 2; i <= 5; i++) {
+            stream.publish(order(i, "alice", OrderStatus.PENDING));
+        }
+
+        SseEmitter resumed = stream.subscribe("alice", lastSeen);
+
+        assertThat(events(resumed)).containsExactly("resync");
+        assertThat(meterRegistry.counter("order.stream.resyncs").count()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_WithUnknownLastEventId_ShouldAskClientToResync() {
+        assertThat(events(stream.subscribe("alice", "not-a-number"))).containsExactly("resync");
+    }
+
+    @Test
+    void heartbeat_ShouldDropStreamsThatCannotBeWritten() {
+        SseEmitter healthy = stream.subscribe("alice", null);
+        SseEmitter gone = stream.subscribe("alice", null);
+        broken.add(gone);
+
+        stream.heartbeat();
+        runSends();
+
+        assertThat(received.get(healthy)).containsExactly("heartbeat");
+        assertThat(meterRegistry.get("order.stream.connections").gauge().value()).isEqualTo(1.0);
+        stream.publish(order(1, "alice", OrderStatus.CONFIRMED));
+        assertThat(events(healthy)).containsExactly("order:1:CONFIRMED");
+    }
+
+    @Test
+    void publish_WhenClientStopsReading_ShouldCloseItWithoutBlockingOthers() throws Exception {
+        properties.setMaxPendingEvents(2);
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        SimpleMeterRegistry pooledRegistry = new SimpleMeterRegistry();
+        OrderStatusStream pooled = new OrderStatusStream(properties, new ObjectMapper(),
+                mock(ObjectProvider.class), pooledRegistry) {
+            private boolean first = true;
+
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                if (!first) {
+                    return new CapturingEmitter();
+                }
+                first = false;
+                return new CapturingEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        writing.countDown();
+                        try {
+                            unblock.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Write timed out");
+                    }
+                };
+            }
+        };
+        pooled.subscribe("alice", null);
+        SseEmitter healthy = pooled.subscribe("alice", null);
+
+        pooled.publish(order(1, "alice", OrderStatus.PENDING));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 2; i <= 4; i++) {
+            pooled.publish(order(i, "alice", OrderStatus.PENDING));
+            int sent = i;
+            await().atMost(5, TimeUnit.SECONDS).until(() -> events(healthy).size() == sent);
+        }
+
+        assertThat(pooledRegistry.counter("order.stream.stalled").count()).isEqualTo(1);
+        assertThat(pooledRegistry.get("order.stream.connections").gauge().value()).isEqualTo(1.0);
+        unblock.countDown();
+        pooled.shutdown();
+    }
+
+    private void runSends() {
+        Runnable send;
+        while ((send = sends.poll()) != null) {
+            send.run();
+        }
+    }
+
+    private static OrderResponse order(long id, String userId, OrderStatus status) {
+        return OrderResponse.builder().id(id).userId(userId).status(status).build();
+    }
+
+    private List<String> events(SseEmitter emitter) {
+        runSends();
+        return received.getOrDefault(emitter, List.of()).stream()
+                .filter(entry -> !entry.equals("heartbeat") && !entry.startsWith("id:"))
+                .toList();
+    }
+
+    private List<String> ids(SseEmitter emitter) {
+        runSends();
+        return received.getOrDefault(emitter, List.of()).stream()
+                .filter(entry -> entry.startsWith("id:"))
+                .map(entry -> entry.substring(3))
+                .toList();
+    }
+
+    /**
+     * Records each event as "id:&lt;id&gt;" plus "&lt;name&gt;:&lt;orderId&gt;:&lt;status&gt;", or "heartbeat".
+     */
+    private class CapturingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken.contains(this)) {
+                throw new IOException("Broken pipe");
+            }
+            List<String> events = received.computeIfAbsent(this, k -> new CopyOnWriteArrayList<>());
+            String name = null;
+            String id = null;
+            OrderResponse order = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof OrderResponse response) {
+                    order = response;
+                } else {
+                    for (String line : part.getData().toString().split("\n")) {
+                        if (line.startsWith("event:")) {
+                            name = line.substring(6);
+                        } else if (line.startsWith("id:")) {
+                            id = line.substring(3);
+                        } else if (line.startsWith(":heartbeat")) {
+                            name = "heartbeat";
+                        }
+                    }
+                }
+            }
+            if (id != null) {
+                events.add("id:" + id);
+            }
+            events.add(order != null ? name + ":" + order.getId() + ":" + order.getStatus() : name);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.eventdriven.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "payment.gateway")
+@Data
+public class PaymentGatewayProperties {
+
+    private Limiter limiter = new Limiter();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Limiter {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private Duration slowCallThreshold = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,71 @@
+package com.eventdriven.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Component
+@ConfigurationProperties(prefix = "payment.simulator")
+@Data
+public class PaymentSimulatorProperties {
+
+    /**
+     * Name of the entry in {@link #profiles} to run with. An unknown name fails startup; with no profiles
+     * configured at all the defaults of {@link Profile} are used.
+     */
+    private String activeProfile = "instant";
+
+    /**
+     * When set, every outcome is derived from (seed, orderId) so a replayed load test sees the same
+     * approvals, declines, latencies and timeouts regardless of which listener thread handles an order.
+     */
+    private Long seed;
+
+    private Map<String, Profile> profiles = new HashMap<>();
+
+    public Profile resolveActiveProfile() {
+        if (profiles.isEmpty()) {
+            return new Profile();
+        }
+        Profile profile = profiles.get(activeProfile);
+        if (profile == null) {
+            throw new IllegalStateException("Unknown payment simulator profile '" + activeProfile
+                    + "', expected one of " + new TreeSet<>(profiles.keySet()));
+        }
+        return profile;
+    }
+
+    @Data
+    public static class Profile {
+        private double successRate = 0.9;
+        private List<String> declineReasons = new ArrayList<>(List.of("Insufficient funds"));
+        private Latency latency = new Latency();
+        private double timeoutRate = 0.0;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Latency {
+        private LatencyDistribution distribution = LatencyDistribution.FIXED;
+        /** Fixed value, mean of the normal distribution, or median of the long tail. */
+        private Duration base = Duration.ZERO;
+        /** Standard deviation for NORMAL. */
+        private Duration jitter = Duration.ZERO;
+        /** Log-normal shape for LONG_TAIL; 1.0 puts p99 at roughly 10x the median. */
+        private double tailSigma = 1.0;
+        private Duration max = Duration.ofSeconds(30);
+    }
+
+    public enum LatencyDistribution {
+        FIXED,
+        NORMAL,
+        LONG_TAIL
+    }
+}
@@ -0,0 +1,18 @@
+package com.eventdriven.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "payment.reconciliation")
+@Data
+public class ReconciliationProperties {
+
+    /**
+     * Settlement files are only read from (and reports only written to) this directory.
+     */
+    private String directory = "settlements";
+    private int batchSize = 5000;
+    private int windowSize = 64 * 1024 * 1024;
+}
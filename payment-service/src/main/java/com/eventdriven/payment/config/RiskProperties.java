@@ -0,0 +1,29 @@
+package com.eventdriven.payment.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+@ConfigurationProperties(prefix = "payment.risk")
+@Data
+public class RiskProperties {
+
+    private boolean enabled = true;
+    private int maxTrackedUsers = 1_000_000;
+    private Limit minute = new Limit(5, new BigDecimal("5000"));
+    private Limit hour = new Limit(30, new BigDecimal("20000"));
+    private Limit day = new Limit(100, new BigDecimal("50000"));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private long maxOrders;
+        private BigDecimal maxAmount;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eventdriven.payment.controller;
+
+import com.eventdriven.payment.reconciliation.ReconciliationReport;
+import com.eventdriven.payment.reconciliation.SettlementReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin only: kept off /api/payments/**, which the gateway routes for every signed-in user
+@RestController
+@RequestMapping("/admin/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final SettlementReconciliationService reconciliationService;
+
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> startReconciliation(@RequestParam String file) {
+        ReconciliationReport report = reconciliationService.start(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(report);
+    }
+
+    @GetMapping
+    public ResponseEntity<ReconciliationReport> getLatestReconciliation() {
+        return reconciliationService.getLatest()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
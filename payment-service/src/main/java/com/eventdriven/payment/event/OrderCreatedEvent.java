@@ -1,20 +0,0 @@
-package com.eventdriven.payment.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-import java.util.List;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class OrderCreatedEvent {
-    private Long orderId;
-    private String userId;
-    private BigDecimal totalAmount;
-    private List<OrderItemEvent> items;
-}
@@ -1,16 +0,0 @@
-package com.eventdriven.payment.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class OrderItemEvent {
-    private String productId;
-    private String productName;
-    private Integer quantity;
-}
@@ -0,0 +1,10 @@
+package com.eventdriven.payment.gateway;
+
+import java.math.BigDecimal;
+
+public interface PaymentGateway {
+
+    PaymentResult authorize(Long orderId, String userId, BigDecimal amount);
+
+    PaymentResult refund(Long orderId, String transactionId, BigDecimal amount);
+}
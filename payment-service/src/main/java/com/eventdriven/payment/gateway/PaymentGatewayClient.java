@@ -0,0 +1,123 @@
+package com.eventdriven.payment.gateway;
+
+import com.eventdriven.payment.config.PaymentGatewayProperties;
+import com.eventdriven.payment.resilience.AimdConcurrencyLimiter;
+import com.eventdriven.payment.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards every call to the {@link PaymentGateway} with an adaptive concurrency limit and a circuit
+ * breaker, so a slow provider sheds load with a retryable rejection instead of piling up listener threads.
+ */
+@Component
+@Slf4j
+public class PaymentGatewayClient {
+
+    public static final String CIRCUIT_OPEN_REASON = "Payment provider unavailable, retry later";
+    public static final String LIMIT_EXCEEDED_REASON = "Payment provider overloaded, retry later";
+    public static final String PROVIDER_ERROR_REASON = "Payment provider error, retry later";
+
+    private final PaymentGateway paymentGateway;
+    private final AimdConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final long slowCallThresholdNanos;
+
+    private final Timer latencyTimer;
+    private final Counter limitRejections;
+    private final Counter circuitRejections;
+
+    public PaymentGatewayClient(PaymentGateway paymentGateway,
+                                PaymentGatewayProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.paymentGateway = paymentGateway;
+
+        PaymentGatewayProperties.Limiter limiterProps = properties.getLimiter();
+        this.limiter = new AimdConcurrencyLimiter(
+                limiterProps.getInitialLimit(),
+                limiterProps.getMinLimit(),
+                limiterProps.getMaxLimit(),
+                limiterProps.getLatencyThreshold().toNanos(),
+                limiterProps.getBackoffRatio());
+
+        PaymentGatewayProperties.CircuitBreaker breakerProps = properties.getCircuitBreaker();
+        this.circuitBreaker = new CircuitBreaker(
+                breakerProps.getFailureThreshold(),
+                breakerProps.getOpenDuration().toNanos(),
+                System::nanoTime);
+        this.slowCallThresholdNanos = breakerProps.getSlowCallThreshold().toNanos();
+
+        Gauge.builder("payment.gateway.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.inflight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("payment.gateway.latency").register(meterRegistry);
+        this.limitRejections = Counter.builder("payment.gateway.rejections")
+                .tag("reason", "limit")
+                .register(meterRegistry);
+        this.circuitRejections = Counter.builder("payment.gateway.rejections")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+    }
+
+    public PaymentResult authorize(Long orderId, String userId, BigDecimal amount) {
+        return call(orderId, "payment", () -> paymentGateway.authorize(orderId, userId, amount));
+    }
+
+    public PaymentResult refund(Long orderId, String transactionId, BigDecimal amount) {
+        return call(orderId, "refund", () -> paymentGateway.refund(orderId, transactionId, amount));
+    }
+
+    private PaymentResult call(Long orderId, String action, Supplier<PaymentResult> gatewayCall) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejections.increment();
+            log.warn("Circuit open, rejecting {} for order: {}", action, orderId);
+            return PaymentResult.rejected(CIRCUIT_OPEN_REASON);
+        }
+        if (!limiter.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            limitRejections.increment();
+            log.warn("Concurrency limit {} reached, rejecting {} for order: {}", limiter.getLimit(), action, orderId);
+            return PaymentResult.rejected(LIMIT_EXCEEDED_REASON);
+        }
+
+        long start = System.nanoTime();
+        try {
+            PaymentResult result = gatewayCall.get();
+            long latency = System.nanoTime() - start;
+            latencyTimer.record(latency, TimeUnit.NANOSECONDS);
+            limiter.onSuccess(latency);
+            if (latency > slowCallThresholdNanos) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            limiter.onDropped();
+            circuitBreaker.onFailure();
+            log.error("Payment gateway {} call failed for order: {}", action, orderId, e);
+            return PaymentResult.rejected(PROVIDER_ERROR_REASON);
+        }
+    }
+
+    public AimdConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,8 @@
+package com.eventdriven.payment.gateway;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.eventdriven.payment.gateway;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PaymentResult {
+
+    public enum Outcome {
+        APPROVED,
+        DECLINED,
+        REJECTED
+    }
+
+    private final Outcome outcome;
+    private final String transactionId;
+    private final String reason;
+
+    public static PaymentResult approved(String transactionId) {
+        return new PaymentResult(Outcome.APPROVED, transactionId, null);
+    }
+
+    public static PaymentResult declined(String reason) {
+        return new PaymentResult(Outcome.DECLINED, null, reason);
+    }
+
+    /**
+     * The provider was not asked at all (load shed or circuit open); the caller may retry later.
+     */
+    public static PaymentResult rejected(String reason) {
+        return new PaymentResult(Outcome.REJECTED, null, reason);
+    }
+
+    public boolean isApproved() {
+        return outcome == Outcome.APPROVED;
+    }
+
+    public boolean isRetryable() {
+        return outcome == Outcome.REJECTED;
+    }
+}
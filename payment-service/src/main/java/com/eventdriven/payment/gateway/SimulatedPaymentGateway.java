@@ -0,0 +1,81 @@
+package com.eventdriven.payment.gateway;
+
+import com.eventdriven.payment.config.PaymentSimulatorProperties;
+import com.eventdriven.payment.config.PaymentSimulatorProperties.Latency;
+import com.eventdriven.payment.config.PaymentSimulatorProperties.Profile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+@Component
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Profile profile;
+    private final Long seed;
+
+    public SimulatedPaymentGateway(PaymentSimulatorProperties properties) {
+        this.profile = properties.resolveActiveProfile();
+        this.seed = properties.getSeed();
+        log.info("Payment simulator using profile '{}' (seed: {})", properties.getActiveProfile(), seed);
+    }
+
+    @Override
+    public PaymentResult authorize(Long orderId, String userId, BigDecimal amount) {
+        RandomGenerator random = randomFor(orderId);
+
+        if (random.nextDouble() < profile.getTimeoutRate()) {
+            pause(profile.getTimeout().toNanos());
+            throw new PaymentGatewayException("Payment provider timed out for order: " + orderId);
+        }
+
+        pause(sampleLatencyNanos(profile.getLatency(), random));
+
+        if (random.nextDouble() < profile.getSuccessRate()) {
+            return PaymentResult.approved(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+        List<String> reasons = profile.getDeclineReasons();
+        return PaymentResult.declined(reasons.isEmpty() ? "Declined" : reasons.get(random.nextInt(reasons.size())));
+    }
+
+    @Override
+    public PaymentResult refund(Long orderId, String transactionId, BigDecimal amount) {
+        // Refunds of captured payments are not declined; they only take as long as any other call
+        pause(sampleLatencyNanos(profile.getLatency(), randomFor(orderId)));
+        return PaymentResult.approved(transactionId);
+    }
+
+    private RandomGenerator randomFor(Long orderId) {
+        if (seed == null || orderId == null) {
+            return ThreadLocalRandom.current();
+        }
+        // Per-order stream: nothing shared between listener threads, and reproducible across runs
+        return new SplittableRandom(seed ^ (orderId * 0x9E3779B97F4A7C15L));
+    }
+
+    static long sampleLatencyNanos(Latency latency, RandomGenerator random) {
+        long base = latency.getBase().toNanos();
+        long sampled = switch (latency.getDistribution()) {
+            case FIXED -> base;
+            case NORMAL -> base + (long) (random.nextGaussian() * latency.getJitter().toNanos());
+            case LONG_TAIL -> (long) (base * Math.exp(latency.getTailSigma() * random.nextGaussian()));
+        };
+        return Math.max(0, Math.min(sampled, latency.getMax().toNanos()));
+    }
+
+    private static void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
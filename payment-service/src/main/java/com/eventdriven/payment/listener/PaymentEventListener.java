@@ -1,6 +1,7 @@
 package com.eventdriven.payment.listener;
 
-import com.eventdriven.payment.event.OrderCreatedEvent;
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.events.RefundPaymentCommand;
 import com.eventdriven.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,4 +20,10 @@ public class PaymentEventListener {
         log.info("Received OrderCreatedEvent for order: {}", event.getOrderId());
         paymentService.processPayment(event);
     }
+
+    @KafkaListener(topics = "refund-payment-topic", groupId = "payment-service-group")
+    public void handleRefundPayment(RefundPaymentCommand command) {
+        log.info("Received RefundPaymentCommand for order: {}", command.getOrderId());
+        paymentService.refundPayment(command);
+    }
 }
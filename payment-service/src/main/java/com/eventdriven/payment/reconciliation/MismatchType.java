@@ -0,0 +1,9 @@
+package com.eventdriven.payment.reconciliation;
+
+public enum MismatchType {
+    MISSING_PAYMENT,
+    MISSING_SETTLEMENT,
+    AMOUNT_DIFFERS,
+    STATUS_DIFFERS,
+    MALFORMED_ROW
+}
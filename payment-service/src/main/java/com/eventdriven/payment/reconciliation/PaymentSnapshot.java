@@ -0,0 +1,19 @@
+package com.eventdriven.payment.reconciliation;
+
+import com.eventdriven.payment.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Unmanaged read-only view of a payment, so batches fetched during reconciliation never accumulate in
+ * the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentSnapshot {
+    private final Long orderId;
+    private final BigDecimal amount;
+    private final PaymentStatus status;
+}
@@ -0,0 +1,35 @@
+package com.eventdriven.payment.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private State state;
+    private String settlementFile;
+    private String reportFile;
+    private long settlementRows;
+    private long paymentsRead;
+    private long matched;
+    @Builder.Default
+    private Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+    private long elapsedMillis;
+    private String error;
+    private LocalDateTime startedAt;
+}
@@ -0,0 +1,224 @@
+package com.eventdriven.payment.reconciliation;
+
+import com.eventdriven.payment.entity.PaymentStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cursor over a provider settlement file ({@code order_id,transaction_id,amount,status}) that maps the
+ * file window by window and parses fields straight out of the mapped bytes, so neither the file nor
+ * its rows are ever materialised as Strings. A row must fit inside one window.
+ */
+public class SettlementFileReader implements Closeable {
+
+    private static final byte[][] STATUS_NAMES = statusNames();
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private long lineNumber;
+
+    private long orderId;
+    private long amountCents;
+    private PaymentStatus status;
+    private boolean malformed;
+
+    public SettlementFileReader(Path file, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        map(0);
+        skipHeader();
+    }
+
+    /**
+     * Advances to the next non-empty row. Returns false at end of file.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                return false;
+            }
+            int lineStart = position;
+            position = lineEnd + 1;
+            lineNumber++;
+            int end = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (end > lineStart) {
+                parse(lineStart, end);
+                return true;
+            }
+        }
+    }
+
+    private int findLineEnd() throws IOException {
+        while (true) {
+            int limit = window.limit();
+            for (int i = position; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    return i;
+                }
+            }
+            long absolute = windowStart + position;
+            if (windowStart + limit >= fileSize) {
+                // Last row without trailing newline
+                return position < limit ? limit : -1;
+            }
+            if (position == 0) {
+                throw new IOException("Settlement row longer than window of " + windowSize + " bytes at line " + (lineNumber + 1));
+            }
+            map(absolute);
+        }
+    }
+
+    private void parse(int start, int end) {
+        malformed = false;
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || window.get(i) == ',') {
+                switch (field) {
+                    case 0 -> orderId = parseLong(fieldStart, i);
+                    case 2 -> amountCents = parseCents(fieldStart, i);
+                    case 3 -> status = parseStatus(fieldStart, i);
+                    default -> { }
+                }
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        if (field != 4) {
+            malformed = true;
+        }
+    }
+
+    private long parseLong(int start, int end) {
+        if (start == end) {
+            malformed = true;
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                malformed = true;
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private long parseCents(int start, int end) {
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean negative = start < end && window.get(start) == '-';
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || fractionDigits == 2) {
+                malformed = true;
+                return 0;
+            }
+            value = value * 10 + digit;
+            digits++;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            malformed = true;
+            return 0;
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+
+    private PaymentStatus parseStatus(int start, int end) {
+        PaymentStatus[] statuses = PaymentStatus.values();
+        outer:
+        for (int s = 0; s < STATUS_NAMES.length; s++) {
+            byte[] name = STATUS_NAMES[s];
+            if (name.length != end - start) {
+                continue;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (window.get(start + i) != name[i]) {
+                    continue outer;
+                }
+            }
+            return statuses[s];
+        }
+        malformed = true;
+        return null;
+    }
+
+    private void skipHeader() throws IOException {
+        if (window.limit() > 0) {
+            byte first = window.get(0);
+            if (first < '0' || first > '9') {
+                int lineEnd = findLineEnd();
+                position = lineEnd < 0 ? window.limit() : lineEnd + 1;
+                lineNumber++;
+            }
+        }
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        position = 0;
+    }
+
+    private static byte[][] statusNames() {
+        PaymentStatus[] statuses = PaymentStatus.values();
+        byte[][] names = new byte[statuses.length][];
+        for (int i = 0; i < statuses.length; i++) {
+            names[i] = statuses[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public boolean isMalformed() {
+        return malformed;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
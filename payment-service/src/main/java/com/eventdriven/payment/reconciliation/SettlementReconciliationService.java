@@ -0,0 +1,229 @@
+package com.eventdriven.payment.reconciliation;
+
+import com.eventdriven.payment.config.ReconciliationProperties;
+import com.eventdriven.payment.entity.PaymentStatus;
+import com.eventdriven.payment.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reconciles a provider settlement file against the payments table with a merge join: the file is
+ * streamed in order-id order and payments are paged in the same order by keyset, so memory use is
+ * bounded by one mapped window plus one batch regardless of file size.
+ */
+@Service
+@Slf4j
+public class SettlementReconciliationService {
+
+    private final PaymentRepository paymentRepository;
+    private final ReconciliationProperties properties;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "settlement-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<ReconciliationReport> latest = new AtomicReference<>();
+
+    public SettlementReconciliationService(PaymentRepository paymentRepository, ReconciliationProperties properties) {
+        this.paymentRepository = paymentRepository;
+        this.properties = properties;
+    }
+
+    public ReconciliationReport start(String fileName) {
+        Path directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+        Path settlementFile = directory.resolve(fileName).normalize();
+        if (!settlementFile.startsWith(directory) || !Files.isRegularFile(settlementFile)) {
+            throw new IllegalArgumentException("Settlement file not found: " + fileName);
+        }
+        Path reportFile = settlementFile.resolveSibling(settlementFile.getFileName() + ".mismatches.csv");
+
+        ReconciliationReport running = ReconciliationReport.builder()
+                .state(ReconciliationReport.State.RUNNING)
+                .settlementFile(settlementFile.toString())
+                .reportFile(reportFile.toString())
+                .startedAt(LocalDateTime.now())
+                .build();
+        ReconciliationReport current = latest.get();
+        if ((current != null && current.getState() == ReconciliationReport.State.RUNNING)
+                || !latest.compareAndSet(current, running)) {
+            throw new IllegalStateException("A reconciliation is already running");
+        }
+
+        executor.execute(() -> {
+            try {
+                latest.set(reconcile(settlementFile, reportFile).toBuilder()
+                        .startedAt(running.getStartedAt())
+                        .build());
+            } catch (Exception e) {
+                log.error("Reconciliation of {} failed", settlementFile, e);
+                latest.set(running.toBuilder()
+                        .state(ReconciliationReport.State.FAILED)
+                        .error(e.getMessage())
+                        .build());
+            }
+        });
+        return running;
+    }
+
+    public Optional<ReconciliationReport> getLatest() {
+        return Optional.ofNullable(latest.get());
+    }
+
+    public ReconciliationReport reconcile(Path settlementFile, Path reportFile) throws IOException {
+        log.info("Reconciling settlement file {}", settlementFile);
+        long start = System.nanoTime();
+        Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+        long rows = 0;
+        long matched = 0;
+        PaymentCursor payments = new PaymentCursor();
+
+        try (SettlementFileReader reader = new SettlementFileReader(settlementFile, properties.getWindowSize());
+             BufferedWriter out = Files.newBufferedWriter(reportFile)) {
+            out.write("line,order_id,mismatch,settlement_amount,payment_amount,settlement_status,payment_status\n");
+
+            long previousOrderId = -1;
+            while (reader.next()) {
+                rows++;
+                if (reader.isMalformed()) {
+                    writeMismatch(out, mismatches, MismatchType.MALFORMED_ROW, reader.getLineNumber(), null, null, null);
+                    continue;
+                }
+                long orderId = reader.getOrderId();
+                if (orderId <= previousOrderId) {
+                    throw new IllegalStateException("Settlement file is not sorted by order id at line " + reader.getLineNumber());
+                }
+                previousOrderId = orderId;
+
+                PaymentSnapshot payment = payments.peek();
+                while (payment != null && payment.getOrderId() < orderId) {
+                    reportUnsettled(out, mismatches, payments.advance());
+                    payment = payments.peek();
+                }
+
+                if (payment == null || payment.getOrderId() != orderId) {
+                    writeMismatch(out, mismatches, MismatchType.MISSING_PAYMENT, reader.getLineNumber(), orderId, reader, null);
+                    continue;
+                }
+                payments.advance();
+
+                if (toCents(payment) != reader.getAmountCents()) {
+                    writeMismatch(out, mismatches, MismatchType.AMOUNT_DIFFERS, reader.getLineNumber(), orderId, reader, payment);
+                } else if (payment.getStatus() != reader.getStatus()) {
+                    writeMismatch(out, mismatches, MismatchType.STATUS_DIFFERS, reader.getLineNumber(), orderId, reader, payment);
+                } else {
+                    matched++;
+                }
+            }
+
+            for (PaymentSnapshot payment = payments.peek(); payment != null; payment = payments.peek()) {
+                reportUnsettled(out, mismatches, payments.advance());
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Reconciled {} settlement rows against {} payments in {} ms: {} matched, mismatches {}",
+                rows, payments.read, elapsedMillis, matched, mismatches);
+
+        return ReconciliationReport.builder()
+                .state(ReconciliationReport.State.COMPLETED)
+                .settlementFile(settlementFile.toString())
+                .reportFile(reportFile.toString())
+                .settlementRows(rows)
+                .paymentsRead(payments.read)
+                .matched(matched)
+                .mismatches(mismatches)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private void reportUnsettled(Writer out, Map<MismatchType, Long> mismatches, PaymentSnapshot payment) throws IOException {
+        // Only captured funds are expected on a settlement file
+        if (payment.getStatus() == PaymentStatus.SUCCEEDED) {
+            writeMismatch(out, mismatches, MismatchType.MISSING_SETTLEMENT, 0, payment.getOrderId(), null, payment);
+        }
+    }
+
+    private static void writeMismatch(Writer out, Map<MismatchType, Long> mismatches, MismatchType type,
+                                      long line, Long orderId, SettlementFileReader row,
+                                      PaymentSnapshot payment) throws IOException {
+        mismatches.merge(type, 1L, Long::sum);
+        out.write(Long.toString(line));
+        out.write(',');
+        out.write(orderId == null ? "" : orderId.toString());
+        out.write(',');
+        out.write(type.name());
+        out.write(',');
+        out.write(row == null ? "" : formatCents(row.getAmountCents()));
+        out.write(',');
+        out.write(payment == null ? "" : payment.getAmount().toPlainString());
+        out.write(',');
+        out.write(row == null ? "" : row.getStatus().name());
+        out.write(',');
+        out.write(payment == null ? "" : payment.getStatus().name());
+        out.write('\n');
+    }
+
+    private static long toCents(PaymentSnapshot payment) {
+        return payment.getAmount().movePointRight(2).longValue();
+    }
+
+    private static String formatCents(long cents) {
+        long abs = Math.abs(cents);
+        return (cents < 0 ? "-" : "") + abs / 100 + "." + (abs % 100 < 10 ? "0" : "") + abs % 100;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Keyset-paged iterator over payments ordered by order id.
+     */
+    private class PaymentCursor {
+
+        private List<PaymentSnapshot> batch = List.of();
+        private int index;
+        private long lastOrderId = -1;
+        private boolean exhausted;
+        private long read;
+
+        PaymentSnapshot peek() {
+            if (index == batch.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                batch = paymentRepository.findSnapshotsAfter(lastOrderId, PageRequest.of(0, properties.getBatchSize()));
+                index = 0;
+                exhausted = batch.size() < properties.getBatchSize();
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                lastOrderId = batch.get(batch.size() - 1).getOrderId();
+            }
+            return batch.get(index);
+        }
+
+        PaymentSnapshot advance() {
+            read++;
+            return batch.get(index++);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.eventdriven.payment.repository;
 
 import com.eventdriven.payment.entity.Payment;
+import com.eventdriven.payment.reconciliation.PaymentSnapshot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
+
+    @Query("select new com.eventdriven.payment.reconciliation.PaymentSnapshot(p.orderId, p.amount, p.status) "
+            + "from Payment p where p.orderId > :afterOrderId order by p.orderId")
+    List<PaymentSnapshot> findSnapshotsAfter(@Param("afterOrderId") Long afterOrderId, Pageable pageable);
 }
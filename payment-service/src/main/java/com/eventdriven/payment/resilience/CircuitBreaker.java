@@ -0,0 +1,81 @@
+package com.eventdriven.payment.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and rejects calls for {@code openDurationNanos}; the first call afterwards is let through as a
+ * half-open trial and decides whether the circuit closes again or re-opens.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openDurationNanos, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.clock = clock;
+    }
+
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+            // Exactly one caller wins the half-open trial
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED) || state.get() == State.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            trip(State.HALF_OPEN);
+        } else if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip(State.CLOSED);
+        }
+    }
+
+    /**
+     * Releases a half-open trial permission that was granted but never used.
+     */
+    public void onIgnored() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void trip(State from) {
+        openedAt = clock.getAsLong();
+        if (state.compareAndSet(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
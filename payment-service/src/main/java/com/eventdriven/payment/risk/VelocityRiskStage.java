@@ -0,0 +1,74 @@
+package com.eventdriven.payment.risk;
+
+import com.eventdriven.payment.config.RiskProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Velocity check run before the payment gateway: rejects users placing too many orders, or too much
+ * value, within the last minute, hour or day.
+ */
+@Component
+@Slf4j
+public class VelocityRiskStage {
+
+    private final boolean enabled;
+    private final VelocityTracker tracker;
+    private final VelocityTracker.Window[] windows;
+    private final Counter[] rejections;
+
+    public VelocityRiskStage(RiskProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.windows = new VelocityTracker.Window[]{
+                window("1m", 15_000L, 4, properties.getMinute()),
+                window("1h", 600_000L, 6, properties.getHour()),
+                window("24h", 10_800_000L, 8, properties.getDay())
+        };
+        this.tracker = new VelocityTracker(windows, properties.getMaxTrackedUsers());
+
+        this.rejections = new Counter[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            rejections[i] = Counter.builder("payment.risk.rejections")
+                    .tag("window", windows[i].getName())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("payment.risk.tracked.users", tracker, VelocityTracker::getTrackedUsers)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the order and returns a decline reason if it breaches a velocity limit.
+     */
+    public Optional<String> evaluate(String userId, BigDecimal amount) {
+        if (!enabled || userId == null) {
+            return Optional.empty();
+        }
+        long cents = amount == null ? 0 : amount.movePointRight(2).longValue();
+        int breached = tracker.record(userId, cents, System.currentTimeMillis());
+        if (breached < 0) {
+            return Optional.empty();
+        }
+        rejections[breached].increment();
+        return Optional.of("Velocity limit exceeded (" + windows[breached].getName() + ")");
+    }
+
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictIdleUsers() {
+        int evicted = tracker.evictIdle(System.currentTimeMillis());
+        if (evicted > 0) {
+            log.debug("Evicted {} idle users from velocity tracker", evicted);
+        }
+    }
+
+    private static VelocityTracker.Window window(String name, long bucketMillis, int buckets, RiskProperties.Limit limit) {
+        return new VelocityTracker.Window(name, bucketMillis, buckets,
+                limit.getMaxOrders(), limit.getMaxAmount().movePointRight(2).longValue());
+    }
+}
@@ -0,0 +1,147 @@
+package com.eventdriven.payment.risk;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user order count and amount over several sliding windows. Each window is a ring of time buckets
+ * and each bucket is a single packed {@code long} ({@code epoch:20 | count:12 | cents:32}) updated by
+ * CAS, so recording an order is lock-free and a user costs one small {@link AtomicLongArray}.
+ * A window of {@code n} buckets covers between {@code n - 1} and {@code n} bucket widths.
+ */
+public class VelocityTracker {
+
+    private static final int EPOCH_BITS = 20;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+    private static final int COUNT_BITS = 12;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long CENTS_MASK = 0xFFFF_FFFFL;
+
+    private final Window[] windows;
+    private final int slots;
+    private final int maxTrackedUsers;
+    private final long idleMillis;
+    private final ConcurrentHashMap<String, UserBuckets> users = new ConcurrentHashMap<>();
+
+    public VelocityTracker(Window[] windows, int maxTrackedUsers) {
+        this.windows = windows.clone();
+        int offset = 0;
+        long longest = 0;
+        for (Window window : this.windows) {
+            window.offset = offset;
+            offset += window.buckets;
+            longest = Math.max(longest, window.bucketMillis * window.buckets);
+        }
+        this.slots = offset;
+        this.maxTrackedUsers = maxTrackedUsers;
+        this.idleMillis = longest;
+    }
+
+    /**
+     * Records an order and returns the index of the first window whose limits it breaches, or -1.
+     * Users beyond {@code maxTrackedUsers} are not tracked and always pass.
+     */
+    public int record(String userId, long amountCents, long nowMillis) {
+        UserBuckets user = users.get(userId);
+        if (user == null) {
+            if (users.size() >= maxTrackedUsers) {
+                return -1;
+            }
+            user = users.computeIfAbsent(userId, id -> new UserBuckets(slots));
+        }
+        user.lastSeen = nowMillis;
+
+        int breached = -1;
+        for (int w = 0; w < windows.length; w++) {
+            Window window = windows[w];
+            long epoch = nowMillis / window.bucketMillis;
+            add(user.buckets, window.offset + (int) (epoch % window.buckets), epoch & EPOCH_MASK, amountCents);
+
+            if (breached < 0) {
+                long count = 0;
+                long cents = 0;
+                for (int b = 0; b < window.buckets; b++) {
+                    long packed = user.buckets.get(window.offset + b);
+                    long age = ((epoch & EPOCH_MASK) - (packed >>> (64 - EPOCH_BITS))) & EPOCH_MASK;
+                    if (packed != 0 && age < window.buckets) {
+                        count += (packed >>> 32) & COUNT_MASK;
+                        cents += packed & CENTS_MASK;
+                    }
+                }
+                if (count > window.maxOrders || cents > window.maxCents) {
+                    breached = w;
+                }
+            }
+        }
+        return breached;
+    }
+
+    private static void add(AtomicLongArray buckets, int index, long epoch, long amountCents) {
+        while (true) {
+            long current = buckets.get(index);
+            long count = 0;
+            long cents = 0;
+            if (current != 0 && (current >>> (64 - EPOCH_BITS)) == epoch) {
+                count = (current >>> 32) & COUNT_MASK;
+                cents = current & CENTS_MASK;
+            }
+            count = Math.min(COUNT_MASK, count + 1);
+            cents = Math.min(CENTS_MASK, cents + Math.max(0, amountCents));
+            long updated = (epoch << (64 - EPOCH_BITS)) | (count << 32) | cents;
+            if (buckets.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops users with no order inside the longest window. Returns the number evicted.
+     */
+    public int evictIdle(long nowMillis) {
+        int evicted = 0;
+        Iterator<Map.Entry<String, UserBuckets>> it = users.entrySet().iterator();
+        while (it.hasNext()) {
+            if (nowMillis - it.next().getValue().lastSeen > idleMillis) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int getTrackedUsers() {
+        return users.size();
+    }
+
+    public static class Window {
+        private final String name;
+        private final long bucketMillis;
+        private final int buckets;
+        private final long maxOrders;
+        private final long maxCents;
+        private int offset;
+
+        public Window(String name, long bucketMillis, int buckets, long maxOrders, long maxCents) {
+            this.name = name;
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+            this.maxOrders = maxOrders;
+            this.maxCents = maxCents;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class UserBuckets {
+        private final AtomicLongArray buckets;
+        private volatile long lastSeen;
+
+        UserBuckets(int slots) {
+            this.buckets = new AtomicLongArray(slots);
+        }
+    }
+}
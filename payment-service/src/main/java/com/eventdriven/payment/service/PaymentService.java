@@ -1,20 +1,23 @@
 package com.eventdriven.payment.service;
 
+import com.eventdriven.events.OrderCreatedEvent;
+import com.eventdriven.events.PaymentFailedEvent;
+import com.eventdriven.events.PaymentRefundedEvent;
+import com.eventdriven.events.PaymentSucceededEvent;
+import com.eventdriven.events.RefundPaymentCommand;
+import com.eventdriven.kafka.saga.SagaTracing;
 import com.eventdriven.payment.entity.Payment;
 import com.eventdriven.payment.entity.PaymentStatus;
-import com.eventdriven.payment.event.OrderCreatedEvent;
-import com.eventdriven.payment.event.PaymentFailedEvent;
-import com.eventdriven.payment.event.PaymentSucceededEvent;
+import com.eventdriven.payment.gateway.PaymentGatewayClient;
+import com.eventdriven.payment.gateway.PaymentResult;
 import com.eventdriven.payment.repository.PaymentRepository;
+import com.eventdriven.payment.risk.VelocityRiskStage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Random;
-import java.util.UUID;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,7 +25,9 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final Random random = new Random();
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final VelocityRiskStage velocityRiskStage;
+    private final SagaTracing sagaTracing;
 
     @Transactional
     public void processPayment(OrderCreatedEvent event) {
@@ -38,12 +43,15 @@ public class PaymentService {
 
         paymentRepository.save(payment);
 
-        // Simulate payment processing (90% success rate)
-        boolean paymentSuccess = random.nextInt(100) < 90;
+        // Velocity breaches are declined without a gateway round-trip
+        PaymentResult result = velocityRiskStage.evaluate(event.getUserId(), event.getTotalAmount())
+                .map(PaymentResult::declined)
+                .orElseGet(() -> paymentGatewayClient.authorize(
+                        event.getOrderId(), event.getUserId(), event.getTotalAmount()));
 
-        if (paymentSuccess) {
+        if (result.isApproved()) {
             payment.setStatus(PaymentStatus.SUCCEEDED);
-            payment.setTransactionId(UUID.randomUUID().toString());
+            payment.setTransactionId(result.getTransactionId());
             paymentRepository.save(payment);
 
             PaymentSucceededEvent successEvent = PaymentSucceededEvent.builder()
@@ -52,21 +60,58 @@ public class PaymentService {
                     .items(event.getItems())
                     .build();
 
-            kafkaTemplate.send("payment-succeeded-topic", successEvent);
+            kafkaTemplate.send(sagaTracing.next("payment-succeeded-topic",
+                    String.valueOf(event.getOrderId()), successEvent));
             log.info("Payment succeeded for order: {}", event.getOrderId());
         } else {
             payment.setStatus(PaymentStatus.FAILED);
-            payment.setFailureReason("Insufficient funds");
+            payment.setFailureReason(result.getReason());
             paymentRepository.save(payment);
 
             PaymentFailedEvent failedEvent = PaymentFailedEvent.builder()
                     .orderId(event.getOrderId())
-                    .reason("Insufficient funds")
+                    .reason(result.getReason())
+                    .retryable(result.isRetryable())
                     .build();
 
-            kafkaTemplate.send("payment-failed-topic", failedEvent);
-            log.info("Payment failed for order: {}", event.getOrderId());
+            kafkaTemplate.send(sagaTracing.next("payment-failed-topic",
+                    String.valueOf(event.getOrderId()), failedEvent));
+            log.info("Payment failed for order: {} ({})", event.getOrderId(), result.getReason());
+        }
+    }
+
+    /**
+     * Compensates a payment whose order could not be fulfilled. Refunding is idempotent: a payment
+     * already refunded is only confirmed again. A refund the provider rejects throws, so the command
+     * goes through the retry topics.
+     */
+    @Transactional
+    public void refundPayment(RefundPaymentCommand command) {
+        log.info("Refunding payment for order: {} ({})", command.getOrderId(), command.getReason());
+        Payment payment = getPaymentByOrderId(command.getOrderId());
+
+        if (payment.getStatus() == PaymentStatus.SUCCEEDED) {
+            PaymentResult result = paymentGatewayClient.refund(
+                    payment.getOrderId(), payment.getTransactionId(), payment.getAmount());
+            if (!result.isApproved()) {
+                throw new IllegalStateException("Refund failed for order " + payment.getOrderId()
+                        + ": " + result.getReason());
+            }
+            payment.setStatus(PaymentStatus.REFUNDED);
+            payment.setFailureReason(command.getReason());
+            paymentRepository.save(payment);
+        } else if (payment.getStatus() != PaymentStatus.REFUNDED) {
+            log.warn("Nothing to refund for order: {} (payment {})", payment.getOrderId(), payment.getStatus());
         }
+
+        PaymentRefundedEvent refundedEvent = PaymentRefundedEvent.builder()
+                .orderId(payment.getOrderId())
+                .paymentId(payment.getTransactionId())
+                .build();
+
+        kafkaTemplate.send(sagaTracing.next("payment-refunded-topic",
+                String.valueOf(payment.getOrderId()), refundedEvent));
+        log.info("Payment refunded for order: {}", payment.getOrderId());
     }
 
     public Payment getPaymentByOrderId(Long orderId) {
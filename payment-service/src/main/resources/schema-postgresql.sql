@@ -0,0 +1,6 @@
+-- Hibernate creates payments.status with a check constraint listing the PaymentStatus values of the day,
+-- and ddl-auto: update never widens it. Recreate it with every current value; NOT VALID skips
+-- rescanning existing rows, which all satisfied the narrower constraint.
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_status_check;
+ALTER TABLE payments ADD CONSTRAINT payments_status_check CHECK (status IN (
+    'PENDING', 'PROCESSING', 'SUCCEEDED', 'FAILED', 'REFUNDED')) NOT VALID;
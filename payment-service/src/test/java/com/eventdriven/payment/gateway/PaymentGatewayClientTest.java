@@ -0,0 +1,164 @@
+package com.eventdriven.payment.gateway;
+
+import com.eventdriven.payment.config.PaymentGatewayProperties;
+import com.eventdriven.payment.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentGatewayClientTest {
+
+    private LatencyInjectingGateway gateway;
+    private PaymentGatewayProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new LatencyInjectingGateway();
+        meterRegistry = new SimpleMeterRegistry();
+
+        properties = new PaymentGatewayProperties();
+        properties.getLimiter().setInitialLimit(4);
+        properties.getLimiter().setMinLimit(1);
+        properties.getLimiter().setMaxLimit(10);
+        properties.getLimiter().setLatencyThreshold(Duration.ofMillis(20));
+        properties.getLimiter().setBackoffRatio(0.5);
+        properties.getCircuitBreaker().setFailureThreshold(3);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(100));
+        properties.getCircuitBreaker().setSlowCallThreshold(Duration.ofMillis(40));
+    }
+
+    @Test
+    void authorize_WithFastProvider_ShouldPassResultThrough() {
+        PaymentGatewayClient client = new PaymentGatewayClient(gateway, properties, meterRegistry);
+
+        PaymentResult result = client.authorize(1L, "user123", BigDecimal.TEN);
+
+        assertThat(result.isApproved()).isTrue();
+        assertThat(client.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void authorize_WithLatencySpike_ShouldShrinkLimit() {
+        PaymentGatewayClient client = new PaymentGatewayClient(gateway, properties, meterRegistry);
+
+        gateway.latencyMillis = 30;
+        client.authorize(1L, "user123", BigDecimal.TEN);
+        client.authorize(2L, "user123", BigDecimal.TEN);
+
+        assertThat(client.getLimiter().getLimit()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.gateway.concurrency.limit").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void authorize_AboveLimit_ShouldRejectWithRetryableReason() throws Exception {
+        properties.getLimiter().setInitialLimit(2);
+        PaymentGatewayClient client = new PaymentGatewayClient(gateway, properties, meterRegistry);
+        gateway.blocker = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<PaymentResult>> blocked = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                long orderId = i;
+                blocked.add(executor.submit(() -> client.authorize(orderId, "user123", BigDecimal.TEN)));
+            }
+            while (client.getLimiter().getInFlight() < 2) {
+                Thread.onSpinWait();
+            }
+
+            PaymentResult rejected = client.authorize(3L, "user123", BigDecimal.TEN);
+
+            assertThat(rejected.isRetryable()).isTrue();
+            assertThat(rejected.getReason()).isEqualTo(PaymentGatewayClient.LIMIT_EXCEEDED_REASON);
+            assertThat(meterRegistry.get("payment.gateway.rejections").tag("reason", "limit").counter().count())
+                    .isEqualTo(1.0);
+
+            gateway.blocker.countDown();
+            for (Future<PaymentResult> future : blocked) {
+                assertThat(future.get(1, TimeUnit.SECONDS).isApproved()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void authorize_WithSustainedSlowProvider_ShouldOpenCircuitAndRecover() throws Exception {
+        PaymentGatewayClient client = new PaymentGatewayClient(gateway, properties, meterRegistry);
+
+        gateway.latencyMillis = 50;
+        for (int i = 0; i < 3; i++) {
+            client.authorize((long) i, "user123", BigDecimal.TEN);
+        }
+        assertThat(client.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int callsBefore = gateway.calls;
+        PaymentResult rejected = client.authorize(10L, "user123", BigDecimal.TEN);
+        assertThat(rejected.isRetryable()).isTrue();
+        assertThat(rejected.getReason()).isEqualTo(PaymentGatewayClient.CIRCUIT_OPEN_REASON);
+        assertThat(gateway.calls).isEqualTo(callsBefore);
+
+        gateway.latencyMillis = 0;
+        Thread.sleep(150);
+        assertThat(client.authorize(11L, "user123", BigDecimal.TEN).isApproved()).isTrue();
+        assertThat(client.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void authorize_WhenProviderThrows_ShouldRejectAndCountFailure() {
+        PaymentGatewayClient client = new PaymentGatewayClient(gateway, properties, meterRegistry);
+        gateway.failure = new IllegalStateException("connection reset");
+
+        PaymentResult result = client.authorize(1L, "user123", BigDecimal.TEN);
+
+        assertThat(result.isRetryable()).isTrue();
+        assertThat(result.getReason()).isEqualTo(PaymentGatewayClient.PROVIDER_ERROR_REASON);
+        assertThat(client.getLimiter().getInFlight()).isZero();
+    }
+
+    private static class LatencyInjectingGateway implements PaymentGateway {
+
+        volatile long latencyMillis;
+        volatile CountDownLatch blocker;
+        volatile RuntimeException failure;
+        volatile int calls;
+
+        @Override
+        public PaymentResult authorize(Long orderId, String userId, BigDecimal amount) {
+            calls++;
+            try {
+                if (blocker != null) {
+                    blocker.await(1, TimeUnit.SECONDS);
+                }
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return PaymentResult.approved(UUID.randomUUID().toString());
+        }
+
+        @Override
+        public PaymentResult refund(Long orderId, String transactionId, BigDecimal amount) {
+            return PaymentResult.approved(transactionId);
+        }
+    }
+}
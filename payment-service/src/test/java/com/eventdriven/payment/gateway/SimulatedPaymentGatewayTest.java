@@ -0,0 +1,109 @@
+package com.eventdriven.payment.gateway;
+
+import com.eventdriven.payment.config.PaymentSimulatorProperties;
+import com.eventdriven.payment.config.PaymentSimulatorProperties.LatencyDistribution;
+import com.eventdriven.payment.config.PaymentSimulatorProperties.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatedPaymentGatewayTest {
+
+    @Test
+    void authorize_WithSameSeed_ShouldBeReproducible() {
+        SimulatedPaymentGateway first = new SimulatedPaymentGateway(properties(42L, new Profile()));
+        SimulatedPaymentGateway second = new SimulatedPaymentGateway(properties(42L, new Profile()));
+
+        List<String> firstRun = LongStream.range(0, 200)
+                .mapToObj(id -> describe(first.authorize(id, "user123", BigDecimal.TEN)))
+                .toList();
+        List<String> secondRun = LongStream.range(0, 200).parallel()
+                .mapToObj(id -> describe(second.authorize(id, "user123", BigDecimal.TEN)))
+                .toList();
+
+        assertThat(secondRun).isEqualTo(firstRun);
+    }
+
+    @Test
+    void authorize_ShouldFollowConfiguredSuccessMix() {
+        Profile profile = new Profile();
+        profile.setSuccessRate(0.7);
+        profile.setDeclineReasons(List.of("Card expired"));
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(properties(7L, profile));
+
+        long approved = LongStream.range(0, 10_000)
+                .filter(id -> gateway.authorize(id, "user123", BigDecimal.TEN).isApproved())
+                .count();
+
+        assertThat(approved).isBetween(6_700L, 7_300L);
+        assertThat(gateway.authorize(findDeclined(gateway), "user123", BigDecimal.TEN).getReason())
+                .isEqualTo("Card expired");
+    }
+
+    @Test
+    void authorize_WithTimeoutInjection_ShouldThrowAfterTimeout() {
+        Profile profile = new Profile();
+        profile.setTimeoutRate(1.0);
+        profile.setTimeout(Duration.ofMillis(20));
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(properties(1L, profile));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.authorize(1L, "user123", BigDecimal.TEN))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessageContaining("timed out");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void sampleLatency_LongTail_ShouldExceedMedianInTheTail() {
+        PaymentSimulatorProperties.Latency latency = new PaymentSimulatorProperties.Latency();
+        latency.setDistribution(LatencyDistribution.LONG_TAIL);
+        latency.setBase(Duration.ofMillis(100));
+        latency.setTailSigma(1.0);
+        SplittableRandom random = new SplittableRandom(3L);
+
+        long[] samples = LongStream.range(0, 10_000)
+                .map(i -> SimulatedPaymentGateway.sampleLatencyNanos(latency, random))
+                .sorted()
+                .toArray();
+
+        assertThat(samples[5_000]).isBetween(Duration.ofMillis(90).toNanos(), Duration.ofMillis(110).toNanos());
+        assertThat(samples[9_900]).isGreaterThan(Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    void constructor_WithUnknownProfile_ShouldFailStartup() {
+        PaymentSimulatorProperties properties = properties(null, new Profile());
+        properties.setActiveProfile("realistc");
+
+        assertThatThrownBy(() -> new SimulatedPaymentGateway(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("realistc");
+    }
+
+    private static long findDeclined(SimulatedPaymentGateway gateway) {
+        return LongStream.range(0, 1_000)
+                .filter(id -> !gateway.authorize(id, "user123", BigDecimal.TEN).isApproved())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String describe(PaymentResult result) {
+        return result.getOutcome() + ":" + result.getTransactionId() + ":" + result.getReason();
+    }
+
+    private static PaymentSimulatorProperties properties(Long seed, Profile profile) {
+        PaymentSimulatorProperties properties = new PaymentSimulatorProperties();
+        properties.setSeed(seed);
+        properties.setActiveProfile("test");
+        properties.getProfiles().put("test", profile);
+        return properties;
+    }
+}
@@ -0,0 +1,121 @@
+package com.eventdriven.payment.reconciliation;
+
+import com.eventdriven.payment.config.ReconciliationProperties;
+import com.eventdriven.payment.entity.PaymentStatus;
+import com.eventdriven.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementReconciliationServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<PaymentSnapshot> payments = new ArrayList<>();
+    private SettlementReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        ReconciliationProperties properties = new ReconciliationProperties();
+        properties.setDirectory(tempDir.toString());
+        properties.setBatchSize(2);
+        // Small window so rows straddle mapping boundaries
+        properties.setWindowSize(64);
+        service = new SettlementReconciliationService(paymentRepository, properties);
+
+        lenient().when(paymentRepository.findSnapshotsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return payments.stream()
+                    .filter(p -> p.getOrderId() > after)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+    }
+
+    @Test
+    void reconcile_ShouldReportEachMismatchType() throws Exception {
+        payments.add(snapshot(1, "100.00", PaymentStatus.SUCCEEDED));
+        payments.add(snapshot(2, "50.50", PaymentStatus.SUCCEEDED));
+        payments.add(snapshot(3, "20.00", PaymentStatus.FAILED));
+        payments.add(snapshot(5, "75.00", PaymentStatus.SUCCEEDED));
+        payments.add(snapshot(6, "10.00", PaymentStatus.FAILED));
+        payments.add(snapshot(7, "99.99", PaymentStatus.SUCCEEDED));
+
+        Path settlement = write("settlement.csv",
+                "order_id,transaction_id,amount,status\r\n"
+                        + "1,txn-1,100,SUCCEEDED\r\n"
+                        + "2,txn-2,50.05,SUCCEEDED\r\n"
+                        + "3,txn-3,20.00,SUCCEEDED\r\n"
+                        + "4,txn-4,12.00,SUCCEEDED\r\n"
+                        + "4x,broken\r\n"
+                        + "7,txn-7,99.99,SUCCEEDED");
+        Path report = tempDir.resolve("report.csv");
+
+        ReconciliationReport result = service.reconcile(settlement, report);
+
+        assertThat(result.getState()).isEqualTo(ReconciliationReport.State.COMPLETED);
+        assertThat(result.getSettlementRows()).isEqualTo(6);
+        assertThat(result.getPaymentsRead()).isEqualTo(6);
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getMismatches())
+                .containsEntry(MismatchType.AMOUNT_DIFFERS, 1L)
+                .containsEntry(MismatchType.STATUS_DIFFERS, 1L)
+                .containsEntry(MismatchType.MISSING_PAYMENT, 1L)
+                .containsEntry(MismatchType.MALFORMED_ROW, 1L)
+                .containsEntry(MismatchType.MISSING_SETTLEMENT, 1L);
+
+        List<String> lines = Files.readAllLines(report);
+        assertThat(lines).hasSize(6);
+        assertThat(lines).contains(
+                "3,2,AMOUNT_DIFFERS,50.05,50.50,SUCCEEDED,SUCCEEDED",
+                "0,5,MISSING_SETTLEMENT,,75.00,,SUCCEEDED");
+        verify(paymentRepository, atLeast(3)).findSnapshotsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void reconcile_WithUnsortedFile_ShouldFail() throws Exception {
+        Path settlement = write("unsorted.csv", "2,txn-2,1.00,SUCCEEDED\n1,txn-1,1.00,SUCCEEDED\n");
+
+        assertThatThrownBy(() -> service.reconcile(settlement, tempDir.resolve("report.csv")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not sorted");
+    }
+
+    @Test
+    void start_WithPathOutsideDirectory_ShouldBeRejected() {
+        assertThatThrownBy(() -> service.start("../etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static PaymentSnapshot snapshot(long orderId, String amount, PaymentStatus status) {
+        return new PaymentSnapshot(orderId, new BigDecimal(amount), status);
+    }
+}
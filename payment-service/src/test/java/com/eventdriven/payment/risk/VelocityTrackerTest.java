@@ -0,0 +1,102 @@
+package com.eventdriven.payment.risk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 3_600_000L;
+
+    private VelocityTracker tracker(int maxTrackedUsers) {
+        return new VelocityTracker(new VelocityTracker.Window[]{
+                new VelocityTracker.Window("1m", 15_000L, 4, 3, 100_00),
+                new VelocityTracker.Window("1h", 600_000L, 6, 5, 1_000_00)
+        }, maxTrackedUsers);
+    }
+
+    @Test
+    void record_ShouldFlagWindowWhenOrderCountExceeded() {
+        VelocityTracker tracker = tracker(10);
+        long now = 10 * HOUR;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(tracker.record("user123", 10_00, now + i)).isEqualTo(-1);
+        }
+        assertThat(tracker.record("user123", 10_00, now + 3)).isEqualTo(0);
+        assertThat(tracker.record("other", 10_00, now + 3)).isEqualTo(-1);
+    }
+
+    @Test
+    void record_ShouldFlagWindowWhenAmountExceeded() {
+        VelocityTracker tracker = tracker(10);
+        long now = 10 * HOUR;
+
+        assertThat(tracker.record("user123", 60_00, now)).isEqualTo(-1);
+        assertThat(tracker.record("user123", 60_00, now + 1_000)).isEqualTo(0);
+    }
+
+    @Test
+    void record_ShouldForgetOrdersOutsideTheWindow() {
+        VelocityTracker tracker = tracker(10);
+        long now = 10 * HOUR;
+
+        for (int i = 0; i < 3; i++) {
+            tracker.record("user123", 10_00, now);
+        }
+        // Minute window has rolled over, hour window still holds the first 3 orders
+        assertThat(tracker.record("user123", 10_00, now + 2 * MINUTE)).isEqualTo(-1);
+        assertThat(tracker.record("user123", 10_00, now + 2 * MINUTE)).isEqualTo(-1);
+        assertThat(tracker.record("user123", 10_00, now + 2 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void record_BeyondCapacity_ShouldNotTrackNewUsers() {
+        VelocityTracker tracker = tracker(1);
+        long now = 10 * HOUR;
+
+        tracker.record("user1", 10_00, now);
+        for (int i = 0; i < 10; i++) {
+            assertThat(tracker.record("user2", 10_00, now)).isEqualTo(-1);
+        }
+        assertThat(tracker.getTrackedUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void evictIdle_ShouldDropUsersOlderThanLongestWindow() {
+        VelocityTracker tracker = tracker(10);
+        long now = 10 * HOUR;
+
+        tracker.record("stale", 10_00, now);
+        tracker.record("active", 10_00, now + 2 * HOUR);
+
+        assertThat(tracker.evictIdle(now + 2 * HOUR)).isEqualTo(1);
+        assertThat(tracker.getTrackedUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void record_FromConcurrentThreads_ShouldNotLoseUpdates() throws Exception {
+        VelocityTracker tracker = new VelocityTracker(new VelocityTracker.Window[]{
+                new VelocityTracker.Window("1h", 600_000L, 6, 4_000, Long.MAX_VALUE)
+        }, 10);
+        long now = 10 * HOUR;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    tracker.record("user123", 1, now);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(tracker.record("user123", 1, now)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.eventdriven.tracing;
+
+import com.eventdriven.tracing.export.FileSpanExporter;
+import com.eventdriven.tracing.export.InMemorySpanExporter;
+import com.eventdriven.tracing.export.TracesEndpoint;
+import com.eventdriven.tracing.instrument.ObservedRepositoriesPostProcessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.nio.file.Path;
+
+/**
+ * Local span exporters and the instrumentation Spring Boot does not add on its own. HTTP server and
+ * client spans, and the W3C {@code traceparent} header that carries a trace between services, come
+ * from Boot's OpenTelemetry bridge; Kafka spans from the template and listener observations the
+ * services switch on.
+ */
+@AutoConfiguration(before = OpenTelemetryAutoConfiguration.class)
+@ConditionalOnClass(SpanExporter.class)
+@EnableConfigurationProperties(TracingSupportProperties.class)
+public class TracingSupportAutoConfiguration {
+
+    @Bean
+    @ConditionalOnEnabledTracing
+    @ConditionalOnProperty(prefix = "eventdriven.tracing.memory", name = "enabled", matchIfMissing = true)
+    public InMemorySpanExporter inMemorySpanExporter(TracingSupportProperties properties) {
+        return new InMemorySpanExporter(properties.getMemory().getMaxSpans());
+    }
+
+    @Bean
+    @ConditionalOnBean(InMemorySpanExporter.class)
+    @ConditionalOnAvailableEndpoint
+    public TracesEndpoint tracesEndpoint(InMemorySpanExporter exporter) {
+        return new TracesEndpoint(exporter);
+    }
+
+    @Bean
+    @ConditionalOnEnabledTracing
+    @ConditionalOnProperty(prefix = "eventdriven.tracing.file", name = "enabled")
+    public FileSpanExporter fileSpanExporter(TracingSupportProperties properties, Environment environment,
+                                             ObjectProvider<ObjectMapper> objectMapper) {
+        Path path = properties.getFile().getPath();
+        if (path == null) {
+            path = Path.of("traces", environment.getProperty("spring.application.name", "service") + ".jsonl");
+        }
+        return new FileSpanExporter(path, objectMapper.getIfAvailable(ObjectMapper::new));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RepositoryFactoryBeanSupport.class)
+    @ConditionalOnProperty(prefix = "eventdriven.tracing", name = "repositories", matchIfMissing = true)
+    static class RepositoryTracingConfiguration {
+
+        @Bean
+        static ObservedRepositoriesPostProcessor observedRepositoriesPostProcessor(
+                ObjectProvider<ObservationRegistry> registry) {
+            return new ObservedRepositoriesPostProcessor(registry);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({MicrometerTracing.class, ClientResourcesBuilderCustomizer.class})
+    @ConditionalOnProperty(prefix = "eventdriven.tracing", name = "redis", matchIfMissing = true)
+    static class RedisTracingConfiguration {
+
+        @Bean
+        public ClientResourcesBuilderCustomizer redisTracingCustomizer(ObjectProvider<ObservationRegistry> registry,
+                                                                       Environment environment) {
+            return builder -> registry.ifAvailable(observationRegistry -> builder.tracing(new MicrometerTracing(
+                    observationRegistry, environment.getProperty("spring.application.name", "service") + "-redis")));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventdriven.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Where sampled spans go and what gets spans besides HTTP and Kafka. How many traces are sampled is
+ * Spring Boot's {@code management.tracing.sampling.probability}.
+ */
+@Data
+@ConfigurationProperties(prefix = "eventdriven.tracing")
+public class TracingSupportProperties {
+
+    // Local exporters; any other SpanExporter bean, OTLP for instance, is used alongside them
+    private Memory memory = new Memory();
+
+    private File file = new File();
+
+    // Spans around Spring Data repository calls
+    private boolean repositories = true;
+
+    // Spans around Redis commands, cache reads and writes included
+    private boolean redis = true;
+
+    @Data
+    public static class Memory {
+
+        private boolean enabled = true;
+
+        // Oldest spans are dropped first
+        private int maxSpans = 10_000;
+    }
+
+    @Data
+    public static class File {
+
+        private boolean enabled = false;
+
+        // Defaults to traces/<spring.application.name>.jsonl
+        private Path path;
+    }
+}
@@ -0,0 +1,98 @@
+package com.eventdriven.tracing.export;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the most recent spans in memory for {@link TracesEndpoint}. Exports arrive in batches on the
+ * span processor's thread, never on a request thread, so a lock is all the buffer needs.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int maxSpans;
+    private final Deque<RecordedSpan> spans = new ArrayDeque<>();
+
+    public InMemorySpanExporter(int maxSpans) {
+        if (maxSpans <= 0) {
+            throw new IllegalArgumentException("maxSpans must be positive");
+        }
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == maxSpans) {
+                spans.removeFirst();
+            }
+            spans.addLast(RecordedSpan.of(span));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * The spans of one trace, in the order they started.
+     */
+    public synchronized List<RecordedSpan> trace(String traceId) {
+        return spans.stream()
+                .filter(span -> span.traceId().equals(traceId))
+                .sorted(Comparator.comparingLong(RecordedSpan::startMicros))
+                .toList();
+    }
+
+    /**
+     * The most recently started traces first.
+     */
+    public List<TraceSummary> recentTraces(int limit) {
+        Map<String, List<RecordedSpan>> byTrace = new LinkedHashMap<>();
+        synchronized (this) {
+            for (RecordedSpan span : spans) {
+                byTrace.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+        return byTrace.entrySet().stream()
+                .map(e -> summarize(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(TraceSummary::startMicros).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    private static TraceSummary summarize(String traceId, List<RecordedSpan> spans) {
+        spans.sort(Comparator.comparingLong(RecordedSpan::startMicros));
+        RecordedSpan first = spans.get(0);
+        Set<String> services = new LinkedHashSet<>();
+        long end = first.endMicros();
+        boolean error = false;
+        for (RecordedSpan span : spans) {
+            if (span.service() != null) {
+                services.add(span.service());
+            }
+            end = Math.max(end, span.endMicros());
+            error |= span.error();
+        }
+        return new TraceSummary(traceId, first.name(), List.copyOf(services), spans.size(), first.startMicros(),
+                end - first.startMicros(), error);
+    }
+}
@@ -0,0 +1,48 @@
+package com.eventdriven.tracing.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A finished span as the local exporters keep it: plain strings and numbers, one JSON line per span
+ * in the file exporter.
+ */
+public record RecordedSpan(String traceId,
+                           String spanId,
+                           String parentSpanId,
+                           String service,
+                           String name,
+                           String kind,
+                           long startMicros,
+                           long durationMicros,
+                           boolean error,
+                           Map<String, String> attributes) {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    public static RecordedSpan of(SpanData span) {
+        Map<String, String> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        long start = TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos());
+        return new RecordedSpan(
+                span.getTraceId(),
+                span.getSpanId(),
+                span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                span.getResource().getAttribute(SERVICE_NAME),
+                span.getName(),
+                span.getKind().name(),
+                start,
+                TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos()) - start,
+                span.getStatus().getStatusCode() == StatusCode.ERROR,
+                attributes);
+    }
+
+    public long endMicros() {
+        return startMicros + durationMicros;
+    }
+}
@@ -0,0 +1,16 @@
+package com.eventdriven.tracing.export;
+
+import java.util.List;
+
+/**
+ * One trace as far as this instance has seen it. Spans of the other services on the trace are in
+ * their own exporters, so {@code root} is the earliest span recorded here.
+ */
+public record TraceSummary(String traceId,
+                           String root,
+                           List<String> services,
+                           int spans,
+                           long startMicros,
+                           long durationMicros,
+                           boolean error) {
+}
@@ -0,0 +1,34 @@
+package com.eventdriven.tracing.export;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/traces} lists the recent traces this instance took part in;
+ * {@code /actuator/traces/{traceId}} returns the spans it recorded for one of them.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final InMemorySpanExporter exporter;
+
+    public TracesEndpoint(InMemorySpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public List<TraceSummary> traces(@Nullable Integer limit) {
+        return exporter.recentTraces(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public List<RecordedSpan> trace(@Selector String traceId) {
+        return exporter.trace(traceId);
+    }
+}
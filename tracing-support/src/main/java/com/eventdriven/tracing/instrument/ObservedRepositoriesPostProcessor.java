@@ -0,0 +1,30 @@
+package com.eventdriven.tracing.instrument;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Adds {@link ObservedRepositoryInterceptor} to every repository as it is created. It goes first in
+ * the advice chain so the span also covers the repository's own transaction and its commit.
+ */
+public class ObservedRepositoriesPostProcessor implements BeanPostProcessor {
+
+    private final SingletonSupplier<ObservationRegistry> registry;
+
+    public ObservedRepositoriesPostProcessor(ObjectProvider<ObservationRegistry> registry) {
+        this.registry = SingletonSupplier.of(() -> registry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(0,
+                            new ObservedRepositoryInterceptor(registry, information.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,141 @@
+package com.eventdriven.tracing;
+
+import com.eventdriven.tracing.export.FileSpanExporter;
+import com.eventdriven.tracing.export.InMemorySpanExporter;
+import com.eventdriven.tracing.export.RecordedSpan;
+import com.eventdriven.tracing.export.TraceSummary;
+import com.eventdriven.tracing.export.TracesEndpoint;
+import com.eventdriven.tracing.instrument.ObservedRepositoryInterceptor;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TracingSupportTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    ObservationAutoConfiguration.class,
+                    org.springframework.boot.actuate.autoconfigure.opentelemetry.OpenTelemetryAutoConfiguration.class,
+                    OpenTelemetryAutoConfiguration.class,
+                    MicrometerTracingAutoConfiguration.class,
+                    TracingSupportAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.application.name=order-service",
+                    "management.tracing.sampling.probability=1.0",
+                    "management.endpoints.web.exposure.include=traces");
+
+    @Test
+    void traces_AfterRepositoryCallInsideRequest_ShouldNestRepositorySpanUnderRequest() {
+        runner.run(context -> {
+            ProductRepository repository = observed(context, new ProductRepository.Fixed("in stock"));
+            ObservationRegistry registry = context.getBean(ObservationRegistry.class);
+
+            Observation.createNotStarted("http.server.requests", registry)
+                    .contextualName("http get /api/inventory/{productId}")
+                    .observe(() -> repository.find("p-1"));
+            flush(context);
+
+            TracesEndpoint endpoint = context.getBean(TracesEndpoint.class);
+            List<TraceSummary> traces = endpoint.traces(null);
+            assertThat(traces).hasSize(1);
+            assertThat(traces.get(0).root()).isEqualTo("http get /api/inventory/{product-id}");
+            assertThat(traces.get(0).services()).containsExactly("order-service");
+
+            List<RecordedSpan> spans = endpoint.trace(traces.get(0).traceId());
+            assertThat(spans).extracting(RecordedSpan::name)
+                    .containsExactly("http get /api/inventory/{product-id}", "product-repository.find");
+            assertThat(spans.get(1).parentSpanId()).isEqualTo(spans.get(0).spanId());
+            assertThat(spans.get(1).attributes()).containsEntry("repository", "ProductRepository");
+        });
+    }
+
+    @Test
+    void repositoryCall_WhenItThrows_ShouldRecordErrorSpanAndRethrow() {
+        runner.run(context -> {
+            ProductRepository repository = observed(context, productId -> {
+                throw new IllegalStateException("connection refused");
+            });
+
+            assertThatThrownBy(() -> repository.find("p-1")).isInstanceOf(IllegalStateException.class);
+            flush(context);
+
+            List<TraceSummary> traces = context.getBean(TracesEndpoint.class).traces(null);
+            assertThat(traces).singleElement().satisfies(trace -> {
+                assertThat(trace.root()).isEqualTo("product-repository.find");
+                assertThat(trace.error()).isTrue();
+            });
+        });
+    }
+
+    @Test
+    void traces_WithSamplingOff_ShouldExportNothing() {
+        runner.withPropertyValues("management.tracing.sampling.probability=0.0").run(context -> {
+            observed(context, new ProductRepository.Fixed("in stock")).find("p-1");
+            flush(context);
+
+            assertThat(context.getBean(TracesEndpoint.class).traces(null)).isEmpty();
+        });
+    }
+
+    @Test
+    void fileExporter_WhenEnabled_ShouldAppendOneJsonLinePerSpan(@TempDir Path directory) {
+        Path file = directory.resolve("spans.jsonl");
+        runner.withPropertyValues(
+                "eventdriven.tracing.memory.enabled=false",
+                "eventdriven.tracing.file.enabled=true",
+                "eventdriven.tracing.file.path=" + file).run(context -> {
+            assertThat(context).doesNotHaveBean(InMemorySpanExporter.class).doesNotHaveBean(TracesEndpoint.class);
+            assertThat(context).hasSingleBean(FileSpanExporter.class);
+
+            observed(context, new ProductRepository.Fixed("in stock")).find("p-1");
+            observed(context, new ProductRepository.Fixed("in stock")).find("p-2");
+            flush(context);
+
+            List<String> lines = Files.readAllLines(file);
+            assertThat(lines).hasSize(2);
+            assertThat(lines.get(0)).contains("\"name\":\"product-repository.find\"", "\"service\":\"order-service\"");
+        });
+    }
+
+    private static ProductRepository observed(AssertableApplicationContext context, ProductRepository target) {
+        ObservationRegistry registry = context.getBean(ObservationRegistry.class);
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(ProductRepository.class);
+        proxyFactory.addAdvice(new ObservedRepositoryInterceptor(() -> registry, ProductRepository.class));
+        return (ProductRepository) proxyFactory.getProxy();
+    }
+
+    private static void flush(AssertableApplicationContext context) {
+        context.getBean(SdkTracerProvider.class).forceFlush().join(5, TimeUnit.SECONDS);
+    }
+
+    interface ProductRepository {
+
+        String find(String productId);
+
+        record Fixed(String value) implements ProductRepository {
+
+            @Override
+            public String find(String productId) {
+                return value;
+            }
+        }
+    }
+}